@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.hqdm.rdf.BulkObjectFactory;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+
+/**
+ * Time to build objects from triples grouped by subject, comparing a list of pairs per subject
+ * passed to {@link HqdmObjectFactory#create(String, List)} with a {@link BulkObjectFactory} fed one
+ * triple at a time or from a {@link TripleBatch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BulkCreationBenchmark {
+
+    @Param({ "10000" })
+    private int subjectCount;
+
+    private String[][] triples;
+
+    private TripleBatch batch;
+
+    /**
+     * Generate four triples for each subject.
+     */
+    @Setup
+    public void setUp() {
+        final List<String[]> generated = new ArrayList<>();
+        for (int i = 0; i < subjectCount; i++) {
+            final String subject = "http://example.com/data#person" + i;
+            generated.add(new String[] { subject, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() });
+            generated.add(new String[] { subject, HQDM.ENTITY_NAME.getIri(), "Person " + i });
+            generated.add(new String[] { subject, HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind" });
+            generated.add(new String[] { subject, HQDM.PART_OF_POSSIBLE_WORLD.getIri(),
+                "http://example.com/data#world" });
+        }
+        triples = generated.toArray(new String[0][]);
+        batch = new TripleBatch(triples.length);
+        for (final String[] triple : triples) {
+            batch.add(triple[0], triple[1], triple[2], !triple[2].startsWith("http"));
+        }
+    }
+
+    /**
+     * Collect each subject's triples into a list of pairs and build it.
+     *
+     * @param blackhole Sink for the objects.
+     */
+    @Benchmark
+    public void pairLists(final Blackhole blackhole) {
+        int start = 0;
+        while (start < triples.length) {
+            final String subject = triples[start][0];
+            final List<Pair<String, String>> pairs = new ArrayList<>();
+            int end = start;
+            while (end < triples.length && triples[end][0].equals(subject)) {
+                pairs.add(new Pair<>(triples[end][1], triples[end][2]));
+                end++;
+            }
+            blackhole.consume(HqdmObjectFactory.create(subject, pairs));
+            start = end;
+        }
+    }
+
+    /**
+     * Pass every triple to a {@link BulkObjectFactory}.
+     *
+     * @param blackhole Sink for the objects.
+     */
+    @Benchmark
+    public void bulk(final Blackhole blackhole) {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        for (final String[] triple : triples) {
+            blackhole.consume(factory.add(triple[0], triple[1], triple[2]));
+        }
+        blackhole.consume(factory.flush());
+    }
+
+    /**
+     * Pass a {@link TripleBatch} to a {@link BulkObjectFactory}.
+     *
+     * @param blackhole Sink for the objects.
+     */
+    @Benchmark
+    public void tripleBatch(final Blackhole blackhole) {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        factory.addAll(batch, blackhole::consume);
+        blackhole.consume(factory.flush());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.model.impl.ThingImpl;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.StorageMode;
+
+/**
+ * Throughput of several threads adding to and reading from one shared object, comparing
+ * {@link StorageMode#CONCURRENT} with compact storage guarded by an external lock, which is what
+ * parallel ingest needed before the concurrent mode existed.
+ *
+ * <p>
+ * Vary the thread count with {@code -t}, e.g. {@code -t 1}, {@code -t 4}, {@code -t 16}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentIngestBenchmark {
+
+    private static final int PREDICATE_COUNT = 8;
+
+    private static final int VALUE_COUNT = 1024;
+
+    private final String[] predicates = new String[PREDICATE_COUNT];
+
+    private final String[] values = new String[VALUE_COUNT];
+
+    private Thing compact;
+
+    private Thing concurrent;
+
+    /**
+     * Create the shared objects and the predicate and value strings.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < PREDICATE_COUNT; i++) {
+            predicates[i] = "http://www.semanticweb.org/hqdm#benchmark_predicate_" + i;
+        }
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = "http://example.com/data#value" + i;
+        }
+        compact = new ThingImpl("http://example.com/data#compact");
+        concurrent = new ConcurrentThing("http://example.com/data#concurrent");
+    }
+
+    /**
+     * Per-thread position in the predicate and value arrays.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            return next++;
+        }
+    }
+
+    /**
+     * Add and read back a value on compact storage under a lock.
+     *
+     * @param cursor Per-thread cursor.
+     * @return Whether the value was found.
+     */
+    @Benchmark
+    public boolean lockedCompact(final Cursor cursor) {
+        final int i = cursor.next();
+        final String predicate = predicates[i % PREDICATE_COUNT];
+        final String value = values[i % VALUE_COUNT];
+        synchronized (compact) {
+            compact.addValue(predicate, value);
+            return compact.hasThisValue(predicate, value);
+        }
+    }
+
+    /**
+     * Add and read back a value on concurrent storage without a lock.
+     *
+     * @param cursor Per-thread cursor.
+     * @return Whether the value was found.
+     */
+    @Benchmark
+    public boolean concurrent(final Cursor cursor) {
+        final int i = cursor.next();
+        final String predicate = predicates[i % PREDICATE_COUNT];
+        final String value = values[i % VALUE_COUNT];
+        concurrent.addValue(predicate, value);
+        return concurrent.hasThisValue(predicate, value);
+    }
+
+    /**
+     * A {@link Thing} using {@link StorageMode#CONCURRENT} regardless of the default mode.
+     */
+    private static final class ConcurrentThing extends HqdmObject implements Thing {
+        ConcurrentThing(final String id) {
+            super(id, StorageMode.CONCURRENT);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.rdf.BulkObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+
+/**
+ * Time to load a batch in which some subjects cannot be built, comparing catching an exception for
+ * each bad subject with reporting it to an error sink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class DirtyIngestBenchmark {
+
+    @Param({ "10000" })
+    private int subjectCount;
+
+    @Param({ "1", "5" })
+    private int badPercent;
+
+    private final TripleBatch batch = new TripleBatch();
+
+    /**
+     * Generate three triples for each subject, leaving the type out of some of them.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < subjectCount; i++) {
+            final String subject = "http://example.com/data#person" + i;
+            if (i % 100 >= badPercent) {
+                batch.add(subject, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri(), false);
+            }
+            batch.add(subject, HQDM.ENTITY_NAME.getIri(), "Person " + i, true);
+            batch.add(subject, HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind", false);
+        }
+    }
+
+    /**
+     * Catch the exception thrown for each bad subject.
+     *
+     * @param blackhole Sink for the objects and exceptions.
+     */
+    @Benchmark
+    public void exceptions(final Blackhole blackhole) {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                blackhole.consume(factory.add(batch.getSubject(i), batch.getPredicateId(i), batch.getObject(i),
+                        batch.isLiteral(i)));
+            } catch (final HqdmException e) {
+                blackhole.consume(e);
+            }
+        }
+        blackhole.consume(factory.flush());
+    }
+
+    /**
+     * Report each bad subject to an error sink.
+     *
+     * @param blackhole Sink for the objects and errors.
+     */
+    @Benchmark
+    public void errorSink(final Blackhole blackhole) {
+        final BulkObjectFactory factory = new BulkObjectFactory(blackhole::consume);
+        factory.addAll(batch, blackhole::consume);
+        blackhole.consume(factory.flush());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.rdf.util.Triples;
+import uk.gov.gchq.hqdm.rdf.util.TriplesWriter;
+
+/**
+ * Throughput of exporting objects as triples, comparing {@link Triples#toTriples(Thing)} copied into
+ * a {@link Writer} with a {@link TriplesWriter}. The {@code bytes} counter gives the output rate in
+ * bytes per second; run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ExportBenchmark {
+
+    @Param({ "10000" })
+    private int objectCount;
+
+    private List<Thing> things;
+
+    /**
+     * Bytes written, reported as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output extends OutputStream {
+
+        /** Number of bytes written in this iteration. */
+        public long bytes;
+
+        /**
+         * Reset the count.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+
+        @Override
+        public void write(final int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            bytes += len;
+        }
+    }
+
+    /**
+     * Build objects with four values each.
+     */
+    @Setup
+    public void setUp() {
+        things = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            things.add(HqdmObjectFactory.create("http://example.com/data#person" + i,
+                    List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                            new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person " + i),
+                            new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind"),
+                            new Pair<>(HQDM.PART_OF_POSSIBLE_WORLD.getIri(), "http://example.com/data#world"))));
+        }
+    }
+
+    /**
+     * Build a string per object and write it to a buffered writer.
+     *
+     * @param output Destination of the bytes.
+     * @throws IOException If the output cannot be written.
+     */
+    @Benchmark
+    public void toTriples(final Output output) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                TriplesWriter.DEFAULT_BUFFER_SIZE)) {
+            for (final Thing thing : things) {
+                writer.write(Triples.toTriples(thing));
+            }
+        }
+    }
+
+    /**
+     * Write every object through a {@link TriplesWriter}.
+     *
+     * @param output Destination of the bytes.
+     * @throws IOException If the output cannot be written.
+     */
+    @Benchmark
+    public void triplesWriter(final Output output) throws IOException {
+        try (TriplesWriter writer = new TriplesWriter(output)) {
+            for (final Thing thing : things) {
+                writer.write(thing);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.BulkObjectFactory;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.ParallelObjectLoader;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.MappedNtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.NtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+import uk.gov.gchq.hqdm.rdf.util.TriplesWriter;
+
+/**
+ * Time to build objects from an N-Triples file, comparing the line-based {@link NtriplesReader} with
+ * the memory-mapped {@link MappedNtriplesReader} on one thread and through
+ * {@link ParallelObjectLoader} on all of them. Objects are counted and dropped, so the heap does not
+ * limit the file size.
+ *
+ * <p>
+ * The file is generated in {@code java.io.tmpdir} for each size before the trial and deleted after
+ * it; the larger sizes need that much free disk space. Select sizes with {@code -p sizeMb=...}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class FileParseBenchmark {
+
+    private static final int BATCH_SIZE = 4096;
+
+    @Param({ "1024", "4096", "20480" })
+    private long sizeMb;
+
+    private Path file;
+
+    /**
+     * Write objects with four triples each until the file reaches the size.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("hqdm-parse-", ".nt");
+        final long size = sizeMb * 1024 * 1024;
+        try (OutputStream out = Files.newOutputStream(file); TriplesWriter writer = new TriplesWriter(out)) {
+            for (long i = 0; writer.getBytesWritten() < size; i++) {
+                writer.write(HqdmObjectFactory.create("http://example.com/data#person" + i,
+                        List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                                new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person " + i),
+                                new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind"),
+                                new Pair<>(HQDM.PART_OF_POSSIBLE_WORLD.getIri(),
+                                        "http://example.com/data#world"))));
+            }
+        }
+    }
+
+    /**
+     * Delete the file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Read lines through a {@link NtriplesReader}.
+     *
+     * @return The number of objects built.
+     * @throws IOException If the file cannot be read.
+     */
+    @Benchmark
+    public long lineReader() throws IOException {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        final TripleBatch batch = new TripleBatch(BATCH_SIZE);
+        final LongAdder count = new LongAdder();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final NtriplesReader reader = new NtriplesReader(in);
+            while (reader.read(batch, BATCH_SIZE) > 0) {
+                factory.addAll(batch, thing -> count.increment());
+                batch.clear();
+            }
+        }
+        return count.sum() + (factory.flush() == null ? 0 : 1);
+    }
+
+    /**
+     * Read the mapped file on one thread.
+     *
+     * @return The number of objects built.
+     * @throws IOException If the file cannot be read.
+     */
+    @Benchmark
+    public long mapped() throws IOException {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        final TripleBatch batch = new TripleBatch(BATCH_SIZE);
+        final LongAdder count = new LongAdder();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedNtriplesReader reader = new MappedNtriplesReader(channel);
+            while (reader.read(batch, BATCH_SIZE) > 0) {
+                factory.addAll(batch, thing -> count.increment());
+                batch.clear();
+            }
+        }
+        return count.sum() + (factory.flush() == null ? 0 : 1);
+    }
+
+    /**
+     * Read chunks of the mapped file in parallel on the common pool.
+     *
+     * @return The number of objects built.
+     * @throws IOException If the file cannot be read.
+     */
+    @Benchmark
+    public long mappedParallel() throws IOException {
+        final LongAdder count = new LongAdder();
+        new ParallelObjectLoader(ParallelObjectLoader.Order.UNORDERED).load(file, (final Thing thing) -> count
+                .increment());
+        return count.sum();
+    }
+}
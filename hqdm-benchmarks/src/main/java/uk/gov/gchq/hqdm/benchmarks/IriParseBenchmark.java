@@ -0,0 +1,127 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.rdf.exception.IriException;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+
+/**
+ * Cost of parsing an IRI string, comparing {@link IRI} with the earlier validation through
+ * {@link URL}, and of reading the full string of an existing IRI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IriParseBenchmark {
+
+    private final String valid = "http://www.semanticweb.org/hqdm#kind_of_biological_system_component";
+
+    private final String invalid = "kind_of_biological_system_component";
+
+    private final IRI parsed = new IRI(valid);
+
+    /**
+     * Parse a valid IRI.
+     *
+     * @return The {@link IRI}.
+     */
+    @Benchmark
+    public IRI scannerValid() {
+        return new IRI(valid);
+    }
+
+    /**
+     * Reject an invalid IRI.
+     *
+     * @return The exception.
+     */
+    @Benchmark
+    public IriException scannerInvalid() {
+        try {
+            new IRI(invalid);
+            return null;
+        } catch (final IriException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Read the full string of an IRI, as object creation and comparisons do repeatedly.
+     *
+     * @return The IRI string.
+     */
+    @Benchmark
+    public String fullString() {
+        return parsed.getIri();
+    }
+
+    /**
+     * Parse a valid IRI as {@link IRI} used to, validating it with {@link URL}.
+     *
+     * @return The resource name.
+     */
+    @Benchmark
+    public String urlValid() {
+        return parseWithUrl(valid);
+    }
+
+    /**
+     * Reject an invalid IRI as {@link IRI} used to.
+     *
+     * @return The exception.
+     */
+    @Benchmark
+    public IriException urlInvalid() {
+        try {
+            parseWithUrl(invalid);
+            return null;
+        } catch (final IriException e) {
+            return e;
+        }
+    }
+
+    private static String parseWithUrl(final String iri) {
+        try {
+            new URL(iri);
+        } catch (final MalformedURLException m) {
+            throw new IriException("Cannot parse IRI: " + iri);
+        }
+        int index = iri.lastIndexOf('#');
+        if (index < 0) {
+            index = iri.lastIndexOf('/');
+        }
+        if (index < 0) {
+            throw new IriException("Cannot parse IRI: " + iri);
+        }
+        return iri.substring(index + 1);
+    }
+}
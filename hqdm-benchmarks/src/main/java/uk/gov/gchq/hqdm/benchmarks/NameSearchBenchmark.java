@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.index.TextIndex;
+import uk.gov.gchq.hqdm.model.impl.PersonImpl;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+
+/**
+ * Time to find objects by name, comparing a scan of every object with a {@link TextIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class NameSearchBenchmark {
+
+    private static final String NAME = "http://www.semanticweb.org/hqdm#data_EntityName";
+
+    @Param({ "100000" })
+    private int objectCount;
+
+    private final List<HqdmObject> objects = new ArrayList<>();
+
+    private TextIndex index;
+
+    /**
+     * Create the objects and index them.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new TextIndex(NAME);
+        for (int i = 0; i < objectCount; i++) {
+            final HqdmObject person = new PersonImpl("http://example.com/data#person" + i);
+            person.addStringValue(NAME, "Person Number " + i);
+            objects.add(person);
+            index.add(person);
+        }
+    }
+
+    /**
+     * Stop the index listening.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.close();
+    }
+
+    /**
+     * Case-insensitive match by scanning every object.
+     *
+     * @return Matching object IDs.
+     */
+    @Benchmark
+    public Set<String> scanIgnoreCase() {
+        final Set<String> result = new HashSet<>();
+        for (final HqdmObject object : objects) {
+            if (object.hasThisStringValueIgnoreCase(NAME, "PERSON NUMBER 4242")) {
+                result.add(object.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Case-insensitive match using the index.
+     *
+     * @return Matching object IDs.
+     */
+    @Benchmark
+    public Set<String> indexIgnoreCase() {
+        return index.findIgnoreCase("PERSON NUMBER 4242");
+    }
+
+    /**
+     * Substring match by scanning every object.
+     *
+     * @return Matching object IDs.
+     */
+    @Benchmark
+    public Set<String> scanContaining() {
+        final Set<String> result = new HashSet<>();
+        for (final HqdmObject object : objects) {
+            if (object.hasThisStringValueFuzzy(NAME, "ER 4242")) {
+                result.add(object.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Substring match using the index.
+     *
+     * @return Matching object IDs.
+     */
+    @Benchmark
+    public Set<String> indexContaining() {
+        return index.findContaining("ER 4242");
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.ParallelObjectLoader;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+
+/**
+ * Time to load a batch of triples with a {@link ParallelObjectLoader}, for 1 to N workers and each
+ * output order. Compare the results against the number of cores of the machine running it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ParallelLoadBenchmark {
+
+    @Param({ "100000" })
+    private int subjectCount;
+
+    @Param({ "1", "2", "4", "8" })
+    private int workers;
+
+    @Param({ "INPUT", "UNORDERED" })
+    private ParallelObjectLoader.Order order;
+
+    private final List<String[]> triples = new ArrayList<>();
+
+    private ForkJoinPool pool;
+
+    private ParallelObjectLoader loader;
+
+    /**
+     * Generate four triples for each subject and create the pool.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < subjectCount; i++) {
+            final String subject = "http://example.com/data#person" + i;
+            triples.add(new String[] { subject, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() });
+            triples.add(new String[] { subject, HQDM.ENTITY_NAME.getIri(), "Person " + i });
+            triples.add(new String[] { subject, HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind" });
+            triples.add(new String[] { subject, HQDM.PART_OF_POSSIBLE_WORLD.getIri(),
+                "http://example.com/data#world" });
+        }
+        pool = new ForkJoinPool(workers);
+        loader = new ParallelObjectLoader(pool, order);
+    }
+
+    /**
+     * Shut the pool down.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Load the batch.
+     *
+     * @return Map of the objects by ID.
+     */
+    @Benchmark
+    public Map<String, Thing> load() {
+        return loader.load(triples, t -> t[0], t -> t[1], t -> t[2]);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.model.impl.ThingImpl;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+
+/**
+ * Memory cost of the predicate storage in {@code HqdmObject}.
+ *
+ * <p>
+ * Each benchmark builds one object with the predicates typical of a state of an individual. Run with
+ * {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes allocated per object, between
+ * {@link #registryKeyed()} and {@link #stringKeyed()}, which reproduces the previous per-object
+ * {@code HashMap<String, Set<Object>>} of {@link HashSet}s layout.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateStorageBenchmark {
+
+    private String[] predicates;
+
+    private String[] values;
+
+    /**
+     * Resolve the predicate IRIs once so that both layouts share the same key strings.
+     */
+    @Setup
+    public void setUp() {
+        predicates = new String[] {
+            HQDM.MEMBER_OF_KIND.getIri(),
+            HQDM.PART_OF_POSSIBLE_WORLD.getIri(),
+            HQDM.BEGINNING.getIri(),
+            HQDM.ENDING.getIri(),
+        };
+        values = new String[] {
+            "http://example.com/data#kind_of_person",
+            "http://example.com/data#possible_world",
+            "http://example.com/data#begin_event",
+            "http://example.com/data#end_event",
+        };
+    }
+
+    /**
+     * Build an object whose predicates are keyed by registry ID.
+     *
+     * @return The populated object.
+     */
+    @Benchmark
+    public Thing registryKeyed() {
+        final Thing thing = new ThingImpl("http://example.com/data#object");
+        for (int i = 0; i < predicates.length; i++) {
+            thing.addValue(predicates[i], values[i]);
+        }
+        return thing;
+    }
+
+    /**
+     * Build an object with the string-keyed, {@link HashSet} valued layout used before the predicate
+     * registry and {@code ValueSet}.
+     *
+     * @return The populated object.
+     */
+    @Benchmark
+    public StringKeyedObject stringKeyed() {
+        final StringKeyedObject object = new StringKeyedObject("http://example.com/data#object");
+        for (int i = 0; i < predicates.length; i++) {
+            object.predicates.computeIfAbsent(predicates[i], k -> new HashSet<>()).add(values[i]);
+        }
+        return object;
+    }
+
+    /**
+     * The fields of an {@code HqdmObject} before the predicate registry was introduced.
+     */
+    public static class StringKeyedObject {
+
+        private final String id;
+
+        private final Map<String, Set<Object>> predicates = new HashMap<>();
+
+        /**
+         * Constructs a new StringKeyedObject.
+         *
+         * @param id ID of the object.
+         */
+        public StringKeyedObject(final String id) {
+            this.id = id;
+        }
+
+        /**
+         * Get the ID of the object.
+         *
+         * @return ID of the object.
+         */
+        public String getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+import uk.gov.gchq.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Cost of reclassifying an object through {@link DynamicObjects}, and of reading a value from an
+ * object that has already been reclassified a number of times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReclassifyBenchmark {
+
+    private static final String PREDICATE = "http://example.com/predicate#name";
+
+    @SuppressWarnings("unchecked")
+    private static final java.lang.Class<Thing>[] PARTICIPANT = new java.lang.Class[] { Participant.class };
+
+    @Param({ "0", "1", "100" })
+    private int reclassifications;
+
+    private Person person;
+
+    private Thing reclassified;
+
+    /**
+     * Create a person and reclassify it the given number of times.
+     */
+    @Setup
+    public void setUp() {
+        person = SpatioTemporalExtentServices.createPerson("http://example.com/data#person1");
+        person.addStringValue(PREDICATE, "Alice");
+        reclassified = person;
+        for (int i = 0; i < reclassifications; i++) {
+            reclassified = i % 2 == 0 ? DynamicObjects.addTypes(reclassified, Thing.class, PARTICIPANT)
+                    : DynamicObjects.removeTypes(reclassified, Thing.class, PARTICIPANT);
+        }
+    }
+
+    /**
+     * Give the person a further type.
+     *
+     * @return The reclassified object.
+     */
+    @Benchmark
+    public Participant addType() {
+        return DynamicObjects.addTypes(person, Participant.class, PARTICIPANT);
+    }
+
+    /**
+     * Read a value from the reclassified object.
+     *
+     * @return Whether the value is present.
+     */
+    @Benchmark
+    public boolean readValue() {
+        return reclassified.hasThisStringValue(PREDICATE, "Alice");
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.BulkObjectFactory;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.SnapshotReader;
+import uk.gov.gchq.hqdm.rdf.SnapshotWriter;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.NtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+import uk.gov.gchq.hqdm.rdf.util.Triples;
+import uk.gov.gchq.hqdm.rdf.util.TriplesWriter;
+
+/**
+ * Time to save and load a graph as N-Triples, written by {@link TriplesWriter} and read back through
+ * a {@link NtriplesReader}, and as a binary snapshot through {@link SnapshotWriter} and
+ * {@link SnapshotReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SnapshotBenchmark {
+
+    private static final int BATCH_SIZE = 4096;
+
+    private static final int KIND_COUNT = 100;
+
+    @Param({ "100000" })
+    private int objectCount;
+
+    private List<Thing> things;
+
+    private byte[] triples;
+
+    private byte[] snapshot;
+
+    /**
+     * Build people with a name, a kind, a possible world and a reference to another person, and
+     * encode them both ways.
+     *
+     * @throws IOException If the objects cannot be encoded.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        things = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            things.add(HqdmObjectFactory.create("http://example.com/data#person" + i,
+                    List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                            new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person " + i),
+                            new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/data#kind" + i % KIND_COUNT),
+                            new Pair<>(HQDM.PART_OF_POSSIBLE_WORLD.getIri(), "http://example.com/data#world"),
+                            new Pair<>(HQDM.PARTICIPANT_IN.getIri(),
+                                    "http://example.com/data#person" + (i * 31 % objectCount)))));
+        }
+        triples = writeTriples().toByteArray();
+        snapshot = writeSnapshot().toByteArray();
+    }
+
+    /**
+     * Write the objects as N-Triples.
+     *
+     * @return The bytes written.
+     * @throws IOException If the objects cannot be written.
+     */
+    @Benchmark
+    public ByteArrayOutputStream writeTriples() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TriplesWriter writer = new TriplesWriter(out)) {
+            for (final Thing thing : things) {
+                writer.write(thing);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Write the objects as a snapshot.
+     *
+     * @return The bytes written.
+     * @throws IOException If the objects cannot be written.
+     */
+    @Benchmark
+    public ByteArrayOutputStream writeSnapshot() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotWriter.write(things, Channels.newChannel(out));
+        return out;
+    }
+
+    /**
+     * Build the objects from N-Triples, as {@link Triples#toTriples(Thing)} output would be read.
+     *
+     * @return The objects.
+     * @throws IOException If the objects cannot be read.
+     */
+    @Benchmark
+    public List<Thing> loadTriples() throws IOException {
+        final List<Thing> result = new ArrayList<>(objectCount);
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        final TripleBatch batch = new TripleBatch(BATCH_SIZE);
+        try (Reader in = new InputStreamReader(new ByteArrayInputStream(triples), StandardCharsets.UTF_8)) {
+            final NtriplesReader reader = new NtriplesReader(in);
+            while (reader.read(batch, BATCH_SIZE) > 0) {
+                factory.addAll(batch, result::add);
+                batch.clear();
+            }
+        }
+        final Thing last = factory.flush();
+        if (last != null) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    /**
+     * Build the objects from a snapshot.
+     *
+     * @return The objects.
+     * @throws IOException If the objects cannot be read.
+     */
+    @Benchmark
+    public List<Thing> loadSnapshot() throws IOException {
+        return SnapshotReader.read(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+    }
+}
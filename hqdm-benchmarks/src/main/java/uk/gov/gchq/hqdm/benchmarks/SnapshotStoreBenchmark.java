@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.SnapshotReader;
+import uk.gov.gchq.hqdm.rdf.SnapshotStore;
+import uk.gov.gchq.hqdm.rdf.SnapshotWriter;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+
+/**
+ * Opening and querying a graph through a {@link SnapshotStore}, compared with reading every object
+ * onto the heap with {@link SnapshotReader}. {@code open} should take the same time for every graph
+ * size. {@code coldQuery} opens a new store for each query, so the pages it touches have not been
+ * mapped before, though the file is in the page cache; {@code warmQuery} queries a store that has
+ * already been used.
+ *
+ * <p>
+ * {@code open} and {@code coldQuery} map the file once per iteration. The mappings are only released
+ * when the closed stores are garbage collected, so running them back to back would exhaust native
+ * memory before a collection came round.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SnapshotStoreBenchmark {
+
+    private static final String PERSON = "http://example.com/data#person";
+
+    private static final String KIND = "http://example.com/data#kind";
+
+    private static final int KIND_COUNT = 100;
+
+    private static final int QUERY_COUNT = 4096;
+
+    @Param({ "100000", "1000000" })
+    private int objectCount;
+
+    private Path file;
+
+    private SnapshotStore store;
+
+    private String[] ids;
+
+    private int next;
+
+    /**
+     * Write an indexed snapshot of people, and open it.
+     *
+     * @throws IOException If the snapshot cannot be written or opened.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        final List<Thing> things = new ArrayList<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            things.add(HqdmObjectFactory.create(PERSON + i,
+                    List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                            new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person " + i),
+                            new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), KIND + i % KIND_COUNT),
+                            new Pair<>(HQDM.PART_OF_POSSIBLE_WORLD.getIri(), "http://example.com/data#world"))));
+        }
+        file = Files.createTempFile("hqdm-snapshot-", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            SnapshotWriter.write(things, channel, true);
+        }
+        store = SnapshotStore.open(file);
+        final Random random = new Random(1);
+        ids = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            ids[i] = PERSON + random.nextInt(objectCount);
+        }
+    }
+
+    /**
+     * Close the store and delete the file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Open and close the store.
+     *
+     * @return The number of objects in the store.
+     * @throws IOException If the store cannot be opened.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 100)
+    @Measurement(iterations = 500)
+    public int open() throws IOException {
+        try (SnapshotStore opened = SnapshotStore.open(file)) {
+            return opened.size();
+        }
+    }
+
+    /**
+     * Find an object and test one of its values in a store that has already been used.
+     *
+     * @return Whether the object is of kind 0.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean warmQuery() {
+        return query(store);
+    }
+
+    /**
+     * Open a store and make one query of it.
+     *
+     * @return Whether the object is of kind 0.
+     * @throws IOException If the store cannot be opened.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 100)
+    @Measurement(iterations = 500)
+    public boolean coldQuery() throws IOException {
+        try (SnapshotStore opened = SnapshotStore.open(file)) {
+            return query(opened);
+        }
+    }
+
+    /**
+     * Read every object onto the heap, as a store without mapping would have to at startup.
+     *
+     * @return The objects.
+     * @throws IOException If the snapshot cannot be read.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Thing> deserialise() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return SnapshotReader.read(channel);
+        }
+    }
+
+    private boolean query(final SnapshotStore target) {
+        final String id = ids[next++ & QUERY_COUNT - 1];
+        return target.get(id).hasThisValue(HQDM.MEMBER_OF_KIND.getIri(), KIND + 0);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+
+/**
+ * Time to the first object created by {@link HqdmObjectFactory#create(String, List)} in a new JVM,
+ * as paid by a short-lived tool. Each fork measures one call, so the result includes loading and
+ * initialising the classes it needs.
+ *
+ * <p>
+ * The IRIs are written out as strings rather than taken from the IRI constant classes so that
+ * loading those classes is only counted if the factory itself needs them.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    /**
+     * Create one object.
+     *
+     * @return The new object.
+     */
+    @Benchmark
+    public Thing firstCreate() {
+        return HqdmObjectFactory.create("http://example.com/data#person1",
+                List.of(new Pair<>("http://www.w3.org/1999/02/22-rdf-syntax-ns#type",
+                        "http://www.semanticweb.org/hqdm#person"),
+                        new Pair<>("http://www.semanticweb.org/hqdm#data_EntityName", "person1")));
+    }
+}
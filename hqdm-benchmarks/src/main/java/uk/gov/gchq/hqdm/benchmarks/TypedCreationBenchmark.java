@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.HqdmIri;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * Throughput of {@link HqdmObjectFactory#create(HqdmIri, IRI)} for types at the start, middle and end
+ * of the alphabet of HQDM type names, and of creating objects with more than one type through
+ * {@link DynamicObjects}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedCreationBenchmark {
+
+    @Param({ "ABSTRACT_OBJECT", "KIND_OF_PERSON", "PERSON", "UNIT_OF_MEASURE" })
+    private String typeName;
+
+    @SuppressWarnings("unchecked")
+    private static final java.lang.Class<Thing>[] PERSON_AND_PARTICIPANT = new java.lang.Class[] { Person.class,
+        Participant.class };
+
+    private HqdmIri type;
+
+    private IRI iri;
+
+    /**
+     * Look up the type constant.
+     *
+     * @throws ReflectiveOperationException If the type name is not a constant of {@link HQDM}.
+     */
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        type = (HqdmIri) HQDM.class.getField(typeName).get(null);
+        iri = new IRI("http://example.com/data#object1");
+    }
+
+    /**
+     * Create an object of the type.
+     *
+     * @return The new object.
+     */
+    @Benchmark
+    public Thing create() {
+        return HqdmObjectFactory.create(type, iri);
+    }
+
+    /**
+     * Create an object implementing two types, as for an object with two {@code rdf:type}s.
+     *
+     * @return The new object.
+     */
+    @Benchmark
+    public Person createMultiTyped() {
+        return DynamicObjects.create("http://example.com/data#object1", Person.class, PERSON_AND_PARTICIPANT);
+    }
+}
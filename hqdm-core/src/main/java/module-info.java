@@ -17,6 +17,8 @@
  */
 module uk.gov.gchq.hqdm.core {
     exports uk.gov.gchq.hqdm.exception;
+    exports uk.gov.gchq.hqdm.index;
     exports uk.gov.gchq.hqdm.model;
+    exports uk.gov.gchq.hqdm.pojo;
     exports uk.gov.gchq.hqdm.services;
 }
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.pojo.CaseFolding;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateListener;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+
+/**
+ * Index of the string values of chosen predicates across a collection of HQDM objects, for finding
+ * objects by name without scanning them all.
+ *
+ * <p>
+ * Three lookups are supported, each returning the IDs of the matching objects:
+ * </p>
+ * <ul>
+ * <li>{@link #findExact(String)} - a hash index of the values as stored.</li>
+ * <li>{@link #findIgnoreCase(String)} - a hash index of the values folded by {@link CaseFolding},
+ * matching {@link HqdmObject#hasThisStringValueIgnoreCase(String, String)}.</li>
+ * <li>{@link #findContaining(String)} - an n-gram index of the folded values, matching
+ * {@link HqdmObject#hasThisStringValueFuzzy(String, String)}. Each distinct folded value is listed
+ * under every sequence of one, two and three characters it contains. A query of three or more
+ * characters is answered from the shortest list for any of its trigrams, checking each candidate;
+ * a shorter query is answered from the list for the query itself.</li>
+ * </ul>
+ *
+ * <p>
+ * The index registers itself as a {@link PredicateListener} when created, so values added with
+ * {@link HqdmObject#addStringValue(int, String)} or {@link HqdmObject#addValue(int, String)}, or
+ * removed with {@link HqdmObject#removeValue(int, String)}, on any object in the index, or on a view
+ * of it from {@link uk.gov.gchq.hqdm.services.DynamicObjects}, are reflected immediately. The ID of
+ * an object must not change while it is in the index. All methods are thread-safe. Changes to
+ * objects that are not in the index are ignored without taking the index's lock, so ingest that does
+ * not touch indexed objects does not wait on it.
+ * </p>
+ *
+ * <p>
+ * Listeners are registered process-wide, so an index that is not closed stays reachable, with every
+ * object in it, and is told of every change to any HQDM object for the life of the JVM. Create an
+ * index in a try-with-resources statement, or {@link #close() close} it when it is no longer needed.
+ * </p>
+ */
+public final class TextIndex implements PredicateListener, AutoCloseable {
+
+    private static final int GRAM = 3;
+
+    private static final int GRAM_LENGTH_SHIFT = 48;
+
+    private final int[] predicateIds;
+
+    // Read without the lock by the listener methods; written only under the write lock.
+    private final Map<String, HqdmObject> objects = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> exact = new HashMap<>();
+
+    private final Map<String, Set<String>> folded = new HashMap<>();
+
+    // Sequence of one to three characters to the distinct folded values containing it.
+    private final Map<Long, Set<String>> grams = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a new {@code TextIndex} over the values of the given predicates.
+     *
+     * @param predicates Predicate IRIs to index, e.g. {@code HQDM.ENTITY_NAME.getIri()}.
+     */
+    public TextIndex(final String... predicates) {
+        predicateIds = Arrays.stream(predicates).mapToInt(PredicateRegistry::idOf).distinct().sorted().toArray();
+        HqdmObject.addPredicateListener(this);
+    }
+
+    /**
+     * Add an object and its current values to the index.
+     *
+     * @param object The {@link HqdmObject}.
+     */
+    public void add(final HqdmObject object) {
+        lock.writeLock().lock();
+        try {
+            final HqdmObject previous = objects.put(object.getId(), object);
+            if (previous != null && !previous.equals(object)) {
+                unindexAll(previous);
+            }
+            for (final int predicateId : predicateIds) {
+                final Set<Object> values = object.value(predicateId);
+                if (values != null) {
+                    for (final Object value : values) {
+                        if (value instanceof String) {
+                            index(object.getId(), (String) value);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an object from the index.
+     *
+     * @param object The {@link HqdmObject}.
+     */
+    public void remove(final HqdmObject object) {
+        lock.writeLock().lock();
+        try {
+            if (objects.remove(object.getId(), object)) {
+                unindexAll(object);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The number of objects in the index.
+     *
+     * @return Number of objects.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return objects.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the objects with a value equal to a string.
+     *
+     * @param value String value.
+     * @return IDs of the matching objects.
+     */
+    public Set<String> findExact(final String value) {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(exact.getOrDefault(value, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the objects with a value equal to a string, ignoring case.
+     *
+     * @param value String value.
+     * @return IDs of the matching objects.
+     */
+    public Set<String> findIgnoreCase(final String value) {
+        final String query = CaseFolding.fold(value);
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(folded.getOrDefault(query, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the objects with a value containing a string, ignoring case.
+     *
+     * @param value String to look for within the values, at least one character long.
+     * @return IDs of the matching objects.
+     * @throws HqdmException If the string is empty, which every value would contain.
+     */
+    public Set<String> findContaining(final String value) throws HqdmException {
+        final String query = CaseFolding.fold(value);
+        if (query.isEmpty()) {
+            throw new HqdmException("Cannot search for values containing an empty string");
+        }
+        lock.readLock().lock();
+        try {
+            final Set<String> candidates = query.length() < GRAM
+                    ? grams.getOrDefault(gram(query, 0, query.length()), Set.of())
+                    : shortestPosting(query);
+            final Set<String> result = new HashSet<>();
+            for (final String candidate : candidates) {
+                if (candidate.contains(query)) {
+                    result.addAll(folded.get(candidate));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void valueAdded(final HqdmObject object, final int predicateId, final Object value) {
+        if (!(value instanceof String) || !isIndexed(predicateId) || !object.equals(objects.get(object.getId()))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Check again, in case the object was removed before the lock was taken.
+            if (object.equals(objects.get(object.getId()))) {
+                index(object.getId(), (String) value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void valueRemoved(final HqdmObject object, final int predicateId, final Object value) {
+        if (!(value instanceof String) || !isIndexed(predicateId) || !object.equals(objects.get(object.getId()))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Check again, in case the object was removed before the lock was taken.
+            if (object.equals(objects.get(object.getId()))) {
+                unindex(object, (String) value, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stop listening for changes to objects. The index can still be queried.
+     */
+    @Override
+    public void close() {
+        HqdmObject.removePredicateListener(this);
+    }
+
+    private boolean isIndexed(final int predicateId) {
+        return Arrays.binarySearch(predicateIds, predicateId) >= 0;
+    }
+
+    private void index(final String subject, final String value) {
+        exact.computeIfAbsent(value, k -> new HashSet<>(2)).add(subject);
+        final String key = CaseFolding.fold(value);
+        Set<String> subjects = folded.get(key);
+        if (subjects == null) {
+            subjects = new HashSet<>(2);
+            folded.put(key, subjects);
+            for (int length = 1; length <= GRAM; length++) {
+                for (int i = 0; i + length <= key.length(); i++) {
+                    grams.computeIfAbsent(gram(key, i, length), k -> new HashSet<>()).add(key);
+                }
+            }
+        }
+        subjects.add(subject);
+    }
+
+    private void unindexAll(final HqdmObject object) {
+        for (final int predicateId : predicateIds) {
+            final Set<Object> values = object.value(predicateId);
+            if (values != null) {
+                for (final Object value : values) {
+                    if (value instanceof String) {
+                        unindex(object, (String) value, false);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove one value of an object from the index, unless the object still holds it, or for the
+     * folded indexes another value with the same folded form, under an indexed predicate.
+     */
+    private void unindex(final HqdmObject object, final String value, final boolean checkRemaining) {
+        final String subject = object.getId();
+        if (checkRemaining && holds(object, value, false)) {
+            return;
+        }
+        removePosting(exact, value, subject);
+        if (checkRemaining && holds(object, value, true)) {
+            return;
+        }
+        final String key = CaseFolding.fold(value);
+        if (removePosting(folded, key, subject)) {
+            for (int length = 1; length <= GRAM; length++) {
+                for (int i = 0; i + length <= key.length(); i++) {
+                    removePosting(grams, gram(key, i, length), key);
+                }
+            }
+        }
+    }
+
+    private boolean holds(final HqdmObject object, final String value, final boolean ignoreCase) {
+        for (final int predicateId : predicateIds) {
+            if (ignoreCase ? object.hasThisStringValueIgnoreCase(predicateId, value)
+                    : object.hasThisValue(predicateId, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove an element from the set held under a key, dropping the key if the set becomes empty.
+     *
+     * @return {@code true} if the key was dropped.
+     */
+    private static <K> boolean removePosting(final Map<K, Set<String>> map, final K key, final String element) {
+        final Set<String> set = map.get(key);
+        if (set != null && set.remove(element) && set.isEmpty()) {
+            map.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private Set<String> shortestPosting(final String query) {
+        Set<String> shortest = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            final Set<String> posting = grams.get(gram(query, i, GRAM));
+            if (posting == null) {
+                return Set.of();
+            }
+            if (shortest == null || posting.size() < shortest.size()) {
+                shortest = posting;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * Pack a sequence of one to three characters, and its length, into a key.
+     */
+    private static long gram(final String value, final int start, final int length) {
+        long key = (long) length << GRAM_LENGTH_SHIFT;
+        for (int i = 0; i < length; i++) {
+            key |= (long) value.charAt(start + i) << (Character.SIZE * (GRAM - 1 - i));
+        }
+        return key;
+    }
+}
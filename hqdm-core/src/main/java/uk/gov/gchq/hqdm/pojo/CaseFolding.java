@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Locale;
+
+/**
+ * Case folding used by the case-insensitive string matches of {@link HqdmObject}, and by indexes
+ * that must agree with them such as {@link uk.gov.gchq.hqdm.index.TextIndex}.
+ *
+ * <p>
+ * Strings are folded with {@link String#toLowerCase(Locale)} in {@link Locale#ROOT}, so matching
+ * does not depend on the default locale of the JVM; in particular the Turkish dotted and dotless
+ * {@code I} are not special-cased. Two strings match ignoring case if their folded forms are equal.
+ * Stored string values are folded once when they are added, so only the query is folded per call.
+ * </p>
+ */
+public final class CaseFolding {
+
+    private CaseFolding() {
+    }
+
+    /**
+     * Fold a string for case-insensitive comparison. Returns the same instance if it is already
+     * folded.
+     *
+     * @param value String to fold.
+     * @return Folded string.
+     */
+    public static String fold(final String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Match a folded stored value against a folded query.
+     *
+     * @param folded  Folded stored value.
+     * @param query   Folded query.
+     * @param partial {@code true} to match the query anywhere in the value, {@code false} to match
+     *                the whole value.
+     * @return {@code true} if the value matches.
+     */
+    static boolean matches(final String folded, final String query, final boolean partial) {
+        return partial ? folded.contains(query) : folded.equals(query);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentHashMap.KeySetView;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Thread-safe predicate values of a {@link HqdmObject}, used in {@link StorageMode#CONCURRENT}.
+ *
+ * <p>
+ * Predicates are held in an array of entries keyed by {@link PredicateRegistry} ID and searched
+ * linearly, as in {@link PredicateTable}. The array is never modified once published: adding or
+ * replacing a predicate copies it under the table's lock and publishes the copy through a volatile
+ * field, so reads never lock. Each entry holds the values of its predicate together with their
+ * {@link Datatype}, so a reader always sees the two as a pair. The values are the keys of a
+ * concurrent map whose mapped values are the {@link CaseFolding case-folded} forms of string values,
+ * and adding a value to an existing predicate locks only the hash bin it touches. Real values are
+ * boxed.
+ * </p>
+ */
+final class ConcurrentPredicateTable extends PredicateStore {
+
+    // Mapped to values that have no folded form, including strings added through the Set view.
+    private static final Object UNFOLDED = Boolean.FALSE;
+
+    private static final Entry[] NO_ENTRIES = {};
+
+    private volatile Entry[] entries = NO_ENTRIES;
+
+    @Override
+    Set<Object> get(final int key) {
+        final Entry entry = entry(key);
+        return entry == null ? null : entry.values;
+    }
+
+    @Override
+    boolean containsKey(final int key) {
+        return entry(key) != null;
+    }
+
+    @Override
+    boolean contains(final int key, final Object value) {
+        final Entry entry = entry(key);
+        return entry != null && entry.values.contains(value);
+    }
+
+    @Override
+    boolean matchesFolded(final int key, final String query, final boolean partial) {
+        final Entry entry = entry(key);
+        if (entry == null) {
+            return false;
+        }
+        // Iterating the keys avoids the entry objects the entry set iterator would allocate.
+        final Map<Object, Object> map = entry.values.getMap();
+        for (final Object value : entry.values) {
+            final Object folded = map.get(value);
+            if (folded instanceof String) {
+                if (CaseFolding.matches((String) folded, query, partial)) {
+                    return true;
+                }
+            } else if (value instanceof String
+                    && CaseFolding.matches(CaseFolding.fold((String) value), query, partial)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    double[] realValues(final int key) {
+        final Set<Object> values = get(key);
+        if (values == null) {
+            return ValueSet.NO_REALS;
+        }
+        return values.stream().filter(Double.class::isInstance).mapToDouble(Double.class::cast).toArray();
+    }
+
+    @Override
+    Datatype datatype(final int key) {
+        final Entry entry = entry(key);
+        final Datatype datatype = entry == null ? null : entry.datatype;
+        return datatype == null ? Datatype.UNKNOWN : datatype;
+    }
+
+    @Override
+    void add(final int key, final Object value, final Datatype datatype) {
+        final Entry entry = entryOrCreate(key);
+        if (!entry.values.contains(value)) {
+            // Combine the datatype first, so that a reader never sees the value without it.
+            entry.combine(datatype);
+            entry.values.getMap().putIfAbsent(value, folded(value));
+        }
+    }
+
+    @Override
+    void addReal(final int key, final double value) {
+        add(key, value, Datatype.REAL);
+    }
+
+    @Override
+    boolean remove(final int key, final Object value) {
+        final Entry entry = entry(key);
+        return entry != null && entry.values.remove(value);
+    }
+
+    @Override
+    void put(final int key, final Collection<?> values) {
+        final ConcurrentHashMap<Object, Object> map = new ConcurrentHashMap<>(Math.max(values.size(), 2));
+        for (final Object value : values) {
+            map.put(value, folded(value));
+        }
+        final Entry replacement = new Entry(key, map.keySet(UNFOLDED), Datatype.UNKNOWN);
+        synchronized (this) {
+            final Entry[] current = entries;
+            final int index = indexOf(current, key);
+            final Entry[] updated = Arrays.copyOf(current, index < 0 ? current.length + 1 : current.length);
+            updated[index < 0 ? current.length : index] = replacement;
+            entries = updated;
+        }
+    }
+
+    @Override
+    void clear() {
+        synchronized (this) {
+            entries = NO_ENTRIES;
+        }
+    }
+
+    @Override
+    int size() {
+        return entries.length;
+    }
+
+    @Override
+    void forEach(final ObjIntConsumer<Set<Object>> action) {
+        for (final Entry entry : entries) {
+            action.accept(entry.values, entry.key);
+        }
+    }
+
+    @Override
+    boolean isFrozen() {
+        return false;
+    }
+
+    private Entry entry(final int key) {
+        final Entry[] current = entries;
+        final int index = indexOf(current, key);
+        return index < 0 ? null : current[index];
+    }
+
+    private Entry entryOrCreate(final int key) {
+        final Entry entry = entry(key);
+        if (entry != null) {
+            return entry;
+        }
+        synchronized (this) {
+            final Entry[] current = entries;
+            final int index = indexOf(current, key);
+            if (index >= 0) {
+                return current[index];
+            }
+            final Entry created = new Entry(key, new ConcurrentHashMap<Object, Object>(2).keySet(UNFOLDED), null);
+            final Entry[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = created;
+            entries = updated;
+            return created;
+        }
+    }
+
+    private static int indexOf(final Entry[] current, final int key) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].key == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object folded(final Object value) {
+        return value instanceof String ? CaseFolding.fold((String) value) : UNFOLDED;
+    }
+
+    /**
+     * The values of one predicate and their datatype.
+     */
+    private static final class Entry {
+
+        private static final AtomicReferenceFieldUpdater<Entry, Datatype> DATATYPE =
+                AtomicReferenceFieldUpdater.newUpdater(Entry.class, Datatype.class, "datatype");
+
+        private final int key;
+
+        private final KeySetView<Object, Object> values;
+
+        // Null until a value is added.
+        private volatile Datatype datatype;
+
+        Entry(final int key, final KeySetView<Object, Object> values, final Datatype datatype) {
+            this.key = key;
+            this.values = values;
+            this.datatype = datatype;
+        }
+
+        void combine(final Datatype added) {
+            while (true) {
+                final Datatype current = datatype;
+                if (current == added || current == Datatype.UNKNOWN
+                        || DATATYPE.compareAndSet(this, current, Datatype.combine(current, added))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+/**
+ * The kind of the values of a predicate of a {@link HqdmObject}, recorded as they are added so that
+ * serialisers need not inspect the values.
+ */
+public enum Datatype {
+
+    /**
+     * Not known: the values were added through a {@link java.util.Set} view or
+     * {@link HqdmObject#setPredicates(java.util.Map)}, or were added as more than one kind.
+     */
+    UNKNOWN,
+
+    /**
+     * IDs of other objects, added with {@link HqdmObject#addValue(int, String)}.
+     */
+    REFERENCE,
+
+    /**
+     * Plain string literals, added with {@link HqdmObject#addStringValue(int, String)}.
+     */
+    STRING,
+
+    /**
+     * String literals in the form {@code yyyy-mm-dd}.
+     */
+    DATE,
+
+    /**
+     * String literals in the form {@code yyyy-mm-ddThh:mm:ss} followed by any fraction or zone.
+     */
+    DATE_TIME,
+
+    /**
+     * Real numbers, added with {@link HqdmObject#addRealValue(int, double)}.
+     */
+    REAL;
+
+    private static final int DATE_LENGTH = 10;
+
+    private static final int DATE_TIME_LENGTH = 19;
+
+    /**
+     * Classify a string literal by its form, without regular expressions or allocation.
+     *
+     * @param value The literal.
+     * @return {@link #DATE}, {@link #DATE_TIME} or {@link #STRING}.
+     */
+    public static Datatype ofLiteral(final String value) {
+        if (value.length() < DATE_LENGTH || !isDigits(value, 0, 4) || value.charAt(4) != '-'
+                || !isDigits(value, 5, 7) || value.charAt(7) != '-' || !isDigits(value, 8, 10)) {
+            return STRING;
+        }
+        if (value.length() == DATE_LENGTH) {
+            return DATE;
+        }
+        if (value.length() < DATE_TIME_LENGTH || value.charAt(10) != 'T' || !isDigits(value, 11, 13)
+                || value.charAt(13) != ':' || !isDigits(value, 14, 16) || value.charAt(16) != ':'
+                || !isDigits(value, 17, 19)) {
+            return STRING;
+        }
+        // Any suffix may follow, up to a line terminator.
+        for (int i = DATE_TIME_LENGTH; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return STRING;
+            }
+        }
+        return DATE_TIME;
+    }
+
+    /**
+     * Combine the kind of the existing values of a predicate with that of a new value.
+     *
+     * @param current The kind of the existing values, or {@code null} if there are none.
+     * @param added   The kind of the new value.
+     * @return The kind of all the values.
+     */
+    static Datatype combine(final Datatype current, final Datatype added) {
+        return current == null || current == added ? added : UNKNOWN;
+    }
+
+    private static boolean isDigits(final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
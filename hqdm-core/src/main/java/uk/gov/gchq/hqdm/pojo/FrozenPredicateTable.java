@@ -0,0 +1,283 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.ObjIntConsumer;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+
+/**
+ * Read-only predicate values of a frozen {@link HqdmObject}.
+ *
+ * <p>
+ * Predicate IDs are held in a sorted array searched by binary search. The values of each predicate
+ * are packed into one slot: a lone {@link String} is held directly, real-only values as a
+ * {@code double[]}, and anything else as an {@code Object[]}, all in the iteration order of the
+ * source. Every field is final and nothing is modified after construction, so any number of threads
+ * may read the table without locking.
+ * </p>
+ *
+ * <p>
+ * The {@link CaseFolding case-folded} forms of the string values are packed alongside the slots in
+ * the same way.
+ * </p>
+ */
+final class FrozenPredicateTable extends PredicateStore {
+
+    private final int[] keys;
+
+    private final Object[] slots;
+
+    // Case-folded string values of each slot: a String, a String[], or null if the slot has none.
+    private final Object[] foldedSlots;
+
+    private final Datatype[] datatypes;
+
+    /**
+     * Constructs a new {@code FrozenPredicateTable} holding a copy of another store.
+     *
+     * @param source Store to copy.
+     */
+    FrozenPredicateTable(final PredicateStore source) {
+        final SortedMap<Integer, Object> sorted = new TreeMap<>();
+        source.forEach((values, key) -> sorted.put(key, toSlot(source, key, values)));
+
+        keys = new int[sorted.size()];
+        slots = new Object[keys.length];
+        foldedSlots = new Object[keys.length];
+        datatypes = new Datatype[keys.length];
+        int index = 0;
+        for (final Map.Entry<Integer, Object> entry : sorted.entrySet()) {
+            keys[index] = entry.getKey();
+            slots[index] = entry.getValue();
+            foldedSlots[index] = toFoldedSlot(entry.getValue());
+            datatypes[index] = source.datatype(entry.getKey());
+            index++;
+        }
+    }
+
+    @Override
+    Set<Object> get(final int key) {
+        final int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? null : new SlotView(slots[index]);
+    }
+
+    @Override
+    boolean containsKey(final int key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    @Override
+    boolean contains(final int key, final Object value) {
+        final int index = Arrays.binarySearch(keys, key);
+        return index >= 0 && slotContains(slots[index], value);
+    }
+
+    private static boolean slotContains(final Object slot, final Object value) {
+        if (slot instanceof Object[]) {
+            for (final Object element : (Object[]) slot) {
+                if (Objects.equals(element, value)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (slot instanceof double[]) {
+            if (value instanceof Double) {
+                final long bits = Double.doubleToLongBits((Double) value);
+                for (final double element : (double[]) slot) {
+                    if (Double.doubleToLongBits(element) == bits) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        return slot.equals(value);
+    }
+
+    @Override
+    boolean matchesFolded(final int key, final String query, final boolean partial) {
+        final int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return false;
+        }
+        final Object folded = foldedSlots[index];
+        if (folded instanceof String) {
+            return CaseFolding.matches((String) folded, query, partial);
+        } else if (folded instanceof String[]) {
+            for (final String element : (String[]) folded) {
+                if (CaseFolding.matches(element, query, partial)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    double[] realValues(final int key) {
+        final int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return ValueSet.NO_REALS;
+        }
+        final Object slot = slots[index];
+        if (slot instanceof double[]) {
+            return ((double[]) slot).clone();
+        } else if (slot instanceof Object[]) {
+            return Arrays.stream((Object[]) slot).filter(Double.class::isInstance).mapToDouble(Double.class::cast)
+                    .toArray();
+        }
+        return ValueSet.NO_REALS;
+    }
+
+    @Override
+    Datatype datatype(final int key) {
+        final int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? Datatype.UNKNOWN : datatypes[index];
+    }
+
+    @Override
+    void add(final int key, final Object value, final Datatype datatype) {
+        throw frozen();
+    }
+
+    @Override
+    void addReal(final int key, final double value) {
+        throw frozen();
+    }
+
+    @Override
+    boolean remove(final int key, final Object value) {
+        throw frozen();
+    }
+
+    @Override
+    void put(final int key, final Collection<?> values) {
+        throw frozen();
+    }
+
+    @Override
+    void clear() {
+        throw frozen();
+    }
+
+    @Override
+    int size() {
+        return keys.length;
+    }
+
+    @Override
+    void forEach(final ObjIntConsumer<Set<Object>> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(new SlotView(slots[i]), keys[i]);
+        }
+    }
+
+    @Override
+    boolean isFrozen() {
+        return true;
+    }
+
+    private static HqdmException frozen() {
+        return new HqdmException("Cannot modify a frozen HQDM object");
+    }
+
+    private static Object toSlot(final PredicateStore source, final int key, final Set<Object> values) {
+        if (values.size() == 1) {
+            final Object value = values.iterator().next();
+            if (value instanceof String) {
+                return value;
+            }
+        }
+        if (!values.isEmpty() && values.stream().allMatch(Double.class::isInstance)) {
+            return source.realValues(key);
+        }
+        return values.toArray();
+    }
+
+    private static Object toFoldedSlot(final Object slot) {
+        if (slot instanceof String) {
+            return CaseFolding.fold((String) slot);
+        } else if (slot instanceof Object[]) {
+            final String[] folded = Arrays.stream((Object[]) slot).filter(String.class::isInstance)
+                    .map(value -> CaseFolding.fold((String) value)).toArray(String[]::new);
+            return folded.length == 0 ? null : folded;
+        }
+        return null;
+    }
+
+    /**
+     * Immutable {@link Set} view of one slot.
+     */
+    private static final class SlotView extends AbstractSet<Object> {
+
+        private final Object slot;
+
+        SlotView(final Object slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public int size() {
+            if (slot instanceof Object[]) {
+                return ((Object[]) slot).length;
+            } else if (slot instanceof double[]) {
+                return ((double[]) slot).length;
+            }
+            return 1;
+        }
+
+        @Override
+        public boolean contains(final Object value) {
+            return slotContains(slot, value);
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size();
+                }
+
+                @Override
+                public Object next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final int index = next++;
+                    if (slot instanceof Object[]) {
+                        return ((Object[]) slot)[index];
+                    } else if (slot instanceof double[]) {
+                        return ((double[]) slot)[index];
+                    }
+                    return slot;
+                }
+            };
+        }
+    }
+}
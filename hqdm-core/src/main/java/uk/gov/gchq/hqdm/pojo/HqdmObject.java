@@ -14,30 +14,160 @@
 
 package uk.gov.gchq.hqdm.pojo;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
 
+import uk.gov.gchq.hqdm.exception.HqdmException;
 import uk.gov.gchq.hqdm.model.Thing;
 
 /**
  * Basic implementation of a HQDM object.
+ *
+ * <p>
+ * Predicates are stored against their {@link PredicateRegistry} IDs rather than their IRI strings.
+ * The {@link Top} methods accept predicate IRIs and translate them through the registry; the
+ * overloads taking an {@code int} predicate ID skip that lookup.
+ * </p>
+ *
+ * <p>
+ * Once populated, an object can be {@link #freeze() frozen} into a compact read-only form. Frozen
+ * objects reject all modification, and can be read by any number of threads without locking once
+ * they have been handed over after {@code freeze()} returns.
+ * </p>
+ *
+ * <p>
+ * Objects are created with the compact, single-threaded storage unless
+ * {@link #setDefaultStorageMode(StorageMode)} has selected {@link StorageMode#CONCURRENT}, in which
+ * case several threads may add and remove values on the same object at once. This applies to objects
+ * created through any of the HQDM services.
+ * </p>
+ *
+ * <p>
+ * A {@link PredicateListener} registered with {@link #addPredicateListener(PredicateListener)} is
+ * told of every value added or removed through the methods of this class, which lets indexes over
+ * many objects stay in step with them.
+ * </p>
+ *
+ * <p>
+ * Object references added with {@link #addValue(int, String)} can be canonicalised through a
+ * function set with {@link #setValueInterner(UnaryOperator)}, such as an IRI pool.
+ * </p>
+ *
+ * <p>
+ * An object can be given a different set of HQDM types by constructing a view of it with
+ * {@link #HqdmObject(HqdmObject)}, as {@link uk.gov.gchq.hqdm.services.DynamicObjects} does. All views
+ * of an object share its ID and predicate storage, are equal to one another and have the same hash
+ * code, so they can be used interchangeably in collections and indexes.
+ * </p>
  */
 public abstract class HqdmObject implements Thing {
 
+    private static final PredicateListener[] NO_LISTENERS = {};
+
+    private static final Object LISTENER_LOCK = new Object();
+
+    private static volatile StorageMode defaultStorageMode = StorageMode.COMPACT;
+
+    // Copied on write so that the mutators only read a volatile field when no one is listening.
+    private static volatile PredicateListener[] listeners = NO_LISTENERS;
+
+    private static volatile UnaryOperator<String> valueInterner;
+
     private String id;
 
-    private final Map<String, Set<Object>> predicates = new HashMap<>();
+    private PredicateStore predicates;
 
     /**
-     * Constructs a new {@code HqdmObject}.
+     * Constructs a new {@code HqdmObject} using the default {@link StorageMode}.
      *
      * @param id ID of the HQDM object.
      */
     public HqdmObject(final String id) {
+        this(id, defaultStorageMode);
+    }
+
+    /**
+     * Constructs a new {@code HqdmObject} using the given {@link StorageMode}.
+     *
+     * @param id          ID of the HQDM object.
+     * @param storageMode How the object stores its predicates.
+     */
+    public HqdmObject(final String id, final StorageMode storageMode) {
         this.id = id;
+        this.predicates = storageMode == StorageMode.CONCURRENT ? new ConcurrentPredicateTable()
+                : new PredicateTable();
+    }
+
+    /**
+     * Constructs a new view of an existing {@code HqdmObject}, sharing its ID and predicate storage.
+     * Values added to or removed from either object are seen by both, freezing either freezes both,
+     * and the two are equal. Views of a view share the storage of the original object.
+     *
+     * @param source The object to share storage with.
+     */
+    protected HqdmObject(final HqdmObject source) {
+        this.id = source.id;
+        this.predicates = source.share();
+    }
+
+    /**
+     * Get the storage mode used for new HQDM objects.
+     *
+     * @return The default {@link StorageMode}.
+     */
+    public static StorageMode getDefaultStorageMode() {
+        return defaultStorageMode;
+    }
+
+    /**
+     * Set the storage mode used for new HQDM objects, including those created by the HQDM services.
+     * Objects that already exist keep their storage.
+     *
+     * @param storageMode The default {@link StorageMode}.
+     */
+    public static void setDefaultStorageMode(final StorageMode storageMode) {
+        defaultStorageMode = storageMode;
+    }
+
+    /**
+     * Register a listener to be told of values added to and removed from any HQDM object.
+     *
+     * @param listener The {@link PredicateListener}.
+     */
+    public static void addPredicateListener(final PredicateListener listener) {
+        synchronized (LISTENER_LOCK) {
+            final PredicateListener[] current = listeners;
+            final PredicateListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            listeners = updated;
+        }
+    }
+
+    /**
+     * Unregister a listener registered with {@link #addPredicateListener(PredicateListener)}.
+     *
+     * @param listener The {@link PredicateListener}.
+     */
+    public static void removePredicateListener(final PredicateListener listener) {
+        synchronized (LISTENER_LOCK) {
+            listeners = Arrays.stream(listeners).filter(l -> l != listener).toArray(PredicateListener[]::new);
+        }
+    }
+
+    /**
+     * Set a function to canonicalise object references before they are stored by
+     * {@link #addValue(int, String)}, so that objects referring to the same object can share one copy
+     * of its ID. The function must return a string equal to its argument.
+     *
+     * @param interner The interning function, or {@code null} to store references as given.
+     */
+    public static void setValueInterner(final UnaryOperator<String> interner) {
+        valueInterner = interner;
     }
 
     /**
@@ -51,33 +181,47 @@ public abstract class HqdmObject implements Thing {
      * {@inheritDoc}
      */
     public void setId(final String id) {
+        checkNotFrozen();
+        if (predicates instanceof SharedPredicateStore) {
+            throw new HqdmException("Cannot change the ID of an HQDM object with other views: " + this.id);
+        }
         this.id = id;
     }
 
     /**
-     * {@inheritDoc}
+     * Get the predications of the HQDM object.
+     *
+     * <p>
+     * The returned map is a copy keyed by predicate IRI; the value sets are those held by the object.
+     * </p>
+     *
+     * @return Map of HQDM objects and String predicates of the entity.
      */
     public Map<String, Set<Object>> getPredicates() {
-        return predicates;
+        return predicates.toMap();
     }
 
     /**
      * {@inheritDoc}
      */
     public void setPredicates(final Map<String, Set<Object>> predicates) {
+        checkNotFrozen();
         // Convert some values to Strings if necessary - required when deserializing the
         // object.
         if (!predicates.isEmpty()) {
+            // The value sets survive clear(), so removals can be reported once they have happened.
+            final Map<String, Set<Object>> removed = listeners.length > 0 ? this.predicates.toMap() : Map.of();
             this.predicates.clear();
+            removed.forEach((predicate, values) -> notifyValues(PredicateRegistry.idOf(predicate), values, false));
             for (final Map.Entry<String, Set<Object>> entry : predicates.entrySet()) {
                 final Object value = entry.getValue().iterator().next();
-                final String key = entry.getKey();
+                final int key = PredicateRegistry.idOf(entry.getKey());
                 if (value instanceof Map) {
                     final Map valueMap = (Map) value;
-                    this.predicates.remove(key);
                     this.addValue(key, new String(valueMap.get("id").toString()));
                 } else {
                     this.predicates.put(key, entry.getValue());
+                    notifyValues(key, this.predicates.get(key), true);
                 }
             }
         }
@@ -87,42 +231,151 @@ public abstract class HqdmObject implements Thing {
      * {@inheritDoc}
      */
     public Set<Object> value(final String predicateId) {
+        return value(PredicateRegistry.lookup(predicateId));
+    }
+
+    /**
+     * Get predicate value(s) by predicate ID.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @return Set of predicate values (Strings or string-literals).
+     */
+    public Set<Object> value(final int predicateId) {
         return predicates.get(predicateId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public double[] realValues(final String predicateId) {
+        return realValues(PredicateRegistry.lookup(predicateId));
+    }
+
+    /**
+     * Get the real number values of a predicate without boxing them.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @return Array of real number values, empty if the predicate has none.
+     */
+    public double[] realValues(final int predicateId) {
+        return predicates.realValues(predicateId);
+    }
+
+    /**
+     * Visit the values of every predicate without copying them into a map, as
+     * {@link #getPredicates()} does.
+     *
+     * @param action Called with the set of values and the {@link PredicateRegistry} ID of each
+     *               predicate.
+     */
+    public void forEachPredicate(final ObjIntConsumer<Set<Object>> action) {
+        predicates.forEach(action);
+    }
+
+    /**
+     * Get the kind of the values of a predicate, as recorded when they were added, so that they can
+     * be serialised without inspecting them.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @return The {@link Datatype} of the values, {@link Datatype#UNKNOWN} if they are of more than
+     *         one kind or were not added through the methods of this class.
+     */
+    public Datatype datatypeOf(final int predicateId) {
+        return predicates.datatype(predicateId);
+    }
+
     /**
      * {@inheritDoc}
      */
     public void addValue(final String predicateId, final String objectId) {
-        final Set<Object> values = predicates.computeIfAbsent(predicateId, k -> new HashSet<>());
-        values.add(objectId);
+        addValue(PredicateRegistry.idOf(predicateId), objectId);
+    }
+
+    /**
+     * Add predicate ID and object String reference to entity.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param objectId    ID of the object.
+     */
+    public void addValue(final int predicateId, final String objectId) {
+        final UnaryOperator<String> interner = valueInterner;
+        final String value = interner == null ? objectId : interner.apply(objectId);
+        predicates.add(predicateId, value, Datatype.REFERENCE);
+        notifyAdded(predicateId, value);
+    }
+
+    /**
+     * Add predicate ID and value of any kind to object, recording it as having a given datatype. This
+     * is for restoring values read back from a copy of an object, such as a snapshot.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       The value.
+     * @param datatype    The {@link Datatype} recorded for the value.
+     */
+    public void addValue(final int predicateId, final Object value, final Datatype datatype) {
+        predicates.add(predicateId, value, datatype);
+        notifyAdded(predicateId, value);
     }
 
     /**
      * {@inheritDoc}
      */
     public void addStringValue(final String predicateId, final String value) {
-        final Set<Object> values = predicates.computeIfAbsent(predicateId, k -> new HashSet<>());
-        values.add(value);
+        addStringValue(PredicateRegistry.idOf(predicateId), value);
+    }
+
+    /**
+     * Add predicate ID and string value to object.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       String value.
+     */
+    public void addStringValue(final int predicateId, final String value) {
+        predicates.add(predicateId, value, Datatype.ofLiteral(value));
+        notifyAdded(predicateId, value);
     }
 
     /**
      * {@inheritDoc}
      */
     public void addRealValue(final String predicateId, final double value) {
-        final Set<Object> values = predicates.computeIfAbsent(predicateId, k -> new HashSet<>());
-        values.add(value);
+        addRealValue(PredicateRegistry.idOf(predicateId), value);
+    }
+
+    /**
+     * Add predicate ID and real number value to object.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       Real number value.
+     */
+    public void addRealValue(final int predicateId, final double value) {
+        predicates.addReal(predicateId, value);
+        // Box the value only if someone is listening.
+        if (listeners.length > 0) {
+            notifyAdded(predicateId, value);
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     public void removeValue(final String predicateId, final String value) {
-        if (predicates.containsKey(predicateId)) {
-            final var v = predicates.get(predicateId);
-            if (v.contains(value)) {
-                v.remove(value);
-            }
+        removeValue(PredicateRegistry.lookup(predicateId), value);
+    }
+
+    /**
+     * Remove a predicate value. Listeners are told only if the value was present.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       The {@link String} value to be removed.
+     */
+    public void removeValue(final int predicateId, final String value) {
+        if (!predicates.remove(predicateId, value)) {
+            return;
+        }
+        final PredicateListener[] current = listeners;
+        for (final PredicateListener listener : current) {
+            listener.valueRemoved(this, predicateId, value);
         }
     }
 
@@ -130,6 +383,16 @@ public abstract class HqdmObject implements Thing {
      * {@inheritDoc}
      */
     public boolean hasValue(final String predicateId) {
+        return hasValue(PredicateRegistry.lookup(predicateId));
+    }
+
+    /**
+     * Does the entity have a given predicate.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @return {@code true} if has predicate value.
+     */
+    public boolean hasValue(final int predicateId) {
         return predicates.containsKey(predicateId);
     }
 
@@ -137,46 +400,121 @@ public abstract class HqdmObject implements Thing {
      * {@inheritDoc}
      */
     public boolean hasThisValue(final String predicateId, final String objectId) {
-        final Set<Object> values = predicates.get(predicateId);
-        return values != null && values.contains(objectId);
+        return hasThisValue(PredicateRegistry.lookup(predicateId), objectId);
+    }
+
+    /**
+     * Does the entity have a given predicate ID and object value.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param objectId    ID of the object.
+     * @return {@code true} if has this object value.
+     */
+    public boolean hasThisValue(final int predicateId, final String objectId) {
+        return predicates.contains(predicateId, objectId);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean hasThisStringValue(final String predicateId, final String value) {
-        final Set<Object> values = predicates.get(predicateId);
-        return values != null && values.contains(value);
+        return predicates.contains(PredicateRegistry.lookup(predicateId), value);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean hasThisStringValueIgnoreCase(final String predicateId, final String value) {
-        final Set<Object> values = predicates.get(predicateId);
-        if (values != null) {
-            for (final Object object : values) {
-                if (value.equalsIgnoreCase(object.toString())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return hasThisStringValueIgnoreCase(PredicateRegistry.lookup(predicateId), value);
+    }
+
+    /**
+     * Does the entity have a given predicate and string value, ignoring case. The query is folded
+     * once with {@link String#toLowerCase(Locale)} in {@link Locale#ROOT} and compared with the folded
+     * forms of the string values computed when they were added.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       Case-insensitive string value.
+     * @return {@code true} if has this string value.
+     */
+    public boolean hasThisStringValueIgnoreCase(final int predicateId, final String value) {
+        return predicates.matchesFolded(predicateId, CaseFolding.fold(value), false);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean hasThisStringValueFuzzy(final String predicateId, final String value) {
-        final Set<Object> values = predicates.get(predicateId);
-        if (values != null) {
-            for (final Object object : values) {
-                if (object.toString().toLowerCase().contains(value.toLowerCase())) {
-                    return true;
+        return hasThisStringValueFuzzy(PredicateRegistry.lookup(predicateId), value);
+    }
+
+    /**
+     * Does the entity have a string value for a given predicate that contains a string, ignoring
+     * case. Case is folded as for {@link #hasThisStringValueIgnoreCase(int, String)}.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       String to look for within the values.
+     * @return {@code true} if has fuzzy string value.
+     */
+    public boolean hasThisStringValueFuzzy(final int predicateId, final String value) {
+        return predicates.matchesFolded(predicateId, CaseFolding.fold(value), true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void freeze() {
+        if (predicates instanceof SharedPredicateStore) {
+            ((SharedPredicateStore) predicates).freeze();
+        } else if (!predicates.isFrozen()) {
+            predicates = new FrozenPredicateTable(predicates);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFrozen() {
+        return predicates.isFrozen();
+    }
+
+    /**
+     * Move the predicates into a store that can be shared with another view of this object.
+     */
+    private PredicateStore share() {
+        if (!(predicates instanceof SharedPredicateStore)) {
+            predicates = new SharedPredicateStore(predicates, System.identityHashCode(this));
+        }
+        return predicates;
+    }
+
+    private void notifyAdded(final int predicateId, final Object value) {
+        final PredicateListener[] current = listeners;
+        for (final PredicateListener listener : current) {
+            listener.valueAdded(this, predicateId, value);
+        }
+    }
+
+    private void notifyValues(final int predicateId, final Set<Object> values, final boolean added) {
+        final PredicateListener[] current = listeners;
+        if (current.length == 0 || values == null) {
+            return;
+        }
+        for (final Object value : values) {
+            for (final PredicateListener listener : current) {
+                if (added) {
+                    listener.valueAdded(this, predicateId, value);
+                } else {
+                    listener.valueRemoved(this, predicateId, value);
                 }
             }
         }
-        return false;
+    }
+
+    private void checkNotFrozen() {
+        if (predicates.isFrozen()) {
+            throw new HqdmException("Cannot modify frozen HQDM object: " + id);
+        }
     }
 
     /**
@@ -187,9 +525,9 @@ public abstract class HqdmObject implements Thing {
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
-        predicates.forEach((key, value) -> {
+        predicates.toMap().forEach((key, value) -> {
             builder.append("        key: ");
-            builder.append(key.toString());
+            builder.append(key);
             builder.append(", values: [");
             value.forEach(vv -> {
                 builder.append(vv.toString());
@@ -204,7 +542,8 @@ public abstract class HqdmObject implements Thing {
      * Indicates whether some other object is "equal to" this one.
      *
      * @param object The reference object with which to compare.
-     * @return {@code true} if this object is the same as the obj argument; false otherwise.
+     * @return {@code true} if this object is the same as the obj argument, or another view of it;
+     *         false otherwise.
      */
     @Override
     public boolean equals(final Object object) {
@@ -214,10 +553,10 @@ public abstract class HqdmObject implements Thing {
         if (!(object instanceof HqdmObject)) {
             return false;
         }
-        if (!super.equals(object)) {
+        final HqdmObject that = (HqdmObject) object;
+        if (!(predicates instanceof SharedPredicateStore) || predicates != that.predicates) {
             return false;
         }
-        final HqdmObject that = (HqdmObject) object;
         return Objects.equals(id, that.id);
     }
 
@@ -228,6 +567,9 @@ public abstract class HqdmObject implements Thing {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), id);
+        final int identityHash = predicates instanceof SharedPredicateStore
+                ? ((SharedPredicateStore) predicates).identityHash()
+                : System.identityHashCode(this);
+        return Objects.hash(identityHash, id);
     }
 }
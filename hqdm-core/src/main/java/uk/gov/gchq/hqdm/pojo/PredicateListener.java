@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+/**
+ * Told of predicate values added to and removed from {@link HqdmObject}s.
+ *
+ * <p>
+ * Listeners are registered with {@link HqdmObject#addPredicateListener(PredicateListener)} and are
+ * called on the thread making the change, after the change has been made. Values added with
+ * {@link HqdmObject#addRealValue(int, double)} and changes made directly to the sets returned by
+ * {@link HqdmObject#value(int)} are not reported.
+ * </p>
+ */
+public interface PredicateListener {
+
+    /**
+     * Called after a value has been added to an object. The value may already have been present.
+     *
+     * @param object      The object.
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       The value added.
+     */
+    void valueAdded(HqdmObject object, int predicateId, Object value);
+
+    /**
+     * Called after a value has been removed from an object. The value may not have been present.
+     *
+     * @param object      The object.
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param value       The value removed.
+     */
+    void valueRemoved(HqdmObject object, int predicateId, Object value);
+}
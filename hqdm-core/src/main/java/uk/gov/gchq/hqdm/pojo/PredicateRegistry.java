@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary of predicate IRIs.
+ *
+ * <p>
+ * Each predicate IRI is assigned a small, dense {@code int} ID the first time it is registered. IDs
+ * are never reused or removed, so they can be held by {@link HqdmObject} instances in place of the
+ * full predicate strings.
+ * </p>
+ */
+public final class PredicateRegistry {
+
+    /** Returned by {@link #lookup(String)} for predicates that have not been registered. */
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(512);
+
+    private static final Object LOCK = new Object();
+
+    // Written under LOCK before the ID is published through IDS, so readers never need the lock.
+    private static volatile String[] names = new String[256];
+
+    private static volatile int count;
+
+    private PredicateRegistry() {
+    }
+
+    /**
+     * Get the ID of a predicate, registering it if it has not been seen before.
+     *
+     * @param predicate Predicate IRI.
+     * @return ID of the predicate.
+     */
+    public static int idOf(final String predicate) {
+        final Integer id = IDS.get(predicate);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LOCK) {
+            final Integer existing = IDS.get(predicate);
+            if (existing != null) {
+                return existing;
+            }
+            final int newId = count;
+            if (newId == names.length) {
+                names = Arrays.copyOf(names, newId * 2);
+            }
+            names[newId] = predicate;
+            count = newId + 1;
+            IDS.put(predicate, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Get the ID of a predicate without registering it.
+     *
+     * @param predicate Predicate IRI.
+     * @return ID of the predicate, or {@link #UNKNOWN} if it has not been registered.
+     */
+    public static int lookup(final String predicate) {
+        final Integer id = IDS.get(predicate);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * Get the predicate IRI registered with an ID.
+     *
+     * @param id ID of the predicate.
+     * @return Predicate IRI.
+     * @throws IllegalArgumentException If no predicate has been registered with the ID.
+     */
+    public static String nameOf(final int id) {
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("Unknown predicate ID: " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * The number of predicates registered so far.
+     *
+     * @return Number of registered predicates.
+     */
+    public static int size() {
+        return count;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Storage for the predicate values of a {@link HqdmObject}, keyed by {@link PredicateRegistry} ID.
+ */
+abstract class PredicateStore {
+
+    /**
+     * Get the values of a predicate.
+     *
+     * @param key Predicate ID.
+     * @return Set of values, or {@code null} if the predicate is not present.
+     */
+    abstract Set<Object> get(int key);
+
+    /**
+     * Does the store contain a predicate.
+     *
+     * @param key Predicate ID.
+     * @return {@code true} if the predicate is present.
+     */
+    abstract boolean containsKey(int key);
+
+    /**
+     * Does the store contain a value for a predicate.
+     *
+     * @param key   Predicate ID.
+     * @param value Value to look for.
+     * @return {@code true} if the predicate has the value.
+     */
+    abstract boolean contains(int key, Object value);
+
+    /**
+     * Does any string value of a predicate match a query ignoring case, comparing the
+     * {@link CaseFolding case-folded} forms. Implementations fold stored values when they are added
+     * and must not allocate per value here.
+     *
+     * @param key     Predicate ID.
+     * @param query   Query already folded by {@link CaseFolding#fold(String)}.
+     * @param partial {@code true} to match the query anywhere in a value, {@code false} to match the
+     *                whole value.
+     * @return {@code true} if a string value matches.
+     */
+    abstract boolean matchesFolded(int key, String query, boolean partial);
+
+    /**
+     * Get the real number values of a predicate without boxing them.
+     *
+     * @param key Predicate ID.
+     * @return Array of real values, which may be empty.
+     */
+    abstract double[] realValues(int key);
+
+    /**
+     * Get the kind of the values of a predicate.
+     *
+     * @param key Predicate ID.
+     * @return The {@link Datatype}, {@link Datatype#UNKNOWN} if the predicate is not present.
+     */
+    abstract Datatype datatype(int key);
+
+    /**
+     * Add a value to a predicate.
+     *
+     * @param key      Predicate ID.
+     * @param value    Value to add.
+     * @param datatype The kind of the value.
+     */
+    abstract void add(int key, Object value, Datatype datatype);
+
+    /**
+     * Add a real number value to a predicate.
+     *
+     * @param key   Predicate ID.
+     * @param value Real number value to add.
+     */
+    abstract void addReal(int key, double value);
+
+    /**
+     * Remove a value from a predicate. The predicate remains present even if it has no values left.
+     *
+     * @param key   Predicate ID.
+     * @param value Value to remove.
+     * @return {@code true} if the value was present.
+     */
+    abstract boolean remove(int key, Object value);
+
+    /**
+     * Set the values of a predicate, replacing any existing values.
+     *
+     * @param key    Predicate ID.
+     * @param values Values to copy.
+     */
+    abstract void put(int key, Collection<?> values);
+
+    /**
+     * Remove all predicates.
+     */
+    abstract void clear();
+
+    /**
+     * The number of predicates held.
+     *
+     * @return Number of predicates.
+     */
+    abstract int size();
+
+    /**
+     * Call an action for each predicate and its values.
+     *
+     * @param action Action accepting the values and predicate ID.
+     */
+    abstract void forEach(ObjIntConsumer<Set<Object>> action);
+
+    /**
+     * Whether the store is read-only.
+     *
+     * @return {@code true} if the store cannot be modified.
+     */
+    abstract boolean isFrozen();
+
+    /**
+     * Copy the store into a map keyed by predicate IRI. The value sets are shared, not copied.
+     *
+     * @return Map of predicate IRIs to values.
+     */
+    Map<String, Set<Object>> toMap() {
+        final Map<String, Set<Object>> map = new HashMap<>();
+        forEach((values, key) -> map.put(PredicateRegistry.nameOf(key), values));
+        return map;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Mutable predicate values of a single {@link HqdmObject}.
+ *
+ * <p>
+ * Keys and values are held in parallel arrays and searched linearly, which for the handful of
+ * predicates on a typical HQDM object is cheaper in both memory and time than a {@link HashMap}.
+ * </p>
+ */
+final class PredicateTable extends PredicateStore {
+
+    private static final int[] NO_KEYS = {};
+
+    private static final ValueSet[] NO_VALUES = {};
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys = NO_KEYS;
+
+    private ValueSet[] values = NO_VALUES;
+
+    private int size;
+
+    @Override
+    ValueSet get(final int key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    boolean containsKey(final int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    boolean contains(final int key, final Object value) {
+        final ValueSet set = get(key);
+        return set != null && set.contains(value);
+    }
+
+    @Override
+    boolean matchesFolded(final int key, final String query, final boolean partial) {
+        final ValueSet set = get(key);
+        return set != null && set.matchesFolded(query, partial);
+    }
+
+    @Override
+    double[] realValues(final int key) {
+        final ValueSet set = get(key);
+        return set == null ? ValueSet.NO_REALS : set.realValues();
+    }
+
+    @Override
+    Datatype datatype(final int key) {
+        final ValueSet set = get(key);
+        return set == null ? Datatype.UNKNOWN : set.datatype();
+    }
+
+    @Override
+    void add(final int key, final Object value, final Datatype datatype) {
+        getOrCreate(key).add(value, datatype);
+    }
+
+    @Override
+    void addReal(final int key, final double value) {
+        getOrCreate(key).addReal(value);
+    }
+
+    @Override
+    boolean remove(final int key, final Object value) {
+        final ValueSet set = get(key);
+        return set != null && set.remove(value);
+    }
+
+    @Override
+    void put(final int key, final Collection<?> value) {
+        final ValueSet set = new ValueSet(value);
+        final int index = indexOf(key);
+        if (index >= 0) {
+            values[index] = set;
+            return;
+        }
+        append(key, set);
+    }
+
+    @Override
+    void clear() {
+        keys = NO_KEYS;
+        values = NO_VALUES;
+        size = 0;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    void forEach(final ObjIntConsumer<Set<Object>> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i], keys[i]);
+        }
+    }
+
+    @Override
+    boolean isFrozen() {
+        return false;
+    }
+
+    private ValueSet getOrCreate(final int key) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return values[index];
+        }
+        final ValueSet created = new ValueSet();
+        append(key, created);
+        return created;
+    }
+
+    private void append(final int key, final ValueSet value) {
+        if (size == keys.length) {
+            final int capacity = size == 0 ? INITIAL_CAPACITY : size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    private int indexOf(final int key) {
+        final int[] k = keys;
+        for (int i = 0; i < size; i++) {
+            if (k[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Predicate store shared by the different views of a reclassified {@link HqdmObject}.
+ *
+ * <p>
+ * Calls are forwarded to the store the object was created with. Freezing any view swaps that store
+ * for a {@link FrozenPredicateTable} here, so every view sees the change. Reclassifying an object
+ * again reuses the same shared store, so there is never more than one level of forwarding. The hash
+ * code of the original object is kept so that all views hash alike.
+ * </p>
+ */
+final class SharedPredicateStore extends PredicateStore {
+
+    private final int identityHash;
+
+    private volatile PredicateStore target;
+
+    /**
+     * Constructs a new {@code SharedPredicateStore}.
+     *
+     * @param target       Store of the original object.
+     * @param identityHash Identity hash code of the original object.
+     */
+    SharedPredicateStore(final PredicateStore target, final int identityHash) {
+        this.target = target;
+        this.identityHash = identityHash;
+    }
+
+    /**
+     * The identity hash code of the original object.
+     *
+     * @return Hash code shared by all views of the object.
+     */
+    int identityHash() {
+        return identityHash;
+    }
+
+    /**
+     * Freeze the shared store for every view.
+     */
+    void freeze() {
+        if (!target.isFrozen()) {
+            target = new FrozenPredicateTable(target);
+        }
+    }
+
+    @Override
+    Set<Object> get(final int key) {
+        return target.get(key);
+    }
+
+    @Override
+    boolean containsKey(final int key) {
+        return target.containsKey(key);
+    }
+
+    @Override
+    boolean contains(final int key, final Object value) {
+        return target.contains(key, value);
+    }
+
+    @Override
+    boolean matchesFolded(final int key, final String query, final boolean partial) {
+        return target.matchesFolded(key, query, partial);
+    }
+
+    @Override
+    double[] realValues(final int key) {
+        return target.realValues(key);
+    }
+
+    @Override
+    Datatype datatype(final int key) {
+        return target.datatype(key);
+    }
+
+    @Override
+    void add(final int key, final Object value, final Datatype datatype) {
+        target.add(key, value, datatype);
+    }
+
+    @Override
+    void addReal(final int key, final double value) {
+        target.addReal(key, value);
+    }
+
+    @Override
+    boolean remove(final int key, final Object value) {
+        return target.remove(key, value);
+    }
+
+    @Override
+    void put(final int key, final Collection<?> values) {
+        target.put(key, values);
+    }
+
+    @Override
+    void clear() {
+        target.clear();
+    }
+
+    @Override
+    int size() {
+        return target.size();
+    }
+
+    @Override
+    void forEach(final ObjIntConsumer<Set<Object>> action) {
+        target.forEach(action);
+    }
+
+    @Override
+    boolean isFrozen() {
+        return target.isFrozen();
+    }
+}
@@ -58,6 +58,21 @@ public interface Top {
      */
     Set<Object> value(String predicateId);
 
+    /**
+     * Get the real number values of a predicate without boxing them. The default implementation
+     * unboxes the {@link Double}s returned by {@link #value(String)}.
+     *
+     * @param predicateId Predicate ID.
+     * @return Array of real number values, empty if the predicate has none.
+     */
+    default double[] realValues(final String predicateId) {
+        final Set<Object> values = value(predicateId);
+        if (values == null) {
+            return new double[0];
+        }
+        return values.stream().filter(Double.class::isInstance).mapToDouble(Double.class::cast).toArray();
+    }
+
     /**
      * Add predicate and object String reference to entity.
      *
@@ -117,7 +132,9 @@ public interface Top {
     boolean hasThisStringValue(String predicateId, String value);
 
     /**
-     * Does the entity have a given predicate and string value (case-insensitive).
+     * Does the entity have a given predicate and string value (case-insensitive). Case is compared
+     * using {@link String#toLowerCase(java.util.Locale)} in {@link java.util.Locale#ROOT}, regardless
+     * of the default locale, and only string values are considered.
      *
      * @param predicateId Predicate ID.
      * @param value       Case-insensitive string value.
@@ -126,11 +143,30 @@ public interface Top {
     boolean hasThisStringValueIgnoreCase(String predicateId, String value);
 
     /**
-     * Does the entity have a given predicate and string value.
+     * Does the entity have a given predicate with a string value containing the given string
+     * (case-insensitive). Case is compared as for {@link #hasThisStringValueIgnoreCase(String, String)}.
      *
      * @param predicateId Predicate ID.
      * @param value       String value.
      * @return {@code true} if has fuzzy string value.
      */
     boolean hasThisStringValueFuzzy(String predicateId, String value);
+
+    /**
+     * Convert the HQDM object into a compact, read-only form. Any later attempt to modify the object
+     * throws an {@link uk.gov.gchq.hqdm.exception.HqdmException}. Freezing a frozen object has no
+     * effect. The default implementation does nothing, for objects that cannot be frozen; use
+     * {@link #isFrozen()} to tell whether freezing took effect.
+     */
+    default void freeze() {
+    }
+
+    /**
+     * Has the HQDM object been frozen. The default implementation returns {@code false}.
+     *
+     * @return {@code true} if the object is read-only.
+     */
+    default boolean isFrozen() {
+        return false;
+    }
 }
@@ -0,0 +1,587 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The values of one predicate of a {@link HqdmObject}.
+ *
+ * <p>
+ * Most HQDM predicates have exactly one value, so the representation adapts to the number of values:
+ * a single value is held inline, up to {@value #ARRAY_MAX} values are held in a small array, and
+ * larger sets are held in a {@link HashSet}. Small sets iterate in hash-bucket order, which is the
+ * order a {@link HashSet} of the same values would use, so output derived from iteration order does
+ * not depend on the representation.
+ * </p>
+ *
+ * <p>
+ * A set holding only real numbers keeps them unboxed in a {@code double[]} of up to
+ * {@value #REAL_ARRAY_MAX} values, in insertion order, and only boxes them when read through the
+ * {@link Set} view. Mixing reals with other values, or holding more reals than that, falls back to a
+ * boxed {@link HashSet}.
+ * </p>
+ *
+ * <p>
+ * The {@link CaseFolding case-folded} form of each string value is computed when it is added and
+ * kept alongside the values, so case-insensitive matching does not fold the stored values again.
+ * Folding usually returns the value itself, so this costs no more than a reference per value.
+ * </p>
+ *
+ * <p>
+ * The {@link Datatype} of the values is recorded as they are added. Values added through the
+ * {@link Set} view are of an unknown kind.
+ * </p>
+ */
+final class ValueSet extends AbstractSet<Object> {
+
+    /** The largest number of values held in an array before switching to a hash set. */
+    static final int ARRAY_MAX = 8;
+
+    /** The largest number of unboxed real values held before switching to a hash set. */
+    static final int REAL_ARRAY_MAX = 64;
+
+    /** Shared empty result of {@link #realValues()}. */
+    static final double[] NO_REALS = {};
+
+    private static final byte EMPTY = 0;
+
+    private static final byte SINGLE = 1;
+
+    private static final byte ARRAY = 2;
+
+    private static final byte HASH = 3;
+
+    private static final byte REALS = 4;
+
+    // The value, Object[], HashSet or double[] depending on the mode.
+    private Object data;
+
+    private int size;
+
+    private byte mode = EMPTY;
+
+    // Case-folded forms of the string values: null, a String, or a String[] padded with trailing nulls.
+    private Object folded;
+
+    // Null until a value has been added.
+    private Datatype datatype;
+
+    /**
+     * Constructs a new empty {@code ValueSet}.
+     */
+    ValueSet() {
+    }
+
+    /**
+     * Constructs a new {@code ValueSet} containing the elements of a collection.
+     *
+     * @param values Collection of values to copy.
+     */
+    ValueSet(final Collection<?> values) {
+        addAll(values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return mode == HASH ? hashSet().size() : size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(final Object value) {
+        switch (mode) {
+        case SINGLE:
+            return Objects.equals(data, value);
+        case ARRAY:
+            return indexOf(value) >= 0;
+        case HASH:
+            return hashSet().contains(value);
+        case REALS:
+            return value instanceof Double && indexOfReal((Double) value) >= 0;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(final Object value) {
+        return add(value, Datatype.UNKNOWN);
+    }
+
+    /**
+     * Add a value of a known kind.
+     *
+     * @param value The value.
+     * @param type  The {@link Datatype} of the value.
+     * @return {@code true} if the set did not already contain the value.
+     */
+    boolean add(final Object value, final Datatype type) {
+        if (addValue(value)) {
+            if (value instanceof String) {
+                addFolded(CaseFolding.fold((String) value));
+            }
+            datatype = Datatype.combine(datatype, type);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean addValue(final Object value) {
+        if (value instanceof Double && (mode == EMPTY || mode == REALS)) {
+            return addRealValue((Double) value);
+        }
+        switch (mode) {
+        case EMPTY:
+            data = value;
+            size = 1;
+            mode = SINGLE;
+            return true;
+        case SINGLE:
+            if (Objects.equals(data, value)) {
+                return false;
+            }
+            final Object[] array = new Object[4];
+            array[0] = data;
+            data = array;
+            mode = ARRAY;
+            insert(value);
+            return true;
+        case ARRAY:
+            if (indexOf(value) >= 0) {
+                return false;
+            }
+            if (size == ARRAY_MAX) {
+                final HashSet<Object> set = new HashSet<>();
+                final Object[] values = array();
+                for (int i = 0; i < size; i++) {
+                    set.add(values[i]);
+                }
+                set.add(value);
+                data = set;
+                size = 0;
+                mode = HASH;
+            } else {
+                insert(value);
+            }
+            return true;
+        case REALS:
+            toHashSet();
+            return hashSet().add(value);
+        default:
+            return hashSet().add(value);
+        }
+    }
+
+    /**
+     * Add a real number value without boxing it where possible.
+     *
+     * @param value Real number value.
+     * @return {@code true} if the set did not already contain the value.
+     */
+    boolean addReal(final double value) {
+        if (addRealValue(value)) {
+            datatype = Datatype.combine(datatype, Datatype.REAL);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean addRealValue(final double value) {
+        switch (mode) {
+        case EMPTY:
+            data = new double[] { value };
+            size = 1;
+            mode = REALS;
+            return true;
+        case REALS:
+            if (indexOfReal(value) >= 0) {
+                return false;
+            }
+            if (size == REAL_ARRAY_MAX) {
+                toHashSet();
+                return hashSet().add(value);
+            }
+            double[] reals = reals();
+            if (size == reals.length) {
+                reals = Arrays.copyOf(reals, Math.min(size * 2, REAL_ARRAY_MAX));
+                data = reals;
+            }
+            reals[size++] = value;
+            return true;
+        default:
+            return addValue(Double.valueOf(value));
+        }
+    }
+
+    /**
+     * Get the kind of the values in the set.
+     *
+     * @return The {@link Datatype}, {@link Datatype#UNKNOWN} if the set is empty.
+     */
+    Datatype datatype() {
+        final Datatype current = datatype;
+        return current == null || isEmpty() ? Datatype.UNKNOWN : current;
+    }
+
+    /**
+     * Get the real number values in the set without boxing them.
+     *
+     * @return Array of the real values, which may be empty.
+     */
+    double[] realValues() {
+        switch (mode) {
+        case REALS:
+            return Arrays.copyOf(reals(), size);
+        case SINGLE:
+            return data instanceof Double ? new double[] { (Double) data } : NO_REALS;
+        case EMPTY:
+            return NO_REALS;
+        default:
+            return stream().filter(Double.class::isInstance).mapToDouble(Double.class::cast).toArray();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(final Object value) {
+        if (removeValue(value)) {
+            removeFolded(value);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean removeValue(final Object value) {
+        switch (mode) {
+        case SINGLE:
+            if (Objects.equals(data, value)) {
+                clear();
+                return true;
+            }
+            return false;
+        case ARRAY:
+            final int index = indexOf(value);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        case HASH:
+            return hashSet().remove(value);
+        case REALS:
+            final int realIndex = value instanceof Double ? indexOfReal((Double) value) : -1;
+            if (realIndex < 0) {
+                return false;
+            }
+            removeAt(realIndex);
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        data = null;
+        size = 0;
+        mode = EMPTY;
+        folded = null;
+        datatype = null;
+    }
+
+    /**
+     * Does any string value match a query ignoring case. Only string values are considered, and
+     * nothing is allocated.
+     *
+     * @param query   Query already folded by {@link CaseFolding#fold(String)}.
+     * @param partial {@code true} to match the query anywhere in a value.
+     * @return {@code true} if a string value matches.
+     */
+    boolean matchesFolded(final String query, final boolean partial) {
+        final Object current = folded;
+        if (current instanceof String) {
+            return CaseFolding.matches((String) current, query, partial);
+        } else if (current instanceof String[]) {
+            for (final String element : (String[]) current) {
+                if (element == null) {
+                    break;
+                }
+                if (CaseFolding.matches(element, query, partial)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        if (mode == HASH) {
+            return new HashIterator(hashSet().iterator());
+        }
+        return new SmallIterator();
+    }
+
+    private void addFolded(final String value) {
+        final Object current = folded;
+        if (current == null) {
+            folded = value;
+        } else if (current instanceof String) {
+            folded = new String[] { (String) current, value, null, null };
+        } else {
+            String[] array = (String[]) current;
+            int count = array.length;
+            while (array[count - 1] == null) {
+                count--;
+            }
+            if (count == array.length) {
+                array = Arrays.copyOf(array, count * 2);
+                folded = array;
+            }
+            array[count] = value;
+        }
+    }
+
+    /**
+     * Remove one folded form of a removed value. Distinct values can share a folded form, so only a
+     * single occurrence is removed.
+     */
+    private void removeFolded(final Object value) {
+        if (!(value instanceof String) || folded == null) {
+            return;
+        }
+        final String target = CaseFolding.fold((String) value);
+        if (folded instanceof String) {
+            if (folded.equals(target)) {
+                folded = null;
+            }
+            return;
+        }
+        final String[] array = (String[]) folded;
+        int count = array.length;
+        while (array[count - 1] == null) {
+            count--;
+        }
+        for (int i = 0; i < count; i++) {
+            if (array[i].equals(target)) {
+                System.arraycopy(array, i + 1, array, i, count - i - 1);
+                array[count - 1] = null;
+                if (count == 2) {
+                    folded = array[0];
+                }
+                return;
+            }
+        }
+    }
+
+    private Object[] array() {
+        return (Object[]) data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> hashSet() {
+        return (Set<Object>) data;
+    }
+
+    private double[] reals() {
+        return (double[]) data;
+    }
+
+    private int indexOfReal(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        final double[] reals = reals();
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(reals[i]) == bits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Box the real values into a hash set.
+     */
+    private void toHashSet() {
+        final HashSet<Object> set = new HashSet<>();
+        final double[] reals = reals();
+        for (int i = 0; i < size; i++) {
+            set.add(reals[i]);
+        }
+        data = set;
+        size = 0;
+        mode = HASH;
+    }
+
+    private int indexOf(final Object value) {
+        final Object[] values = array();
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(values[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Insert a value known not to be present into the array, after any values in the same or an
+     * earlier hash bucket.
+     */
+    private void insert(final Object value) {
+        Object[] values = array();
+        if (size == values.length) {
+            values = new Object[ARRAY_MAX];
+            System.arraycopy(data, 0, values, 0, size);
+            data = values;
+        }
+        final int bucket = bucket(value);
+        int index = size;
+        while (index > 0 && bucket(values[index - 1]) > bucket) {
+            values[index] = values[index - 1];
+            index--;
+        }
+        values[index] = value;
+        size++;
+    }
+
+    private void removeAt(final int index) {
+        if (size == 1) {
+            clear();
+            return;
+        }
+        if (mode == REALS) {
+            final double[] reals = reals();
+            System.arraycopy(reals, index + 1, reals, index, size - index - 1);
+            size--;
+            return;
+        }
+        final Object[] values = array();
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        values[--size] = null;
+        if (size == 1) {
+            data = values[0];
+            mode = SINGLE;
+        }
+    }
+
+    /**
+     * The bucket a value would occupy in a {@link HashSet} of default capacity.
+     */
+    private static int bucket(final Object value) {
+        final int hash = value == null ? 0 : value.hashCode();
+        return (hash ^ (hash >>> 16)) & 15;
+    }
+
+    /**
+     * Iterator over the single or array representations.
+     */
+    private final class SmallIterator implements Iterator<Object> {
+
+        private int next;
+
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Object next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            switch (mode) {
+            case SINGLE:
+                return data;
+            case REALS:
+                return reals()[last];
+            default:
+                return array()[last];
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            final Object value = mode == SINGLE ? data : mode == REALS ? null : array()[last];
+            if (mode == SINGLE) {
+                clear();
+            } else {
+                removeAt(last);
+            }
+            removeFolded(value);
+            next = last;
+            last = -1;
+        }
+    }
+
+    /**
+     * Iterator over the hash set representation that keeps the folded forms in step with removals.
+     */
+    private final class HashIterator implements Iterator<Object> {
+
+        private final Iterator<Object> iterator;
+
+        private Object last;
+
+        HashIterator(final Iterator<Object> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            last = iterator.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+            removeFolded(last);
+        }
+    }
+}
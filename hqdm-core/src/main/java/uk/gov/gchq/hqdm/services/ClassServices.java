@@ -20,6 +20,12 @@ import uk.gov.gchq.hqdm.model.impl.*;
 
 /**
  * Service for creating HQDM Classes.
+ *
+ * <p>
+ * Each call creates a new object. Reference data referred to from many places can be shared through a
+ * {@link ReferenceDataRegistry} instead, by passing these methods to
+ * {@link ReferenceDataRegistry#get(String, java.util.function.Function)}.
+ * </p>
  */
 public class ClassServices {
     /**
@@ -14,23 +14,96 @@
 
 package uk.gov.gchq.hqdm.services;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import uk.gov.gchq.hqdm.exception.HqdmException;
 import uk.gov.gchq.hqdm.model.Thing;
-import uk.gov.gchq.hqdm.model.impl.ThingImpl;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
 import uk.gov.gchq.hqdm.pojo.Top;
 
 /**
- * Service for creating dynamic proxies.
+ * Service for creating objects that implement more than one HQDM type.
+ *
+ * <p>
+ * New objects are instances of classes generated at runtime for each distinct combination of
+ * interfaces. A generated class extends {@link HqdmObject} and implements the interfaces directly,
+ * just like the hand-written {@code *Impl} classes, so calls on its instances are ordinary virtual
+ * calls and {@code equals}, {@code hashCode} and {@code toString} behave as they do for any other
+ * HQDM object.
+ * </p>
+ *
+ * <p>
+ * Existing objects are reclassified with {@link #reclassify(Thing, java.lang.Class, java.lang.Class[])},
+ * {@link #addTypes(Thing, java.lang.Class, java.lang.Class[])} and
+ * {@link #removeTypes(Thing, java.lang.Class, java.lang.Class[])}. These return an instance of the
+ * generated class for the new types that is a view of the same object: it shares the ID and predicate
+ * storage of the original, and is equal to it. Reclassifying a view again starts from the original
+ * storage, so however often an object is reclassified, calls on it cost the same. Only a
+ * {@link Thing} that is not a {@link HqdmObject} is wrapped in a dynamic proxy, and a proxy is never
+ * wrapped in another.
+ * </p>
+ *
+ * <p>
+ * The generated class, or the proxy class, for each combination is resolved once and its constructors
+ * cached. A combination is a set: the order of the interfaces and any repeats do not matter. Up to
+ * {@value #MAX_CACHED} combinations of each are cached. Past that, no more classes are generated;
+ * further combinations are given a proxy, whose class the JDK caches, around an object of the
+ * generated class for {@link Thing} alone. Such a proxy is not equal to the object it views. All
+ * proxies dispatch through one shared, read-only table of the {@link Top} methods.
+ * </p>
  */
 public class DynamicObjects {
 
+    /** The largest number of interface combinations whose constructors are cached. */
+    public static final int MAX_CACHED = 1024;
+
+    /** The methods to be proxied, shared by every handler. */
+    private static final Map<String, Method> TOP_METHODS;
+
+    static {
+        final Map<String, Method> methods = new HashMap<>();
+        for (final Method method : Top.class.getDeclaredMethods()) {
+            methods.put(method.getName(), method);
+        }
+        TOP_METHODS = Map.copyOf(methods);
+    }
+
+    /** Wraps an object in a proxy, given the constructor of the proxy class. */
+    private static final MethodHandle WRAP;
+
+    static {
+        try {
+            WRAP = MethodHandles.lookup().findStatic(DynamicObjects.class, "wrap",
+                    MethodType.methodType(Object.class, Constructor.class, Object.class));
+        } catch (final IllegalAccessException | NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final InterfaceSetCache<ThingClassGenerator.ThingClass> GENERATED_CLASSES =
+            new InterfaceSetCache<>(MAX_CACHED, ThingClassGenerator::generate, DynamicObjects::proxyThingClass);
+
+    private static final InterfaceSetCache<Constructor<?>> PROXY_CLASSES = new InterfaceSetCache<>(MAX_CACHED,
+            DynamicObjects::proxyConstructor, DynamicObjects::proxyConstructor);
+
+    /** The generated class for {@link Thing} alone, cached before any other so it is never a proxy. */
+    private static final ThingClassGenerator.ThingClass THING_CLASS =
+            GENERATED_CLASSES.get(new java.lang.Class<?>[] { Thing.class });
+
     /**
-     * Create a Proxy that implements the set of specified interfaces.
+     * Create an object that implements the set of specified interfaces.
      *
      * @param <T>        The subtypes of {@link Thing} to implement.
      * @param <U>        The subtype of {@link Thing} to return.
@@ -41,12 +114,19 @@ public class DynamicObjects {
      */
     public static <T extends Thing, U extends Thing> U create(final String id, final java.lang.Class<U> returnType,
             final java.lang.Class<T>[] classes) {
-
-        return (U) implementInterfaces((T) new ThingImpl(id), returnType, classes);
+        try {
+            return cast((Object) GENERATED_CLASSES.get(classes).create().invokeExact(id));
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            return null;
+        }
     }
 
     /**
-     * Create a Proxy that implements the set of specified interfaces, for an existing object.
+     * Give an existing object the set of specified interfaces. A {@link HqdmObject} is
+     * {@link #reclassify(Thing, java.lang.Class, java.lang.Class[]) reclassified}; any other
+     * {@link Thing} is wrapped in a proxy that delegates to it.
      *
      * @param <T>        The subtypes of {@link Thing} to implement.
      * @param <U>        The subtype of {@link Thing} to return.
@@ -57,45 +137,195 @@ public class DynamicObjects {
      */
     public static <T extends Thing, U extends Thing> U implementInterfaces(final T thing,
             final java.lang.Class<U> returnType, final java.lang.Class<T>[] classes) {
+        final Thing target = unwrap(thing);
+        if (target instanceof HqdmObject) {
+            return reclassify(target, returnType, classes);
+        }
         try {
-            return (U) Proxy.newProxyInstance(ClassServices.class.getClassLoader(), classes, new ThingHandler(thing));
-
+            return cast(PROXY_CLASSES.get(classes).newInstance(new ThingHandler(target)));
         } catch (final Exception e) {
             return null;
         }
     }
 
+    /**
+     * Reclassify an existing object so that it has exactly the specified interfaces. The result
+     * shares the ID and predicate storage of the object, and is equal to it.
+     *
+     * @param <T>        The subtypes of {@link Thing} to implement.
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param thing      The {@link HqdmObject} to reclassify, or a view or proxy of one.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to implement.
+     * @return An object of type U.
+     * @throws HqdmException If the object is not a {@link HqdmObject}.
+     */
+    public static <T extends Thing, U extends Thing> U reclassify(final Thing thing,
+            final java.lang.Class<U> returnType, final java.lang.Class<T>[] classes) throws HqdmException {
+        return cast(view(thing, classes));
+    }
+
+    /**
+     * Reclassify an existing object so that it has the specified interfaces as well as those it
+     * already has.
+     *
+     * @param <T>        The subtypes of {@link Thing} to add.
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param thing      The {@link HqdmObject} to reclassify, or a view or proxy of one.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to add.
+     * @return An object of type U.
+     * @throws HqdmException If the object is not a {@link HqdmObject}.
+     */
+    public static <T extends Thing, U extends Thing> U addTypes(final Thing thing,
+            final java.lang.Class<U> returnType, final java.lang.Class<T>[] classes) throws HqdmException {
+        final Set<java.lang.Class<?>> types = new LinkedHashSet<>(typesOf(thing));
+        types.addAll(Arrays.asList(classes));
+        return cast(view(thing, types.toArray(new java.lang.Class<?>[0])));
+    }
+
+    /**
+     * Reclassify an existing object so that it no longer has the specified interfaces. An object left
+     * with no interfaces is a plain {@link Thing}.
+     *
+     * @param <T>        The subtypes of {@link Thing} to remove.
+     * @param <U>        The subtype of {@link Thing} to return.
+     * @param thing      The {@link HqdmObject} to reclassify, or a view or proxy of one.
+     * @param returnType The type to cast the return value to.
+     * @param classes    The array of classes to remove.
+     * @return An object of type U.
+     * @throws HqdmException If the object is not a {@link HqdmObject}.
+     */
+    public static <T extends Thing, U extends Thing> U removeTypes(final Thing thing,
+            final java.lang.Class<U> returnType, final java.lang.Class<T>[] classes) throws HqdmException {
+        final Set<java.lang.Class<?>> types = new LinkedHashSet<>(typesOf(thing));
+        types.removeAll(Arrays.asList(classes));
+        if (types.isEmpty()) {
+            types.add(Thing.class);
+        }
+        return cast(view(thing, types.toArray(new java.lang.Class<?>[0])));
+    }
+
+    /**
+     * Get the HQDM interfaces an object implements directly, in declaration order.
+     *
+     * @param thing The {@link Thing}.
+     * @return Set of interfaces.
+     */
+    public static Set<java.lang.Class<? extends Thing>> typesOf(final Thing thing) {
+        final Set<java.lang.Class<? extends Thing>> types = new LinkedHashSet<>();
+        for (final java.lang.Class<?> type : thing.getClass().getInterfaces()) {
+            if (Thing.class.isAssignableFrom(type)) {
+                types.add(type.asSubclass(Thing.class));
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Get a view of an object with exactly the specified interfaces.
+     */
+    private static Object view(final Thing thing, final java.lang.Class<?>[] classes) throws HqdmException {
+        final Thing target = unwrap(thing);
+        if (!(target instanceof HqdmObject)) {
+            throw new HqdmException("Cannot reclassify an object that is not a HqdmObject: " + target.getId());
+        }
+        try {
+            return (Object) GENERATED_CLASSES.get(classes).view().invokeExact((HqdmObject) target);
+        } catch (final Error | RuntimeException e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new HqdmException(e);
+        }
+    }
+
+    /**
+     * Cast an object created or viewed for a set of interfaces to the type the caller asked for. The
+     * interfaces are given as an array, so the compiler cannot check that they include that type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <U> U cast(final Object object) {
+        return (U) object;
+    }
+
+    /**
+     * Get the object behind a proxy created by this class, or the object itself if it is not one.
+     */
+    private static Thing unwrap(final Thing thing) {
+        if (Proxy.isProxyClass(thing.getClass())) {
+            final InvocationHandler handler = Proxy.getInvocationHandler(thing);
+            if (handler instanceof ThingHandler) {
+                return (Thing) ((ThingHandler) handler).target;
+            }
+        }
+        return thing;
+    }
+
+    /**
+     * Get constructors for a combination of interfaces once no more classes can be generated. They
+     * create an object of the generated class for {@link Thing} alone, or a view of an existing one,
+     * and wrap it in a proxy implementing the interfaces.
+     */
+    private static ThingClassGenerator.ThingClass proxyThingClass(final java.lang.Class<?>[] interfaces) {
+        final MethodHandle wrap = WRAP.bindTo(PROXY_CLASSES.get(interfaces));
+        return new ThingClassGenerator.ThingClass(MethodHandles.filterReturnValue(THING_CLASS.create(), wrap),
+                MethodHandles.filterReturnValue(THING_CLASS.view(), wrap));
+    }
+
+    /**
+     * Wrap an object in a proxy.
+     */
+    private static Object wrap(final Constructor<?> proxyConstructor, final Object target)
+            throws ReflectiveOperationException {
+        return proxyConstructor.newInstance(new ThingHandler(target));
+    }
+
+    /**
+     * Resolve the proxy class for a combination of interfaces and get its constructor. The JDK makes
+     * the constructor of a proxy class accessible when it creates an instance, so one instance is
+     * created here to obtain it.
+     */
+    private static Constructor<?> proxyConstructor(final java.lang.Class<?>[] classes) {
+        final Object prototype = Proxy.newProxyInstance(ClassServices.class.getClassLoader(), classes,
+                new ThingHandler(null));
+        try {
+            final Constructor<?> constructor = prototype.getClass().getConstructor(InvocationHandler.class);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Proxy method calls to {@link Object}.
      */
     private static class ThingHandler implements InvocationHandler {
 
-        /** The methods to be proxied. */
-        private final Map<String, Method> methods = new HashMap<>();
-
         /** The object to be proxied. */
-        private Object target;
+        private final Object target;
 
         /**
          * Constructor accepting the thing to be proxied.
          *
          * @param target The Object to be proxied.
          */
-        public ThingHandler(final Object target) {
+        ThingHandler(final Object target) {
             this.target = target;
-
-            // Cache the methods to be proxied.
-            for (final Method method : Top.class.getDeclaredMethods()) {
-                this.methods.put(method.getName(), method);
-            }
         }
 
         /**
-         * Call the requested method.
+         * Call the requested method on the target, through the matching {@link Top} method if there is
+         * one.
          */
         @Override
         public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-            return methods.get(method.getName()).invoke(target, args);
+            final Method topMethod = TOP_METHODS.get(method.getName());
+            try {
+                return (topMethod != null ? topMethod : method).invoke(target, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
         }
     }
 }
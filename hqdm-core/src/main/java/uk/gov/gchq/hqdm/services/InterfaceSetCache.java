@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.services;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache of values derived from a set of interfaces.
+ *
+ * <p>
+ * Values are resolved from the canonical form of a set: its distinct interfaces sorted by name, so
+ * that every ordering of the same interfaces, with or without repeats, gets the same value. Entries
+ * are keyed by the first interface and then matched on the whole array, so that a lookup does not
+ * allocate a key; an array that is not in canonical form is cached as well, sharing the value of
+ * the canonical one. Once the cache holds its maximum number of entries, values for further sets
+ * are found with the overflow function instead, which should not be costly to call repeatedly.
+ * </p>
+ *
+ * @param <V> Type of the cached values.
+ */
+final class InterfaceSetCache<V> {
+
+    private static final Comparator<java.lang.Class<?>> BY_NAME = Comparator.comparing(java.lang.Class::getName);
+
+    private final Map<java.lang.Class<?>, Entry<V>[]> entries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final int maxEntries;
+
+    private final Function<java.lang.Class<?>[], V> resolver;
+
+    private final Function<java.lang.Class<?>[], V> overflow;
+
+    /**
+     * Constructs a new {@code InterfaceSetCache}.
+     *
+     * @param maxEntries Maximum number of interface arrays to cache.
+     * @param resolver   Function to derive the value for a canonical interface array.
+     * @param overflow   Function to find the value for a canonical interface array once the cache is
+     *                   full.
+     */
+    InterfaceSetCache(final int maxEntries, final Function<java.lang.Class<?>[], V> resolver,
+            final Function<java.lang.Class<?>[], V> overflow) {
+        this.maxEntries = maxEntries;
+        this.resolver = resolver;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Get the value for an array of interfaces, resolving it if it is not cached.
+     *
+     * @param interfaces Non-empty array of interfaces, which is not modified or retained.
+     * @return The value.
+     */
+    V get(final java.lang.Class<?>[] interfaces) {
+        final V cached = find(interfaces);
+        if (cached != null) {
+            return cached;
+        }
+        final java.lang.Class<?>[] canonical = canonical(interfaces);
+        V value = find(canonical);
+        if (value == null) {
+            if (count.get() >= maxEntries) {
+                return overflow.apply(canonical);
+            }
+            value = insert(canonical, resolver.apply(canonical));
+        }
+        if (count.get() < maxEntries && !Arrays.equals(canonical, interfaces)) {
+            insert(interfaces.clone(), value);
+        }
+        return value;
+    }
+
+    /**
+     * The number of interface arrays cached.
+     *
+     * @return Number of cached entries.
+     */
+    int size() {
+        return count.get();
+    }
+
+    /**
+     * Find the cached value for an array of interfaces.
+     */
+    private V find(final java.lang.Class<?>[] interfaces) {
+        final Entry<V>[] cached = entries.get(interfaces[0]);
+        if (cached != null) {
+            for (final Entry<V> entry : cached) {
+                if (Arrays.equals(entry.interfaces, interfaces)) {
+                    return entry.value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cache a value for an array of interfaces, unless another thread has cached one first.
+     *
+     * @return The value now cached for the array.
+     */
+    private V insert(final java.lang.Class<?>[] key, final V value) {
+        final Entry<V> added = new Entry<>(key, value);
+        final Entry<V>[] updated = entries.merge(key[0], newArray(added), (existing, single) -> {
+            for (final Entry<V> other : existing) {
+                if (Arrays.equals(other.interfaces, key)) {
+                    return existing;
+                }
+            }
+            final Entry<V>[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = added;
+            return merged;
+        });
+        for (final Entry<V> entry : updated) {
+            if (Arrays.equals(entry.interfaces, key)) {
+                if (entry == added) {
+                    count.incrementAndGet();
+                }
+                return entry.value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The distinct interfaces of an array, sorted by name.
+     */
+    private static java.lang.Class<?>[] canonical(final java.lang.Class<?>[] interfaces) {
+        final java.lang.Class<?>[] canonical = new LinkedHashSet<>(Arrays.asList(interfaces))
+                .toArray(new java.lang.Class<?>[0]);
+        Arrays.sort(canonical, BY_NAME);
+        return canonical;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <V> Entry<V>[] newArray(final Entry<V> entry) {
+        return new Entry[] { entry };
+    }
+
+    /**
+     * A cached value and the interfaces it was derived from.
+     */
+    private static final class Entry<V> {
+
+        private final java.lang.Class<?>[] interfaces;
+
+        private final V value;
+
+        Entry(final java.lang.Class<?>[] interfaces, final V value) {
+            this.interfaces = interfaces;
+            this.value = value;
+        }
+    }
+}
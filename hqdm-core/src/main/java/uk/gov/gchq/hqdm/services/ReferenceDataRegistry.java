@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import uk.gov.gchq.hqdm.model.Thing;
+
+/**
+ * Registry of shared reference-data objects, such as the kinds, classes and roles created by
+ * {@link ClassServices}, keyed by IRI.
+ *
+ * <p>
+ * Reference data is a small vocabulary referred to from many places. Creating it through
+ * {@link #get(String, Function)}, for example {@code registry.get(iri, ClassServices::createKindOfPerson)},
+ * creates each object once and returns the same instance for every later request for its IRI. Objects
+ * are {@link Thing#freeze() frozen} as they are published, so a shared instance cannot be changed by
+ * one of its users, and can be read from any thread.
+ * </p>
+ *
+ * <p>
+ * Objects that carry values of their own, such as reference data read from a file at startup, are
+ * populated first and then added with {@link #publish(Thing)} or {@link #preload(Iterable)}. The
+ * registry counts hits and misses to show how much sharing it achieves.
+ * </p>
+ */
+public final class ReferenceDataRegistry {
+
+    private final Map<String, Thing> things = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Get the shared object for an IRI, creating, freezing and publishing it if there is none. The type
+     * of an existing object is not checked: if the IRI is already registered to an object of another
+     * type, the caller gets a {@link ClassCastException} where it uses the result.
+     *
+     * @param <T>     Type of the object.
+     * @param iri     IRI of the object.
+     * @param factory Function to create the object from its IRI, such as a {@link ClassServices}
+     *                method.
+     * @return The shared, frozen object.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Thing> T get(final String iri, final Function<String, T> factory) {
+        final Thing existing = things.get(iri);
+        if (existing != null) {
+            hits.increment();
+            return (T) existing;
+        }
+        // A thread that loses the race to create the object is given the winner's, which is a hit.
+        final Thing[] created = new Thing[1];
+        final Thing shared = things.computeIfAbsent(iri, key -> {
+            final T thing = factory.apply(key);
+            thing.freeze();
+            created[0] = thing;
+            return thing;
+        });
+        if (shared == created[0]) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return (T) shared;
+    }
+
+    /**
+     * Look up the shared object for an IRI without creating one.
+     *
+     * @param iri IRI of the object.
+     * @return The shared object, or {@code null} if there is none.
+     */
+    public Thing lookup(final String iri) {
+        final Thing existing = things.get(iri);
+        if (existing != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return existing;
+    }
+
+    /**
+     * Freeze and publish a populated object as the shared instance for its IRI, unless an object has
+     * already been published for it.
+     *
+     * @param <T>   Type of the object.
+     * @param thing The object to publish.
+     * @return The shared object, which is {@code thing} unless another was published first.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Thing> T publish(final T thing) {
+        thing.freeze();
+        final Thing existing = things.putIfAbsent(thing.getId(), thing);
+        return existing == null ? thing : (T) existing;
+    }
+
+    /**
+     * Publish a set of populated objects, such as reference data read at startup.
+     *
+     * @param preloaded The objects to publish.
+     * @return The number of objects newly published.
+     */
+    public int preload(final Iterable<? extends Thing> preloaded) {
+        int count = 0;
+        for (final Thing thing : preloaded) {
+            if (publish(thing) == thing) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The number of requests that found a shared object.
+     *
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * The number of requests that found no shared object.
+     *
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * The proportion of requests that found a shared object.
+     *
+     * @return Hit rate between 0 and 1, or 0 if there have been no requests.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * The number of shared objects.
+     *
+     * @return Number of objects.
+     */
+    public int size() {
+        return things.size();
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+
+/**
+ * Generates classes that extend {@link HqdmObject} and implement a combination of HQDM interfaces.
+ *
+ * <p>
+ * Each generated class is the equivalent of a hand-written {@code *Impl} class: a final class with
+ * a public constructor taking the ID and passing it to {@link HqdmObject#HqdmObject(String)}, and a
+ * second taking an existing object and passing it to {@link HqdmObject#HqdmObject(HqdmObject)}. The
+ * HQDM model interfaces declare no methods of their own, so nothing else is needed. Classes are
+ * defined as hidden classes in this package, and so can be unloaded once nothing refers to them.
+ * </p>
+ */
+final class ThingClassGenerator {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    // Java 15, the first release with hidden classes.
+    private static final int MAJOR_VERSION = 59;
+
+    private static final int ACC_PUBLIC = 0x0001;
+
+    private static final int ACC_FINAL = 0x0010;
+
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int CONSTANT_METHODREF = 10;
+
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ALOAD_0 = 0x2A;
+
+    private static final int ALOAD_1 = 0x2B;
+
+    private static final int INVOKESPECIAL = 0xB7;
+
+    private static final int RETURN = 0xB1;
+
+    private static final String CLASS_NAME = DynamicObjects.class.getPackageName().replace('.', '/')
+            + "/DynamicThing";
+
+    private static final String SUPER_NAME = HqdmObject.class.getName().replace('.', '/');
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, String.class);
+
+    private static final MethodType VIEW_CONSTRUCTOR_TYPE = MethodType.methodType(void.class, HqdmObject.class);
+
+    // Constant pool entries before those of the interfaces.
+    private static final int FIXED_CONSTANTS = 12;
+
+    private ThingClassGenerator() {
+    }
+
+    /**
+     * Generate a class implementing some interfaces and get its constructors.
+     *
+     * @param interfaces Interfaces to implement, without duplicates.
+     * @return The constructors of the class.
+     */
+    static ThingClass generate(final java.lang.Class<?>[] interfaces) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClass(classFile(interfaces), true);
+            final java.lang.Class<?> generated = lookup.lookupClass();
+            return new ThingClass(
+                    lookup.findConstructor(generated, CONSTRUCTOR_TYPE)
+                            .asType(MethodType.methodType(Object.class, String.class)),
+                    lookup.findConstructor(generated, VIEW_CONSTRUCTOR_TYPE)
+                            .asType(MethodType.methodType(Object.class, HqdmObject.class)));
+        } catch (final IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot define class for " + Arrays.toString(interfaces), e);
+        }
+    }
+
+    /**
+     * Write the class file.
+     */
+    private static byte[] classFile(final java.lang.Class<?>[] interfaces) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + 64 * interfaces.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+
+            // Constant pool: entries 1 to 12 are fixed, followed by a name and class entry per interface.
+            out.writeShort(FIXED_CONSTANTS + 1 + 2 * interfaces.length);
+            utf8(out, CLASS_NAME); // 1
+            classRef(out, 1); // 2
+            utf8(out, SUPER_NAME); // 3
+            classRef(out, 3); // 4
+            utf8(out, "<init>"); // 5
+            utf8(out, CONSTRUCTOR_TYPE.toMethodDescriptorString()); // 6
+            out.writeByte(CONSTANT_NAME_AND_TYPE); // 7
+            out.writeShort(5);
+            out.writeShort(6);
+            out.writeByte(CONSTANT_METHODREF); // 8
+            out.writeShort(4);
+            out.writeShort(7);
+            utf8(out, "Code"); // 9
+            utf8(out, VIEW_CONSTRUCTOR_TYPE.toMethodDescriptorString()); // 10
+            out.writeByte(CONSTANT_NAME_AND_TYPE); // 11
+            out.writeShort(5);
+            out.writeShort(10);
+            out.writeByte(CONSTANT_METHODREF); // 12
+            out.writeShort(4);
+            out.writeShort(11);
+            for (int i = 0; i < interfaces.length; i++) {
+                utf8(out, interfaces[i].getName().replace('.', '/'));
+                classRef(out, FIXED_CONSTANTS + 1 + 2 * i);
+            }
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(2);
+            out.writeShort(4);
+            out.writeShort(interfaces.length);
+            for (int i = 0; i < interfaces.length; i++) {
+                out.writeShort(FIXED_CONSTANTS + 2 + 2 * i);
+            }
+
+            // No fields, and two methods: the constructors.
+            out.writeShort(0);
+            out.writeShort(2);
+            constructor(out, 6, 8);
+            constructor(out, 10, 12);
+
+            // No class attributes.
+            out.writeShort(0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write a constructor that passes its one argument to the matching superclass constructor.
+     */
+    private static void constructor(final DataOutputStream out, final int descriptorIndex,
+            final int superConstructorIndex) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(5);
+        out.writeShort(descriptorIndex);
+        out.writeShort(1);
+
+        // Code attribute: super(arg); return;
+        final byte[] code = { (byte) ALOAD_0, (byte) ALOAD_1, (byte) INVOKESPECIAL, 0,
+            (byte) superConstructorIndex, (byte) RETURN };
+        out.writeShort(9);
+        out.writeInt(12 + code.length);
+        out.writeShort(2);
+        out.writeShort(2);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static void utf8(final DataOutputStream out, final String value) throws IOException {
+        out.writeByte(CONSTANT_UTF8);
+        out.writeUTF(value);
+    }
+
+    private static void classRef(final DataOutputStream out, final int nameIndex) throws IOException {
+        out.writeByte(CONSTANT_CLASS);
+        out.writeShort(nameIndex);
+    }
+
+    /**
+     * Constructors of a generated class.
+     */
+    static final class ThingClass {
+
+        private final MethodHandle create;
+
+        private final MethodHandle view;
+
+        ThingClass(final MethodHandle create, final MethodHandle view) {
+            this.create = create;
+            this.view = view;
+        }
+
+        /**
+         * Handle to the constructor taking an ID.
+         *
+         * @return Handle of type {@code (String)Object}.
+         */
+        MethodHandle create() {
+            return create;
+        }
+
+        /**
+         * Handle to the constructor taking an existing object to share storage with.
+         *
+         * @return Handle of type {@code (HqdmObject)Object}.
+         */
+        MethodHandle view() {
+            return view;
+        }
+    }
+}
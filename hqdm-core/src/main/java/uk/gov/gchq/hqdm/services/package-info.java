@@ -14,5 +14,11 @@
 
 /**
  * Services for creating HQDM objects and relationships.
+ *
+ * <p>
+ * Objects are created with the default {@link uk.gov.gchq.hqdm.pojo.StorageMode} of
+ * {@link uk.gov.gchq.hqdm.pojo.HqdmObject}. Select {@link uk.gov.gchq.hqdm.pojo.StorageMode#CONCURRENT}
+ * to create objects that several threads can populate at once.
+ * </p>
  */
 package uk.gov.gchq.hqdm.services;
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.impl.PersonImpl;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * Tests for the {@link TextIndex}.
+ */
+public class TextIndexTest {
+
+    private static final String NAME = "http://www.semanticweb.org/hqdm#data_EntityName";
+
+    private TextIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TextIndex(NAME);
+    }
+
+    @After
+    public void tearDown() {
+        index.close();
+    }
+
+    /**
+     * Test the three lookups over values present when objects are added.
+     */
+    @Test
+    public void testFind() {
+        index.add(person("person1", "Alice Smith"));
+        index.add(person("person2", "alice jones"));
+        index.add(person("person3", "Bob Smithson"));
+
+        assertEquals(Set.of("person1"), index.findExact("Alice Smith"));
+        assertEquals(Set.of(), index.findExact("alice smith"));
+        assertEquals(Set.of("person1"), index.findIgnoreCase("ALICE SMITH"));
+        assertEquals(Set.of("person1", "person3"), index.findContaining("SMITH"));
+        assertEquals(Set.of("person1", "person2"), index.findContaining("ali"));
+        assertEquals(Set.of("person3"), index.findContaining("b"));
+        assertEquals(Set.of(), index.findContaining("smythe"));
+    }
+
+    /**
+     * Test queries shorter than three characters, which are answered from the one and two
+     * character lists.
+     */
+    @Test
+    public void testFindContainingShort() {
+        index.add(person("person1", "Alice Smith"));
+        index.add(person("person2", "Bobbie"));
+
+        assertEquals(Set.of("person1", "person2"), index.findContaining("I"));
+        assertEquals(Set.of("person1"), index.findContaining("e s"));
+        assertEquals(Set.of("person2"), index.findContaining("ob"));
+        assertEquals(Set.of(), index.findContaining("z"));
+    }
+
+    /**
+     * Test that an empty query, which every value would match, is rejected.
+     */
+    @Test(expected = HqdmException.class)
+    public void testFindContainingEmpty() {
+        index.findContaining("");
+    }
+
+    /**
+     * Test that the index follows values added and removed after objects are added.
+     */
+    @Test
+    public void testFollowsChanges() {
+        final HqdmObject person = person("person1", "Alice");
+        index.add(person);
+
+        person.addStringValue(NAME, "ALICE");
+        person.addStringValue(NAME, "Ally");
+        person.removeValue(NAME, "Alice");
+        assertEquals(Set.of(), index.findExact("Alice"));
+        assertEquals(Set.of("person1"), index.findIgnoreCase("alice"));
+        assertEquals(Set.of("person1"), index.findContaining("lly"));
+
+        person.removeValue(NAME, "ALICE");
+        assertEquals(Set.of(), index.findIgnoreCase("alice"));
+        assertEquals(Set.of(), index.findContaining("lic"));
+
+        // Objects not in the index are ignored.
+        person("person2", "Ally");
+        assertEquals(Set.of("person1"), index.findExact("Ally"));
+
+        index.remove(person);
+        assertTrue(index.findContaining("ally").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Test that the index follows changes made through a reclassified view of an object.
+     */
+    @Test
+    public void testFollowsChangesThroughView() {
+        final HqdmObject person = person("person1", "Alice");
+        index.add(person);
+
+        final Participant participant = DynamicObjects.addTypes(person, Participant.class,
+                new Class[] { Participant.class });
+        ((HqdmObject) participant).addStringValue(NAME, "Ally");
+        ((HqdmObject) participant).removeValue(NAME, "Alice");
+
+        assertEquals(Set.of("person1"), index.findExact("Ally"));
+        assertEquals(Set.of(), index.findExact("Alice"));
+        assertEquals(Set.of("person1"), index.findContaining("lly"));
+        assertEquals(Set.of(), index.findContaining("lic"));
+    }
+
+    private static HqdmObject person(final String id, final String name) {
+        final HqdmObject person = new PersonImpl(id);
+        person.addStringValue(NAME, name);
+        return person;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Multi-threaded tests for {@link StorageMode#CONCURRENT}.
+ */
+public class ConcurrentStorageTest {
+
+    private static final int THREADS = 8;
+
+    private static final int VALUES_PER_THREAD = 2_000;
+
+    private static final String[] PREDICATES = {
+        "test-concurrent-1", "test-concurrent-2", "test-concurrent-3", "test-concurrent-4",
+    };
+
+    /**
+     * Restore the default storage mode.
+     */
+    @After
+    public void tearDown() {
+        HqdmObject.setDefaultStorageMode(StorageMode.COMPACT);
+    }
+
+    /**
+     * Test that the services create concurrent objects when the mode is selected.
+     */
+    @Test
+    public void testServicesUseDefaultMode() {
+        HqdmObject.setDefaultStorageMode(StorageMode.CONCURRENT);
+        final Person person = SpatioTemporalExtentServices.createPerson("person1");
+
+        person.addValue(PREDICATES[0], "value");
+
+        assertTrue(person.hasThisValue(PREDICATES[0], "value"));
+        assertEquals(StorageMode.CONCURRENT, HqdmObject.getDefaultStorageMode());
+    }
+
+    /**
+     * Test many threads adding and reading values on the same object at once.
+     *
+     * @throws Exception If a worker fails.
+     */
+    @Test
+    public void testConcurrentAddValue() throws Exception {
+        HqdmObject.setDefaultStorageMode(StorageMode.CONCURRENT);
+        final Person person = SpatioTemporalExtentServices.createPerson("person1");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < VALUES_PER_THREAD; i++) {
+                        final String predicate = PREDICATES[i % PREDICATES.length];
+                        final String value = thread + "-" + i;
+                        person.addValue(predicate, value);
+                        person.addRealValue(predicate, thread * VALUES_PER_THREAD + i);
+                        if (!person.hasThisValue(predicate, value)) {
+                            throw new AssertionError("Missing value " + value);
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        int total = 0;
+        int reals = 0;
+        for (final String predicate : PREDICATES) {
+            total += person.value(predicate).size();
+            reals += person.realValues(predicate).length;
+        }
+        assertEquals(THREADS * VALUES_PER_THREAD * 2, total);
+        assertEquals(THREADS * VALUES_PER_THREAD, reals);
+
+        // A concurrently populated object can be frozen once ingest is complete.
+        person.freeze();
+        assertTrue(person.hasThisValue(PREDICATES[1], "3-1"));
+    }
+}
@@ -16,10 +16,14 @@ package uk.gov.gchq.hqdm.pojo;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import uk.gov.gchq.hqdm.exception.HqdmException;
 import uk.gov.gchq.hqdm.model.PointInTime;
 import uk.gov.gchq.hqdm.model.PossibleWorld;
 import uk.gov.gchq.hqdm.model.SpatioTemporalExtent;
@@ -74,4 +78,172 @@ public class HqdmObjectTest {
         thing.removeValue("test-predicate", "test-value");
         Assert.assertFalse(thing.hasThisValue("test-predicate", "test-value"));
     }
+
+    @Test
+    public void testPredicateIdAccess() {
+        final var thing = new ThingImpl("test");
+        final int predicate = PredicateRegistry.idOf("test-predicate");
+
+        // Values added by IRI are visible by ID and vice versa.
+        thing.addValue("test-predicate", "test-value");
+        thing.addStringValue(predicate, "test-string");
+        Assert.assertTrue(thing.hasThisValue(predicate, "test-value"));
+        Assert.assertTrue(thing.hasThisStringValue("test-predicate", "test-string"));
+        Assert.assertEquals(2, thing.value(predicate).size());
+
+        // Unknown predicates are absent and are not registered by a query.
+        final int registered = PredicateRegistry.size();
+        Assert.assertNull(thing.value("test-predicate-unknown"));
+        Assert.assertFalse(thing.hasValue("test-predicate-unknown"));
+        Assert.assertEquals(registered, PredicateRegistry.size());
+
+        // The predicates map is keyed by IRI.
+        Assert.assertEquals(thing.value(predicate), thing.getPredicates().get("test-predicate"));
+    }
+
+    @Test
+    public void testRealValues() {
+        final var thing = new ThingImpl("test");
+
+        thing.addRealValue("test-real", 2.0);
+        thing.addRealValue("test-real", 3.0);
+
+        Assert.assertArrayEquals(new double[] { 2.0, 3.0 }, thing.realValues("test-real"), 0.0);
+        Assert.assertTrue(thing.value("test-real").contains(2.0));
+        Assert.assertEquals(0, thing.realValues("test-real-unknown").length);
+    }
+
+    @Test
+    public void testListenersToldOfRealValuesAndActualRemovals() {
+        final var thing = new ThingImpl("test-listened");
+        final List<String> events = new ArrayList<>();
+        final PredicateListener listener = new PredicateListener() {
+            @Override
+            public void valueAdded(final HqdmObject object, final int predicateId, final Object value) {
+                if (object == thing) {
+                    events.add("+" + value);
+                }
+            }
+
+            @Override
+            public void valueRemoved(final HqdmObject object, final int predicateId, final Object value) {
+                if (object == thing) {
+                    events.add("-" + value);
+                }
+            }
+        };
+        HqdmObject.addPredicateListener(listener);
+        try {
+            thing.addRealValue("test-real", 2.5);
+            thing.addValue("test-predicate", "test-value");
+            thing.removeValue("test-predicate", "test-absent");
+            thing.removeValue("test-predicate", "test-value");
+            thing.removeValue("test-predicate", "test-value");
+        } finally {
+            HqdmObject.removePredicateListener(listener);
+        }
+
+        Assert.assertEquals(List.of("+2.5", "+test-value", "-test-value"), events);
+    }
+
+    @Test
+    public void testFreeze() {
+        final var thing = new ThingImpl("test");
+        thing.addValue("test-predicate", "test-value-1");
+        thing.addValue("test-predicate", "test-value-2");
+        thing.addStringValue("test-name", "name");
+        thing.addRealValue("test-real", 1.5);
+        final var before = thing.getPredicates().toString();
+
+        thing.freeze();
+
+        // The frozen object reads the same as before.
+        Assert.assertTrue(thing.isFrozen());
+        Assert.assertEquals(before, thing.getPredicates().toString());
+        Assert.assertTrue(thing.hasThisValue("test-predicate", "test-value-2"));
+        Assert.assertTrue(thing.hasThisStringValueIgnoreCase("test-name", "NAME"));
+        Assert.assertArrayEquals(new double[] { 1.5 }, thing.realValues("test-real"), 0.0);
+        Assert.assertFalse(thing.hasValue("test-predicate-unknown"));
+    }
+
+    @Test(expected = HqdmException.class)
+    public void testFrozenObjectRejectsAddValue() {
+        final var thing = new ThingImpl("test");
+        thing.freeze();
+
+        thing.addValue("test-predicate", "test-value");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFrozenValuesAreReadOnly() {
+        final var thing = new ThingImpl("test");
+        thing.addValue("test-predicate", "test-value");
+        thing.freeze();
+
+        thing.value("test-predicate").add("test-value-2");
+    }
+
+    @Test
+    public void testCaseInsensitiveMatchesIgnoreDefaultLocale() {
+        final var defaultLocale = Locale.getDefault();
+        try {
+            // Under the Turkish locale "TITLE".toLowerCase() would give a dotless i.
+            Locale.setDefault(new Locale("tr", "TR"));
+            final var thing = new ThingImpl("test");
+            thing.addStringValue("test-name", "Title Of Thing");
+            thing.addStringValue("test-name", "title of thing");
+            thing.removeValue("test-name", "title of thing");
+
+            Assert.assertTrue(thing.hasThisStringValueIgnoreCase("test-name", "TITLE OF THING"));
+            Assert.assertTrue(thing.hasThisStringValueFuzzy("test-name", "TITLE"));
+            Assert.assertFalse(thing.hasThisStringValueFuzzy("test-name", "other"));
+
+            thing.freeze();
+            Assert.assertTrue(thing.hasThisStringValueFuzzy("test-name", "OF T"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testCaseInsensitiveMatchesInConcurrentMode() {
+        final var thing = new HqdmObject("test", StorageMode.CONCURRENT) {
+        };
+        thing.addStringValue("test-name", "Name");
+        thing.value("test-name").add("Other Name");
+
+        Assert.assertTrue(thing.hasThisStringValueIgnoreCase("test-name", "NAME"));
+        Assert.assertTrue(thing.hasThisStringValueFuzzy("test-name", "other"));
+        thing.removeValue("test-name", "Name");
+        Assert.assertFalse(thing.hasThisStringValueIgnoreCase("test-name", "name"));
+    }
+
+    @Test
+    public void testDatatypes() {
+        for (final StorageMode mode : StorageMode.values()) {
+            final var thing = new HqdmObject("test", mode) {
+            };
+            final int reference = PredicateRegistry.idOf("test-reference");
+            final int date = PredicateRegistry.idOf("test-date");
+            final int dateTime = PredicateRegistry.idOf("test-date-time");
+            final int mixed = PredicateRegistry.idOf("test-mixed");
+            final int real = PredicateRegistry.idOf("test-real");
+            thing.addValue(reference, "http://example.com/object1");
+            thing.addStringValue(date, "2021-03-04");
+            thing.addStringValue(dateTime, "2021-03-04T05:06:07.123Z");
+            thing.addStringValue(mixed, "name");
+            thing.addValue(mixed, "object2");
+            thing.addRealValue(real, 1.5);
+            thing.freeze();
+
+            Assert.assertEquals(Datatype.REFERENCE, thing.datatypeOf(reference));
+            Assert.assertEquals(Datatype.DATE, thing.datatypeOf(date));
+            Assert.assertEquals(Datatype.DATE_TIME, thing.datatypeOf(dateTime));
+            Assert.assertEquals(Datatype.UNKNOWN, thing.datatypeOf(mixed));
+            Assert.assertEquals(Datatype.REAL, thing.datatypeOf(real));
+            Assert.assertEquals(Datatype.UNKNOWN, thing.datatypeOf(PredicateRegistry.idOf("test-absent")));
+        }
+        Assert.assertEquals(Datatype.STRING, Datatype.ofLiteral("2021-03-04T05:06:07\n"));
+        Assert.assertEquals(Datatype.STRING, Datatype.ofLiteral("2021-3-04"));
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PredicateRegistry}.
+ */
+public class PredicateRegistryTest {
+
+    /**
+     * Test that registering a predicate twice returns the same ID.
+     */
+    @Test
+    public void testIdOfIsStable() {
+        final int id = PredicateRegistry.idOf("http://example.com/test#stable");
+
+        assertEquals(id, PredicateRegistry.idOf(new String("http://example.com/test#stable")));
+        assertEquals(id, PredicateRegistry.lookup("http://example.com/test#stable"));
+        assertEquals("http://example.com/test#stable", PredicateRegistry.nameOf(id));
+    }
+
+    /**
+     * Test that distinct predicates get distinct IDs.
+     */
+    @Test
+    public void testDistinctPredicates() {
+        final int first = PredicateRegistry.idOf("http://example.com/test#first");
+        final int second = PredicateRegistry.idOf("http://example.com/test#second");
+
+        assertNotEquals(first, second);
+    }
+
+    /**
+     * Test that looking up an unseen predicate does not register it.
+     */
+    @Test
+    public void testLookupUnknown() {
+        final int size = PredicateRegistry.size();
+
+        assertEquals(PredicateRegistry.UNKNOWN, PredicateRegistry.lookup("http://example.com/test#unseen"));
+        assertEquals(size, PredicateRegistry.size());
+    }
+
+    /**
+     * Test that an unknown ID is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameOfUnknownId() {
+        PredicateRegistry.nameOf(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.pojo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ValueSet}.
+ */
+public class ValueSetTest {
+
+    /**
+     * Test that the set behaves like a {@link HashSet} as it grows through each representation.
+     */
+    @Test
+    public void testGrowAndShrink() {
+        final ValueSet values = new ValueSet();
+        final Set<Object> expected = new HashSet<>();
+
+        for (int i = 0; i < ValueSet.ARRAY_MAX * 2; i++) {
+            assertTrue(values.add("value" + i));
+            assertFalse(values.add("value" + i));
+            expected.add("value" + i);
+            assertEquals(expected, values);
+            assertEquals(expected.size(), values.size());
+        }
+        for (int i = 0; i < ValueSet.ARRAY_MAX * 2; i++) {
+            assertTrue(values.remove("value" + i));
+            assertFalse(values.contains("value" + i));
+            expected.remove("value" + i);
+            assertEquals(expected, values);
+        }
+        assertTrue(values.isEmpty());
+    }
+
+    /**
+     * Test that small sets iterate in the same order as a {@link HashSet}.
+     */
+    @Test
+    public void testSmallSetOrder() {
+        final ValueSet values = new ValueSet();
+        final Set<Object> expected = new HashSet<>();
+
+        for (int i = 0; i < ValueSet.ARRAY_MAX; i++) {
+            values.add("http://www.semanticweb.org/hqdm#value" + i);
+            expected.add("http://www.semanticweb.org/hqdm#value" + i);
+            assertEquals(new ArrayList<>(expected), new ArrayList<>(values));
+        }
+    }
+
+    /**
+     * Test removing values through the iterator.
+     */
+    @Test
+    public void testIteratorRemove() {
+        final ValueSet values = new ValueSet(List.of("a", "b", "c"));
+
+        final Iterator<Object> iterator = values.iterator();
+        while (iterator.hasNext()) {
+            if (!"b".equals(iterator.next())) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(Set.of("b"), values);
+    }
+
+    /**
+     * Test that real values are held unboxed and still behave as a set of {@link Double}s.
+     */
+    @Test
+    public void testRealValues() {
+        final ValueSet values = new ValueSet();
+
+        assertTrue(values.addReal(1.5));
+        assertFalse(values.addReal(1.5));
+        assertTrue(values.add(2.5));
+        assertTrue(values.contains(1.5));
+        assertEquals(Set.of(1.5, 2.5), values);
+        assertArrayEquals(new double[] { 1.5, 2.5 }, values.realValues(), 0.0);
+
+        // Adding a non-real value boxes the reals but keeps them readable.
+        assertTrue(values.add("text"));
+        assertEquals(Set.of(1.5, 2.5, "text"), values);
+        assertArrayEquals(new double[] { 1.5, 2.5 }, sorted(values.realValues()), 0.0);
+    }
+
+    /**
+     * Test that a large number of reals switches to a hash set.
+     */
+    @Test
+    public void testManyRealValues() {
+        final ValueSet values = new ValueSet();
+
+        for (int i = 0; i <= ValueSet.REAL_ARRAY_MAX; i++) {
+            assertTrue(values.addReal(i));
+        }
+        assertEquals(ValueSet.REAL_ARRAY_MAX + 1, values.size());
+        assertEquals(ValueSet.REAL_ARRAY_MAX + 1, values.realValues().length);
+        assertTrue(values.remove((double) ValueSet.REAL_ARRAY_MAX));
+        assertFalse(values.contains((double) ValueSet.REAL_ARRAY_MAX));
+    }
+
+    private static double[] sorted(final double[] values) {
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Test that the folded forms used for case-insensitive matching follow additions and removals.
+     */
+    @Test
+    public void testFoldedMatches() {
+        final ValueSet values = new ValueSet();
+        for (int i = 0; i < ValueSet.ARRAY_MAX * 2; i++) {
+            values.add("Value" + i);
+        }
+        values.add("VALUE0");
+        values.add(1.5);
+
+        assertTrue(values.matchesFolded("value0", false));
+        assertTrue(values.matchesFolded("lue15", true));
+        assertFalse(values.matchesFolded("1.5", true));
+
+        values.remove("Value0");
+        assertTrue(values.matchesFolded("value0", false));
+        values.removeIf("VALUE0"::equals);
+        assertFalse(values.matchesFolded("value0", false));
+
+        values.removeIf(value -> !"Value3".equals(value));
+        assertTrue(values.matchesFolded("value3", false));
+        assertFalse(values.matchesFolded("value4", false));
+        values.clear();
+        assertFalse(values.matchesFolded("value", true));
+    }
+}
@@ -16,13 +16,25 @@ package uk.gov.gchq.hqdm.services;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
+import uk.gov.gchq.hqdm.exception.HqdmException;
 import uk.gov.gchq.hqdm.model.Participant;
 import uk.gov.gchq.hqdm.model.Party;
 import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
 
 /**
  * Test creation of dynamic objects.
@@ -46,6 +58,41 @@ public class DynamicObjectsTest {
         assertEquals("person1", person.getId());
     }
 
+    /**
+     * Test that the order of the interfaces and any repeats do not change the generated class.
+     */
+    @Test
+    public void testCreateInterfaceOrder() {
+        final Person first = DynamicObjects.create("person1", Person.class,
+                new Class[] { Person.class, Participant.class });
+        final Person second = DynamicObjects.create("person2", Person.class,
+                new Class[] { Participant.class, Person.class, Participant.class });
+
+        assertSame(first.getClass(), second.getClass());
+    }
+
+    /**
+     * Test that interface sets are cached in canonical form, and that the overflow function is used
+     * once the cache is full.
+     */
+    @Test
+    public void testInterfaceSetCache() {
+        final List<List<Class<?>>> resolved = new ArrayList<>();
+        final InterfaceSetCache<String> cache = new InterfaceSetCache<>(3, interfaces -> {
+            resolved.add(List.of(interfaces));
+            return "resolved";
+        }, interfaces -> "overflow");
+
+        assertEquals("resolved", cache.get(new Class<?>[] { Person.class, Party.class }));
+        assertEquals("resolved", cache.get(new Class<?>[] { Party.class, Person.class, Party.class }));
+        assertEquals(List.of(List.of(Party.class, Person.class)), resolved);
+        assertEquals(3, cache.size());
+
+        assertEquals("overflow", cache.get(new Class<?>[] { Participant.class }));
+        assertEquals("resolved", cache.get(new Class<?>[] { Person.class, Party.class, Person.class }));
+        assertEquals(1, resolved.size());
+    }
+
     /**
      * Test that we can add an interface to an existing object.
      */
@@ -71,4 +118,95 @@ public class DynamicObjectsTest {
         assertTrue(person2 instanceof Party);
         assertEquals("person1", person2.getId());
     }
+
+    /**
+     * Test that proxies for the same interfaces share a class, and that calls reach the target
+     * object, including exceptions and {@link Object} methods.
+     */
+    @Test
+    public void testProxyClassIsShared() {
+        final Class<Thing>[] interfaces = new Class[] { Person.class, Participant.class };
+        final Person person1 = DynamicObjects.create("person1", Person.class, interfaces);
+        final Person person2 = DynamicObjects.create("person2", Person.class, interfaces.clone());
+
+        assertSame(person1.getClass(), person2.getClass());
+        assertEquals("person2", person2.getId());
+        assertNotEquals(person1.hashCode(), person2.hashCode());
+
+        person1.freeze();
+        try {
+            person1.addValue("test-predicate", "test-value");
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that created objects are plain {@link HqdmObject} subclasses rather than proxies, with one
+     * class per distinct set of interfaces.
+     */
+    @Test
+    public void testCreateGeneratesClass() {
+        final Person person = DynamicObjects.create("person1", Person.class,
+                new Class[] { Person.class, Participant.class, Person.class });
+        final Person other = DynamicObjects.create("person2", Person.class, new Class[] { Person.class, Party.class });
+
+        assertTrue(person instanceof HqdmObject);
+        assertTrue(person instanceof Participant);
+        assertFalse(java.lang.reflect.Proxy.isProxyClass(person.getClass()));
+        assertNotSame(person.getClass(), other.getClass());
+
+        final Map<Thing, String> map = new HashMap<>();
+        map.put(person, "person1");
+        person.addStringValue("test-predicate", "test-value");
+        assertEquals("person1", map.get(person));
+        assertTrue(person.hasThisStringValue("test-predicate", "test-value"));
+        assertTrue(person.toString().contains("test-value"));
+    }
+
+    /**
+     * Test that reclassifying an object keeps its identity and storage, and never nests proxies.
+     */
+    @Test
+    public void testReclassify() {
+        final Person person = SpatioTemporalExtentServices.createPerson("person1");
+        person.addStringValue("test-predicate", "before");
+
+        final Participant participant = DynamicObjects.addTypes(person, Participant.class,
+                new Class[] { Participant.class });
+        assertTrue(participant instanceof Person);
+        assertTrue(participant instanceof Party);
+        assertFalse(java.lang.reflect.Proxy.isProxyClass(participant.getClass()));
+        assertEquals(person, participant);
+        assertEquals(person.hashCode(), participant.hashCode());
+        assertTrue(participant.hasThisStringValue("test-predicate", "before"));
+
+        final Map<Thing, String> map = new HashMap<>();
+        map.put(person, "person1");
+        participant.addStringValue("test-predicate", "after");
+        assertTrue(person.hasThisStringValue("test-predicate", "after"));
+        assertEquals("person1", map.get(participant));
+
+        Thing thing = participant;
+        for (int i = 0; i < 10; i++) {
+            thing = DynamicObjects.removeTypes(thing, Thing.class, new Class[] { Person.class });
+            assertFalse(thing instanceof Person);
+            thing = DynamicObjects.addTypes(thing, Thing.class, new Class[] { Person.class });
+        }
+        assertTrue(thing instanceof Person);
+        assertTrue(thing instanceof Participant);
+        assertEquals(List.of(Participant.class, Person.class), List.copyOf(DynamicObjects.typesOf(thing)));
+        assertSame(participant.getClass().getSuperclass(), thing.getClass().getSuperclass());
+        assertEquals(person, thing);
+
+        thing.freeze();
+        assertTrue(person.isFrozen());
+        try {
+            person.setId("person2");
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.KindOfPerson;
+import uk.gov.gchq.hqdm.model.Thing;
+
+/**
+ * Tests for the {@link ReferenceDataRegistry}.
+ */
+public class ReferenceDataRegistryTest {
+
+    /**
+     * Test that repeated requests for an IRI return one frozen instance.
+     */
+    @Test
+    public void testGetSharesInstance() {
+        final ReferenceDataRegistry registry = new ReferenceDataRegistry();
+
+        final KindOfPerson first = registry.get("kind1", ClassServices::createKindOfPerson);
+        final KindOfPerson second = registry.get("kind1", ClassServices::createKindOfPerson);
+
+        assertSame(first, second);
+        assertTrue(first.isFrozen());
+        assertEquals(1, registry.size());
+        assertEquals(1L, registry.getHits());
+        assertEquals(1L, registry.getMisses());
+        assertEquals(0.5, registry.getHitRate(), 0.0);
+
+        try {
+            first.addStringValue("name", "changed");
+            fail("Expected a HqdmException");
+        } catch (final HqdmException e) {
+            // Expected: shared instances are frozen.
+        }
+
+        registry.resetStatistics();
+        assertEquals(0L, registry.getHits());
+        assertEquals(0.0, registry.getHitRate(), 0.0);
+    }
+
+    /**
+     * Test that when several threads ask for a new IRI at once, only the one that creates the object
+     * counts a miss.
+     *
+     * @throws InterruptedException If the test is interrupted.
+     */
+    @Test
+    public void testConcurrentGetCountsOneMiss() throws InterruptedException {
+        final ReferenceDataRegistry registry = new ReferenceDataRegistry();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        // Distinct instances, since HQDM objects with the same ID are equal.
+        final Set<KindOfPerson> results = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<>()));
+        final List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                results.add(registry.get("kind1", ClassServices::createKindOfPerson));
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(1, results.size());
+        assertEquals(1L, registry.getMisses());
+        assertEquals(threads - 1, registry.getHits());
+    }
+
+    /**
+     * Test that publishing keeps the first instance for each IRI.
+     */
+    @Test
+    public void testPreload() {
+        final ReferenceDataRegistry registry = new ReferenceDataRegistry();
+        final KindOfPerson kind = ClassServices.createKindOfPerson("kind1");
+        kind.addStringValue("name", "kind of person");
+        final KindOfPerson duplicate = ClassServices.createKindOfPerson("kind1");
+
+        assertEquals(1, registry.preload(List.<Thing>of(kind, duplicate)));
+        assertTrue(kind.isFrozen());
+        assertSame(kind, registry.lookup("kind1"));
+        assertSame(kind, registry.get("kind1", ClassServices::createKindOfPerson));
+        assertNotSame(duplicate, registry.publish(duplicate));
+        assertNull(registry.lookup("kind2"));
+        assertEquals(2L, registry.getHits());
+        assertEquals(1L, registry.getMisses());
+    }
+}
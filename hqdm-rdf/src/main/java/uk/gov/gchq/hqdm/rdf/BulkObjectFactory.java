@@ -0,0 +1,289 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.util.MappedNtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+
+/**
+ * Builds HQDM Java objects from a sequence of RDF triples grouped by subject.
+ *
+ * <p>
+ * Triples are passed one at a time as subject, predicate and object strings, or a
+ * {@link TripleBatch} at a time, with all the triples of a subject next to each other. When the
+ * subject changes, the triples of the previous subject are built into a {@link Thing} exactly as
+ * {@link HqdmObjectFactory#create(String, java.util.List)} would build them, but without a list of
+ * pairs per subject. The buffers holding a subject's values are reused for the next.
+ * </p>
+ *
+ * <p>
+ * By default a subject that cannot be built fails with a {@link HqdmException}. A factory constructed
+ * with an error sink instead reports such subjects as {@link IngestError}s, skips them and carries on,
+ * which avoids the cost of an exception per bad record on dirty input.
+ * </p>
+ *
+ * <p>
+ * A {@code BulkObjectFactory} is not thread-safe; use one per thread or per input.
+ * </p>
+ */
+public final class BulkObjectFactory {
+
+    private final SubjectBuffer buffer = new SubjectBuffer();
+
+    private final Consumer<? super IngestError> errors;
+
+    private final long[] errorCounts = new long[IngestError.Reason.values().length];
+
+    private long objectCount;
+
+    private long tripleCount;
+
+    /**
+     * Constructs a new {@code BulkObjectFactory} that throws a {@link HqdmException} for a subject
+     * that cannot be built.
+     */
+    public BulkObjectFactory() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new {@code BulkObjectFactory} that reports subjects that cannot be built to a sink
+     * and carries on. No exception is created for them, and they are left out of the results.
+     *
+     * @param errors Consumer of the {@link IngestError}s, or {@code null} to throw exceptions instead.
+     */
+    public BulkObjectFactory(final Consumer<? super IngestError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Add a triple.
+     *
+     * @param subject   Subject IRI.
+     * @param predicate Predicate IRI.
+     * @param object    Object IRI or literal value.
+     * @return The {@link Thing} built from the previous subject if this triple starts a new one,
+     *         otherwise {@code null}.
+     * @throws HqdmException If the previous subject could not be built. This triple is still added.
+     */
+    public Thing add(final String subject, final String predicate, final String object) throws HqdmException {
+        final int predicateId = PredicateRegistry.idOf(predicate);
+        return add(subject, predicateId, object, !object.startsWith("http"));
+    }
+
+    /**
+     * Add a triple with a predicate ID, stating whether its object is a literal.
+     *
+     * @param subject     Subject IRI.
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param object      Object IRI or literal value.
+     * @param literal     {@code true} if the object is a literal value, {@code false} if it is an IRI.
+     * @return The {@link Thing} built from the previous subject if this triple starts a new one,
+     *         otherwise {@code null}.
+     * @throws HqdmException If the previous subject could not be built. This triple is still added.
+     */
+    public Thing add(final String subject, final int predicateId, final String object, final boolean literal)
+            throws HqdmException {
+        if (subject.equals(buffer.getSubject())) {
+            buffer.add(predicateId, object, literal);
+            tripleCount++;
+            return null;
+        }
+        // Keep this triple even if the previous subject cannot be built.
+        try {
+            return flush();
+        } finally {
+            buffer.reset(subject);
+            buffer.add(predicateId, object, literal);
+            tripleCount++;
+        }
+    }
+
+    /**
+     * Add every triple of a batch, passing each object built to a sink. The last subject of the batch
+     * is not built until the first triple of another subject is added or {@link #flush()} is called,
+     * so a subject may span batches.
+     *
+     * @param batch The {@link TripleBatch}.
+     * @param sink  Consumer of the objects built.
+     * @throws HqdmException If a subject could not be built.
+     */
+    public void addAll(final TripleBatch batch, final Consumer<? super Thing> sink) throws HqdmException {
+        for (int i = 0; i < batch.size(); i++) {
+            final Thing thing = add(batch.getSubject(i), batch.getPredicateId(i), batch.getObject(i),
+                    batch.isLiteral(i));
+            if (thing != null) {
+                sink.accept(thing);
+            }
+        }
+    }
+
+    /**
+     * Build the current subject, if there is one. Call this after the last triple.
+     *
+     * @return The {@link Thing} built from the current subject, or {@code null} if there is none.
+     * @throws HqdmException If the subject could not be built.
+     */
+    public Thing flush() throws HqdmException {
+        if (buffer.getSubject() == null) {
+            return null;
+        }
+        try {
+            if (errors != null) {
+                final IngestError.Reason reason = buffer.validate();
+                if (reason != null) {
+                    errorCounts[reason.ordinal()]++;
+                    errors.accept(buffer.error(reason));
+                    return null;
+                }
+            }
+            final Thing thing = HqdmObjectFactory.create(buffer);
+            objectCount++;
+            return thing;
+        } finally {
+            buffer.reset(null);
+        }
+    }
+
+    /**
+     * Report a line of input that could not be parsed as a triple, so that the load can skip it and
+     * carry on, as the consumer of
+     * {@link MappedNtriplesReader#read(TripleBatch, int, java.util.function.ObjLongConsumer)}.
+     *
+     * @param error  Why the line is not a valid triple.
+     * @param offset File offset at which the error was found.
+     * @throws HqdmException If there is no error sink.
+     */
+    public void reportInvalidLine(final MappedNtriplesReader.LineError error, final long offset)
+            throws HqdmException {
+        if (errors == null) {
+            throw new HqdmException(error.message(offset));
+        }
+        errorCounts[IngestError.Reason.INVALID_LINE.ordinal()]++;
+        errors.accept(new IngestError(null, IngestError.Reason.INVALID_LINE,
+                error.getDescription() + " at byte " + offset));
+    }
+
+    /**
+     * Lazily build objects from triples grouped by subject. Each object is built once the first
+     * triple of the next subject, or the end of the input, has been read.
+     *
+     * @param <T>       Type of the triples.
+     * @param triples   Iterator of triples.
+     * @param subject   Function to get the subject IRI of a triple.
+     * @param predicate Function to get the predicate IRI of a triple.
+     * @param object    Function to get the object of a triple.
+     * @return Iterator of {@link Thing}.
+     */
+    public <T> Iterator<Thing> create(final Iterator<? extends T> triples,
+            final Function<? super T, String> subject, final Function<? super T, String> predicate,
+            final Function<? super T, String> object) {
+        return new Iterator<>() {
+            private Thing next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && triples.hasNext()) {
+                    final T triple = triples.next();
+                    next = add(subject.apply(triple), predicate.apply(triple), object.apply(triple));
+                }
+                if (next == null) {
+                    next = flush();
+                }
+                return next != null;
+            }
+
+            @Override
+            public Thing next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Thing result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Lazily build objects from a sequential stream of triples grouped by subject.
+     *
+     * @param <T>       Type of the triples.
+     * @param triples   Stream of triples.
+     * @param subject   Function to get the subject IRI of a triple.
+     * @param predicate Function to get the predicate IRI of a triple.
+     * @param object    Function to get the object of a triple.
+     * @return Stream of {@link Thing}.
+     */
+    public <T> Stream<Thing> create(final Stream<? extends T> triples, final Function<? super T, String> subject,
+            final Function<? super T, String> predicate, final Function<? super T, String> object) {
+        final Iterator<Thing> things = create(triples.sequential().iterator(), subject, predicate, object);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(things, Spliterator.ORDERED), false)
+                .onClose(triples::close);
+    }
+
+    /**
+     * The number of objects built so far.
+     *
+     * @return Number of objects.
+     */
+    public long getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * The number of subjects reported as errors so far.
+     *
+     * @return Number of errors.
+     */
+    public long getErrorCount() {
+        long count = 0;
+        for (final long reasonCount : errorCounts) {
+            count += reasonCount;
+        }
+        return count;
+    }
+
+    /**
+     * The number of subjects reported as errors so far for a reason.
+     *
+     * @param reason The {@link IngestError.Reason}.
+     * @return Number of errors.
+     */
+    public long getErrorCount(final IngestError.Reason reason) {
+        return errorCounts[reason.ordinal()];
+    }
+
+    /**
+     * The number of triples added so far.
+     *
+     * @return Number of triples.
+     */
+    public long getTripleCount() {
+        return tripleCount;
+    }
+}
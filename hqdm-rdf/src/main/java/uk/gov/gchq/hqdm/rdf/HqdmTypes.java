@@ -0,0 +1,384 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.HqdmIri;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.services.ClassServices;
+import uk.gov.gchq.hqdm.services.RelationshipServices;
+import uk.gov.gchq.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Registry of the HQDM entity types, giving for each its {@link HqdmIri}, model interface and the
+ * service method that creates an instance.
+ *
+ * <p>
+ * Types are looked up by their resource name, or by the identity of a {@link HqdmIri} such as an
+ * {@link HQDM} constant, which costs a single {@link IdentityHashMap} probe once that IRI has been
+ * looked up. A name can also be looked up where it ends a longer string, such as the IRI of the
+ * type, without copying it out. Each type is resolved the first time it is asked for, and then
+ * cached, so a program that creates objects of a few types only loads those model interfaces and
+ * links those service methods. Nothing here needs the {@link HQDM} constants, which are only loaded
+ * if {@link HqdmType#getIri()} is called.
+ * </p>
+ */
+final class HqdmTypes {
+
+    /** The HQDM namespace, the same as that of {@link HQDM#HQDM} but without loading {@link HQDM}. */
+    static final String NAMESPACE = "http://www.semanticweb.org/hqdm#";
+
+    private static final String[] NAMES = {
+        "abstract_object", "acceptance_of_offer", "acceptance_of_offer_for_goods", "activity", "aggregation",
+        "agree_contract", "agreement_execution", "agreement_process", "amount_of_money", "asset", "association",
+        "beginning_of_ownership", "biological_object", "biological_system", "biological_system_component", "class",
+        "classification", "class_of_abstract_object", "class_of_activity", "class_of_agree_contract",
+        "class_of_agreement_execution", "class_of_agreement_process", "class_of_amount_of_money",
+        "class_of_association", "class_of_biological_object", "class_of_biological_system",
+        "class_of_biological_system_component", "class_of_class", "class_of_class_of_spatio_temporal_extent",
+        "class_of_contract_execution", "class_of_contract_process", "class_of_event", "class_of_functional_object",
+        "class_of_functional_system", "class_of_functional_system_component", "class_of_individual",
+        "class_of_in_place_biological_component", "class_of_installed_functional_system_component",
+        "class_of_installed_object", "class_of_intentionally_constructed_object", "class_of_offer",
+        "class_of_ordinary_biological_object", "class_of_ordinary_functional_object",
+        "class_of_ordinary_physical_object", "class_of_organization", "class_of_organization_component",
+        "class_of_participant", "class_of_party", "class_of_period_of_time", "class_of_person",
+        "class_of_person_in_position", "class_of_physical_object", "class_of_physical_property",
+        "class_of_physical_quantity", "class_of_point_in_time", "class_of_position", "class_of_possible_world",
+        "class_of_reaching_agreement", "class_of_relationship", "class_of_representation",
+        "class_of_sales_product_instance", "class_of_sign", "class_of_socially_constructed_activity",
+        "class_of_socially_constructed_object", "class_of_spatio_temporal_extent", "class_of_state",
+        "class_of_state_of_activity", "class_of_state_of_amount_of_money", "class_of_state_of_association",
+        "class_of_state_of_biological_object", "class_of_state_of_biological_system",
+        "class_of_state_of_biological_system_component", "class_of_state_of_functional_object",
+        "class_of_state_of_functional_system", "class_of_state_of_functional_system_component",
+        "class_of_state_of_intentionally_constructed_object", "class_of_state_of_ordinary_biological_object",
+        "class_of_state_of_ordinary_functional_object", "class_of_state_of_ordinary_physical_object",
+        "class_of_state_of_organization", "class_of_state_of_organization_component", "class_of_state_of_party",
+        "class_of_state_of_person", "class_of_state_of_physical_object", "class_of_state_of_position",
+        "class_of_state_of_sales_product_instance", "class_of_state_of_sign",
+        "class_of_state_of_socially_constructed_activity", "class_of_state_of_socially_constructed_object",
+        "class_of_state_of_system", "class_of_state_of_system_component", "class_of_system",
+        "class_of_system_component", "composition", "contract_execution", "contract_process", "currency",
+        "defined_relationship", "definition", "description", "employee", "employer", "employment",
+        "ending_of_ownership", "enumerated_class", "event", "exchange_of_goods_and_money", "function_",
+        "functional_object", "functional_system", "functional_system_component", "identification",
+        "identification_of_physical_quantity", "individual", "in_place_biological_component",
+        "installed_functional_system_component", "installed_object", "intentionally_constructed_object",
+        "kind_of_activity", "kind_of_association", "kind_of_biological_object", "kind_of_biological_system",
+        "kind_of_biological_system_component", "kind_of_functional_object", "kind_of_functional_system",
+        "kind_of_functional_system_component", "kind_of_individual", "kind_of_intentionally_constructed_object",
+        "kind_of_ordinary_biological_object", "kind_of_ordinary_functional_object", "kind_of_ordinary_physical_object",
+        "kind_of_organization", "kind_of_organization_component", "kind_of_party", "kind_of_person",
+        "kind_of_physical_object", "kind_of_physical_property", "kind_of_physical_quantity", "kind_of_position",
+        "kind_of_relationship_with_restriction", "kind_of_relationship_with_signature",
+        "kind_of_socially_constructed_object", "kind_of_system", "kind_of_system_component", "language_community",
+        "money_asset", "offer", "offer_and_acceptance_for_goods", "offer_for_goods", "offering",
+        "ordinary_biological_object", "ordinary_functional_object", "ordinary_physical_object", "organization",
+        "organization_component", "owner", "ownership", "participant", "party", "pattern", "period_of_time", "person",
+        "person_in_position", "physical_object", "physical_property", "physical_property_range", "physical_quantity",
+        "physical_quantity_range", "plan", "point_in_time", "position", "possible_world", "price", "product_brand",
+        "product_offering", "reaching_agreement", "recognizing_language_community", "relationship",
+        "representation_by_pattern", "representation_by_sign", "requirement", "requirement_specification", "role",
+        "sale_of_goods", "sales_product", "sales_product_instance", "sales_product_version", "scale", "sign",
+        "socially_constructed_activity", "socially_constructed_object", "spatio_temporal_extent", "specialization",
+        "state", "state_of_activity", "state_of_amount_of_money", "state_of_association", "state_of_biological_object",
+        "state_of_biological_system", "state_of_biological_system_component", "state_of_functional_object",
+        "state_of_functional_system", "state_of_functional_system_component",
+        "state_of_intentionally_constructed_object", "state_of_language_community",
+        "state_of_ordinary_biological_object", "state_of_ordinary_functional_object",
+        "state_of_ordinary_physical_object", "state_of_organization", "state_of_organization_component",
+        "state_of_party", "state_of_person", "state_of_physical_object", "state_of_position",
+        "state_of_sales_product_instance", "state_of_sign", "state_of_socially_constructed_activity",
+        "state_of_socially_constructed_object", "state_of_system", "state_of_system_component", "system",
+        "system_component", "temporal_composition", "thing", "transferee", "transfer_of_ownership",
+        "transfer_of_ownership_of_money", "transferor", "unit_of_measure" };
+
+    // Open-addressed table of the index in NAMES of each name plus one, placed by the hash of the name.
+    private static final int[] SLOTS = new int[Integer.highestOneBit(NAMES.length * 2) * 2];
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            int slot = slot(NAMES[i].hashCode());
+            while (SLOTS[slot] != 0) {
+                slot = (slot + 1) & (SLOTS.length - 1);
+            }
+            SLOTS[slot] = i + 1;
+        }
+    }
+
+    // The type of each name in NAMES, once resolved.
+    private static final AtomicReferenceArray<HqdmType> RESOLVED = new AtomicReferenceArray<>(NAMES.length);
+
+    private static final String MODEL_PACKAGE = Thing.class.getPackageName() + ".";
+
+    /** The services with a method to create each type, by the convention in {@link #resolve(String)}. */
+    private static final java.lang.Class<?>[] SERVICES = {
+        SpatioTemporalExtentServices.class, ClassServices.class, RelationshipServices.class };
+
+    /** Room in the identity cache for every type's {@link HQDM} constant and as many other IRIs. */
+    private static final int MAX_BY_IRI = NAMES.length * 2;
+
+    // Types of the HqdmIri instances looked up, by identity. Copied on write, so it is read without a
+    // lock and never modified once published.
+    private static volatile Map<IRI, HqdmType> byIri = new IdentityHashMap<>();
+
+    private HqdmTypes() {
+    }
+
+    /**
+     * Get a type by its IRI.
+     *
+     * @param iri IRI of the type.
+     * @return The {@link HqdmType}, or {@code null} if the IRI does not name a HQDM type.
+     */
+    static HqdmType of(final IRI iri) {
+        final HqdmType cached = byIri.get(iri);
+        if (cached != null) {
+            return cached;
+        }
+        final HqdmType type = of(iri.getResource());
+        if (type != null && iri instanceof HqdmIri) {
+            remember(iri, type);
+        }
+        return type;
+    }
+
+    /**
+     * Get a type by its resource name.
+     *
+     * @param name The HQDM type name, e.g. spatio_temporal_extent.
+     * @return The {@link HqdmType}, or {@code null} if the name is not a HQDM type.
+     */
+    static HqdmType of(final String name) {
+        return of(name, 0);
+    }
+
+    /**
+     * Get a type by the resource name at the end of a string, such as the IRI of the type, without
+     * copying the name out of it.
+     *
+     * @param iri    String ending with the HQDM type name.
+     * @param offset Index in the string of the start of the name.
+     * @return The {@link HqdmType}, or {@code null} if the name is not a HQDM type.
+     */
+    static HqdmType of(final String iri, final int offset) {
+        int hash = 0;
+        for (int i = offset; i < iri.length(); i++) {
+            hash = 31 * hash + iri.charAt(i);
+        }
+        final int length = iri.length() - offset;
+        for (int slot = slot(hash); SLOTS[slot] != 0; slot = (slot + 1) & (SLOTS.length - 1)) {
+            final int index = SLOTS[slot] - 1;
+            final String name = NAMES[index];
+            if (name.length() == length && iri.startsWith(name, offset)) {
+                final HqdmType type = RESOLVED.get(index);
+                if (type != null) {
+                    return type;
+                }
+                RESOLVED.compareAndSet(index, null, resolve(name));
+                return RESOLVED.get(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get a type by its model interface. The first call resolves every type.
+     *
+     * @param modelInterface The model interface, e.g. {@link uk.gov.gchq.hqdm.model.Person}.
+     * @return The {@link HqdmType}, or {@code null} if the interface is not that of a HQDM type.
+     */
+    static HqdmType of(final java.lang.Class<?> modelInterface) {
+        return ByInterface.TYPES.get(modelInterface);
+    }
+
+    /**
+     * All the types, resolving any that have not been used yet.
+     *
+     * @return Unmodifiable collection of types.
+     */
+    static Collection<HqdmType> values() {
+        return Arrays.stream(NAMES).map(HqdmTypes::of).collect(Collectors.toUnmodifiableList());
+    }
+
+    private static int slot(final int hash) {
+        return (hash ^ hash >>> 16) & (SLOTS.length - 1);
+    }
+
+    /**
+     * Add a type to the identity cache, unless it is full.
+     */
+    private static synchronized void remember(final IRI iri, final HqdmType type) {
+        if (byIri.size() < MAX_BY_IRI && !byIri.containsKey(iri)) {
+            final Map<IRI, HqdmType> updated = new IdentityHashMap<>(byIri);
+            updated.put(iri, type);
+            byIri = updated;
+        }
+    }
+
+    /**
+     * Create the entry for a type. The model interface and service method are found by the naming
+     * convention of the HQDM types: the type {@code class_of_person} has the model interface
+     * {@code ClassOfPerson}, created by a {@code createClassOfPerson} method of one of the services.
+     * Only that interface is loaded and only that method is linked.
+     *
+     * @param name One of the HQDM type names.
+     * @return The {@link HqdmType}.
+     */
+    private static HqdmType resolve(final String name) {
+        final StringBuilder camelCase = new StringBuilder(name.length());
+        for (final String word : name.split("_")) {
+            camelCase.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        try {
+            final java.lang.Class<? extends Thing> modelInterface = java.lang.Class
+                    .forName(MODEL_PACKAGE + camelCase + (name.endsWith("_") ? "_" : ""), false,
+                            Thing.class.getClassLoader())
+                    .asSubclass(Thing.class);
+            return new HqdmType(name, modelInterface, factory("create" + camelCase));
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException("No model interface for HQDM type " + name, e);
+        }
+    }
+
+    /**
+     * Find the service method with a name and bind it to a {@link Function}, as a method reference
+     * to it would be.
+     *
+     * @return The function, or {@code null} if no service has the method.
+     */
+    private static Function<String, ? extends Thing> factory(final String methodName) {
+        for (final java.lang.Class<?> services : SERVICES) {
+            final Method method;
+            try {
+                method = services.getMethod(methodName, String.class);
+            } catch (final NoSuchMethodException e) {
+                continue;
+            }
+            try {
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                return (Function<String, ? extends Thing>) LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                        lookup.unreflect(method), MethodType.methodType(method.getReturnType(), String.class))
+                        .getTarget().invokeExact();
+            } catch (final Throwable e) {
+                throw new IllegalStateException("Cannot link " + services.getSimpleName() + "." + methodName, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The types by model interface, built when first needed.
+     */
+    private static final class ByInterface {
+
+        private static final Map<java.lang.Class<?>, HqdmType> TYPES = values().stream()
+                .collect(Collectors.toUnmodifiableMap(HqdmType::getModelInterface, Function.identity()));
+    }
+
+    /**
+     * A HQDM entity type.
+     */
+    static final class HqdmType {
+
+        private final String name;
+
+        private final java.lang.Class<? extends Thing> modelInterface;
+
+        private final Function<String, ? extends Thing> factory;
+
+        // Built when first asked for.
+        private volatile HqdmIri iri;
+
+        HqdmType(final String name, final java.lang.Class<? extends Thing> modelInterface,
+                final Function<String, ? extends Thing> factory) {
+            this.name = name;
+            this.modelInterface = modelInterface;
+            this.factory = factory;
+        }
+
+        /**
+         * The resource name of the type.
+         *
+         * @return The HQDM type name, e.g. spatio_temporal_extent.
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * The IRI of the type.
+         *
+         * @return {@link HqdmIri} of the type.
+         */
+        HqdmIri getIri() {
+            HqdmIri result = iri;
+            if (result == null) {
+                result = new HqdmIri(HQDM.HQDM, name);
+                iri = result;
+            }
+            return result;
+        }
+
+        /**
+         * The model interface implemented by instances of the type.
+         *
+         * @return Model interface.
+         */
+        java.lang.Class<? extends Thing> getModelInterface() {
+            return modelInterface;
+        }
+
+        /**
+         * Whether instances of the type can be created directly.
+         *
+         * @return {@code true} if {@link #create(String)} can create instances.
+         */
+        boolean isCreatable() {
+            return factory != null;
+        }
+
+        /**
+         * Create an instance of the type.
+         *
+         * @param id ID of the new object.
+         * @return The new object.
+         * @throws HqdmException If the type cannot be instantiated directly.
+         */
+        Thing create(final String id) throws HqdmException {
+            if (factory == null) {
+                throw new HqdmException("Unknown type name: " + name);
+            }
+            return factory.apply(id);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+/**
+ * A subject that could not be built into a HQDM object, or a line that could not be parsed, during a
+ * bulk load.
+ *
+ * <p>
+ * An {@code IngestError} is a plain record of the problem, not an exception. Creating one captures no
+ * stack trace, so dirty input can be reported cheaply and the load can carry on.
+ * </p>
+ */
+public final class IngestError {
+
+    private final String subject;
+
+    private final Reason reason;
+
+    private final String value;
+
+    /**
+     * Why a subject could not be built.
+     */
+    public enum Reason {
+        /** The subject has no {@code rdf:type} in the HQDM namespace. */
+        NO_TYPE,
+
+        /** The subject's only HQDM type is not one that can be created. */
+        UNKNOWN_TYPE,
+
+        /** The subject is not a valid IRI. */
+        INVALID_IRI,
+
+        /**
+         * A line of the input is not a valid triple. There is no subject; the value describes the
+         * problem and where it is.
+         */
+        INVALID_LINE
+    }
+
+    /**
+     * Constructs a new {@code IngestError}.
+     *
+     * @param subject IRI of the subject, or {@code null} for {@link Reason#INVALID_LINE}.
+     * @param reason  Why the subject could not be built.
+     * @param value   The offending value, or {@code null} if there is none.
+     */
+    public IngestError(final String subject, final Reason reason, final String value) {
+        this.subject = subject;
+        this.reason = reason;
+        this.value = value;
+    }
+
+    /**
+     * The subject that could not be built.
+     *
+     * @return IRI of the subject, or {@code null} for {@link Reason#INVALID_LINE}.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Why the subject could not be built.
+     *
+     * @return The {@link Reason}.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * The value that caused the problem, such as an unknown type name.
+     *
+     * @return The offending value, or {@code null} if there is none.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return reason + ": " + subject + (value == null ? "" : " (" + value + ")");
+    }
+}
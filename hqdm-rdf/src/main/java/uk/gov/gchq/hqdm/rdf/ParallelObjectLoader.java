@@ -0,0 +1,480 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.util.MappedNtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+
+/**
+ * Builds HQDM Java objects from an in-memory batch of RDF triples, or from an N-Triples file, on
+ * several threads.
+ *
+ * <p>
+ * The triples must be grouped by subject, as for {@link BulkObjectFactory}. The batch is split into
+ * a few chunks per worker, each ending at a subject boundary, and every chunk is built by its own
+ * {@link BulkObjectFactory} on a {@link ForkJoinPool} or other {@link Executor}. Having more chunks
+ * than workers lets idle workers pick up the remaining chunks when subjects differ in size. A file
+ * is split in the same way by {@link MappedNtriplesReader#split(FileChannel, int)}, and each chunk
+ * parsed by its own {@link MappedNtriplesReader}.
+ * </p>
+ *
+ * <p>
+ * With {@link Order#INPUT} the results are delivered in the order of the input whatever the number
+ * of workers, at the cost of holding each chunk's objects until the chunks before it are done. With
+ * {@link Order#UNORDERED} objects are delivered as soon as they are built, from the worker threads.
+ * </p>
+ *
+ * <p>
+ * If a chunk fails, the chunks still to start are skipped and those running stop before their next
+ * object or batch of triples. The load waits for them all before it throws, so the sink is never
+ * called after the load has returned.
+ * </p>
+ *
+ * <p>
+ * The throughput of each worker thread during the last load is available from
+ * {@link #getWorkerStatistics()}. A loader may be shared, but should run one load at a time if its
+ * statistics are wanted.
+ * </p>
+ */
+public final class ParallelObjectLoader {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    private final Order order;
+
+    private final Consumer<? super IngestError> errors;
+
+    private final Map<String, WorkerStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Order in which a loader delivers the objects it builds.
+     */
+    public enum Order {
+        /** Deliver objects in the order of their subjects in the input. */
+        INPUT,
+
+        /** Deliver objects as soon as they are built, in no particular order. */
+        UNORDERED
+    }
+
+    /**
+     * Constructs a new {@code ParallelObjectLoader} using the common {@link ForkJoinPool}.
+     *
+     * @param order Order in which to deliver the objects.
+     */
+    public ParallelObjectLoader(final Order order) {
+        this(ForkJoinPool.commonPool(), order);
+    }
+
+    /**
+     * Constructs a new {@code ParallelObjectLoader} using a {@link ForkJoinPool}.
+     *
+     * @param pool  The pool to build objects on.
+     * @param order Order in which to deliver the objects.
+     */
+    public ParallelObjectLoader(final ForkJoinPool pool, final Order order) {
+        this(pool, pool.getParallelism(), order);
+    }
+
+    /**
+     * Constructs a new {@code ParallelObjectLoader} using any {@link Executor}.
+     *
+     * @param executor    The executor to build objects on.
+     * @param parallelism The number of threads the executor runs tasks on.
+     * @param order       Order in which to deliver the objects.
+     */
+    public ParallelObjectLoader(final Executor executor, final int parallelism, final Order order) {
+        this(executor, parallelism, order, null);
+    }
+
+    /**
+     * Constructs a new {@code ParallelObjectLoader} that reports subjects that cannot be built to a
+     * sink and carries on, as {@link BulkObjectFactory#BulkObjectFactory(Consumer)} does. The sink is
+     * called from the worker threads, and must be thread-safe.
+     *
+     * @param executor    The executor to build objects on.
+     * @param parallelism The number of threads the executor runs tasks on.
+     * @param order       Order in which to deliver the objects.
+     * @param errors      Consumer of the {@link IngestError}s, or {@code null} to fail the load instead.
+     */
+    public ParallelObjectLoader(final Executor executor, final int parallelism, final Order order,
+            final Consumer<? super IngestError> errors) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.order = order;
+        this.errors = errors;
+    }
+
+    /**
+     * Build objects from triples grouped by subject into a map keyed by ID. With {@link Order#INPUT}
+     * the map iterates in the order of the input.
+     *
+     * @param <T>       Type of the triples.
+     * @param triples   The triples, grouped by subject.
+     * @param subject   Function to get the subject IRI of a triple.
+     * @param predicate Function to get the predicate IRI of a triple.
+     * @param object    Function to get the object of a triple.
+     * @return Map of object IDs to objects.
+     * @throws HqdmException If any subject could not be built, unless errors are sent to a sink.
+     */
+    public <T> Map<String, Thing> load(final List<? extends T> triples, final Function<? super T, String> subject,
+            final Function<? super T, String> predicate, final Function<? super T, String> object)
+            throws HqdmException {
+        if (order == Order.INPUT) {
+            final Map<String, Thing> result = new LinkedHashMap<>();
+            load(triples, subject, predicate, object, thing -> result.put(thing.getId(), thing));
+            return result;
+        }
+        final Map<String, Thing> result = new ConcurrentHashMap<>();
+        load(triples, subject, predicate, object, thing -> result.put(thing.getId(), thing));
+        return result;
+    }
+
+    /**
+     * Build objects from triples grouped by subject and pass them to a sink. With
+     * {@link Order#UNORDERED} the sink is called from the worker threads, and must be thread-safe.
+     *
+     * @param <T>       Type of the triples.
+     * @param triples   The triples, grouped by subject.
+     * @param subject   Function to get the subject IRI of a triple.
+     * @param predicate Function to get the predicate IRI of a triple.
+     * @param object    Function to get the object of a triple.
+     * @param sink      Consumer of the objects.
+     * @throws HqdmException If any subject could not be built, unless errors are sent to a sink.
+     */
+    public <T> void load(final List<? extends T> triples, final Function<? super T, String> subject,
+            final Function<? super T, String> predicate, final Function<? super T, String> object,
+            final Consumer<? super Thing> sink) throws HqdmException {
+        statistics.clear();
+        final int[] bounds = chunkBounds(triples, subject);
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<CompletableFuture<List<Thing>>> chunks = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            final int from = bounds[i];
+            final int to = bounds[i + 1];
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                final List<Thing> built = order == Order.INPUT ? new ArrayList<>() : null;
+                try {
+                    buildChunk(triples.subList(from, to), subject, predicate, object,
+                            built == null ? sink : built::add, failed);
+                } catch (final RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+                return built;
+            }, executor));
+        }
+        deliver(chunks, sink, failed);
+    }
+
+    /**
+     * Build objects from an N-Triples or N-Quads file whose triples are grouped by subject into a map
+     * keyed by ID. With {@link Order#INPUT} the map iterates in the order of the file. With an error
+     * sink, lines that are not valid triples are reported as {@link IngestError.Reason#INVALID_LINE}
+     * and skipped.
+     *
+     * @param file Path of the file, in UTF-8.
+     * @return Map of object IDs to objects.
+     * @throws IOException   If the file cannot be opened.
+     * @throws HqdmException If a line is longer than a mapped window, or, unless errors are sent to a
+     *                       sink, a line is not a valid triple or any subject could not be built.
+     */
+    public Map<String, Thing> load(final Path file) throws IOException, HqdmException {
+        final Map<String, Thing> result = order == Order.INPUT ? new LinkedHashMap<>() : new ConcurrentHashMap<>();
+        load(file, thing -> result.put(thing.getId(), thing));
+        return result;
+    }
+
+    /**
+     * Build objects from an N-Triples or N-Quads file whose triples are grouped by subject and pass
+     * them to a sink. The file is memory-mapped and its chunks parsed in parallel. With
+     * {@link Order#UNORDERED} the sink is called from the worker threads, and must be thread-safe.
+     * With an error sink, lines that are not valid triples are reported as
+     * {@link IngestError.Reason#INVALID_LINE} and skipped.
+     *
+     * @param file Path of the file, in UTF-8.
+     * @param sink Consumer of the objects.
+     * @throws IOException   If the file cannot be opened.
+     * @throws HqdmException If a line is longer than a mapped window, or, unless errors are sent to a
+     *                       sink, a line is not a valid triple or any subject could not be built.
+     */
+    public void load(final Path file, final Consumer<? super Thing> sink) throws IOException, HqdmException {
+        statistics.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = MappedNtriplesReader.split(channel, parallelism * CHUNKS_PER_WORKER);
+            final AtomicBoolean failed = new AtomicBoolean();
+            final List<CompletableFuture<List<Thing>>> chunks = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i < bounds.length - 1; i++) {
+                final long from = bounds[i];
+                final long to = bounds[i + 1];
+                chunks.add(CompletableFuture.supplyAsync(() -> {
+                    final List<Thing> built = order == Order.INPUT ? new ArrayList<>() : null;
+                    try {
+                        buildFileChunk(new MappedNtriplesReader(channel, from, to),
+                                built == null ? sink : built::add, failed);
+                    } catch (final RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return built;
+                }, executor));
+            }
+            deliver(chunks, sink, failed);
+        }
+    }
+
+    /**
+     * Wait for every chunk of a load, passing their objects to the sink in order if they were held.
+     * After a failure the remaining chunks are still waited for, so that none is running or calling
+     * the sink when the first failure is thrown.
+     */
+    private static void deliver(final List<CompletableFuture<List<Thing>>> chunks,
+            final Consumer<? super Thing> sink, final AtomicBoolean failed) {
+        RuntimeException failure = null;
+        for (final CompletableFuture<List<Thing>> chunk : chunks) {
+            final List<Thing> built;
+            try {
+                built = chunk.join();
+            } catch (final CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof HqdmException ? (HqdmException) e.getCause()
+                            : new HqdmException(e.getCause());
+                }
+                continue;
+            }
+            if (built != null && failure == null) {
+                try {
+                    built.forEach(sink);
+                } catch (final RuntimeException e) {
+                    failed.set(true);
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The throughput of each worker thread during the last load.
+     *
+     * @return Statistics for each thread that built objects.
+     */
+    public Collection<WorkerStatistics> getWorkerStatistics() {
+        return List.copyOf(statistics.values());
+    }
+
+    /**
+     * Split the triples into chunks of about equal size that each end at a subject boundary.
+     *
+     * @return Start index of each chunk, followed by the size of the list.
+     */
+    private <T> int[] chunkBounds(final List<? extends T> triples, final Function<? super T, String> subject) {
+        final int size = triples.size();
+        final int chunks = Math.max(1, Math.min(parallelism * CHUNKS_PER_WORKER, size));
+        final int[] bounds = new int[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int bound = Math.max((int) ((long) size * i / chunks), bounds[count - 1]);
+            while (bound > bounds[count - 1] && bound < size
+                    && subject.apply(triples.get(bound)).equals(subject.apply(triples.get(bound - 1)))) {
+                bound++;
+            }
+            if (bound > bounds[count - 1] && bound < size) {
+                bounds[count++] = bound;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private <T> void buildChunk(final List<? extends T> triples, final Function<? super T, String> subject,
+            final Function<? super T, String> predicate, final Function<? super T, String> object,
+            final Consumer<? super Thing> sink, final AtomicBoolean failed) {
+        if (failed.get()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final BulkObjectFactory factory = new BulkObjectFactory(errors);
+        for (final T triple : triples) {
+            final Thing thing = factory.add(subject.apply(triple), predicate.apply(triple), object.apply(triple));
+            if (thing != null) {
+                if (failed.get()) {
+                    return;
+                }
+                sink.accept(thing);
+            }
+        }
+        final Thing last = factory.flush();
+        if (last != null && !failed.get()) {
+            sink.accept(last);
+        }
+        record(factory, start);
+    }
+
+    private void buildFileChunk(final MappedNtriplesReader reader, final Consumer<? super Thing> sink,
+            final AtomicBoolean failed) {
+        if (failed.get()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final BulkObjectFactory factory = new BulkObjectFactory(errors);
+        final TripleBatch batch = new TripleBatch(BATCH_SIZE);
+        try {
+            while (reader.read(batch, BATCH_SIZE, errors == null ? null : factory::reportInvalidLine) > 0) {
+                if (failed.get()) {
+                    return;
+                }
+                factory.addAll(batch, sink);
+                batch.clear();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final Thing last = factory.flush();
+        if (last != null && !failed.get()) {
+            sink.accept(last);
+        }
+        record(factory, start);
+    }
+
+    private void record(final BulkObjectFactory factory, final long start) {
+        final String worker = Thread.currentThread().getName();
+        statistics.merge(worker, new WorkerStatistics(worker, factory.getObjectCount(), factory.getTripleCount(),
+                factory.getErrorCount(), System.nanoTime() - start), WorkerStatistics::plus);
+    }
+
+    /**
+     * The work done by one worker thread during a load.
+     */
+    public static final class WorkerStatistics {
+
+        private final String workerName;
+
+        private final long objectCount;
+
+        private final long tripleCount;
+
+        private final long errorCount;
+
+        private final long elapsedNanos;
+
+        WorkerStatistics(final String workerName, final long objectCount, final long tripleCount,
+                final long errorCount, final long elapsedNanos) {
+            this.workerName = workerName;
+            this.objectCount = objectCount;
+            this.tripleCount = tripleCount;
+            this.errorCount = errorCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * The name of the worker thread.
+         *
+         * @return Thread name.
+         */
+        public String getWorkerName() {
+            return workerName;
+        }
+
+        /**
+         * The number of objects the worker built.
+         *
+         * @return Number of objects.
+         */
+        public long getObjectCount() {
+            return objectCount;
+        }
+
+        /**
+         * The number of triples the worker read.
+         *
+         * @return Number of triples.
+         */
+        public long getTripleCount() {
+            return tripleCount;
+        }
+
+        /**
+         * The number of subjects the worker reported as errors.
+         *
+         * @return Number of errors.
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * The time the worker spent building objects.
+         *
+         * @return Elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * The rate at which the worker built objects while it was busy.
+         *
+         * @return Objects per second.
+         */
+        public double getObjectsPerSecond() {
+            return elapsedNanos == 0 ? 0 : objectCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return workerName + ": " + objectCount + " objects, " + tripleCount + " triples, " + errorCount
+                    + " errors in " + elapsedNanos / 1_000_000 + " ms";
+        }
+
+        private WorkerStatistics plus(final WorkerStatistics other) {
+            return new WorkerStatistics(workerName, objectCount + other.objectCount,
+                    tripleCount + other.tripleCount, errorCount + other.errorCount, elapsedNanos + other.elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.util.NtriplesReader;
+import uk.gov.gchq.hqdm.rdf.util.TripleBatch;
+import uk.gov.gchq.hqdm.services.ReferenceDataRegistry;
+
+/**
+ * Preloads a {@link ReferenceDataRegistry} from N-Triples, for example a file of the kinds and classes
+ * shared by an application, read once at startup.
+ */
+public final class ReferenceDataLoader {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private ReferenceDataLoader() {
+    }
+
+    /**
+     * Build the objects in an N-Triples file and publish them to a registry. The triples of each
+     * subject must be next to each other.
+     *
+     * @param file     Path of the N-Triples file, in UTF-8.
+     * @param registry The {@link ReferenceDataRegistry} to publish to.
+     * @return The number of objects newly published.
+     * @throws IOException   If the file cannot be read.
+     * @throws HqdmException If the file is not valid N-Triples or an object cannot be built.
+     */
+    public static int load(final Path file, final ReferenceDataRegistry registry) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader, registry);
+        }
+    }
+
+    /**
+     * Build the objects in N-Triples text and publish them to a registry. The triples of each subject
+     * must be next to each other.
+     *
+     * @param reader   Source of the N-Triples text.
+     * @param registry The {@link ReferenceDataRegistry} to publish to.
+     * @return The number of objects newly published.
+     * @throws IOException   If the text cannot be read.
+     * @throws HqdmException If the text is not valid N-Triples or an object cannot be built.
+     */
+    public static int load(final Reader reader, final ReferenceDataRegistry registry) throws IOException {
+        final NtriplesReader triples = new NtriplesReader(reader);
+        final TripleBatch batch = new TripleBatch(BATCH_SIZE);
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        final List<Thing> things = new ArrayList<>();
+        while (triples.read(batch, BATCH_SIZE) > 0) {
+            factory.addAll(batch, things::add);
+            batch.clear();
+        }
+        final Thing last = factory.flush();
+        if (last != null) {
+            things.add(last);
+        }
+        return registry.preload(things);
+    }
+}
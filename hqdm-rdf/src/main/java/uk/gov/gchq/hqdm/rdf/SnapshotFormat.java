@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+/**
+ * Constants of the binary snapshot format written by {@link SnapshotWriter} and read by
+ * {@link SnapshotReader}.
+ *
+ * <p>
+ * A snapshot is laid out as:
+ * </p>
+ *
+ * <pre>
+ * magic        4 bytes, "HQDS"
+ * version      1 byte
+ * types        count, then the resource name of each HQDM type used
+ * predicates   count, then the IRI of each predicate used
+ * terms        count, then each IRI and string literal, most used first
+ * objects      count, then for each object:
+ *                  subject term index
+ *                  type count, then the index of each type
+ *                  predicate count, then for each predicate:
+ *                      predicate index, datatype ordinal, value count, then each value
+ * index        optional, see below
+ * </pre>
+ *
+ * <p>
+ * Counts, indexes and ordinals are unsigned variable-length integers of seven bits a byte, low bits
+ * first; strings are a byte count followed by their UTF-8 bytes. Each value starts with a
+ * variable-length integer whose low {@value #TAG_BITS} bits are its tag and whose high bits are the
+ * term index of a {@link #TAG_TERM} or {@link #TAG_IRI}, or the zig-zag encoded value of a
+ * {@link #TAG_INTEGER}. A {@link #TAG_LONG} is followed by its zig-zag encoded value, and a
+ * {@link #TAG_REAL} by the eight bytes of its IEEE 754 bits, most significant first. Because every
+ * IRI and literal is held once in the term dictionary, a reference costs one to three bytes however
+ * long the IRI is.
+ * </p>
+ *
+ * <p>
+ * An indexed snapshot, as {@link SnapshotStore} needs, ends with fixed-width fields, most
+ * significant byte first, that locate any term or object without reading those before it:
+ * </p>
+ *
+ * <pre>
+ * index        object count, 4 bytes
+ *              offset of each term, 8 bytes each
+ *              offset of each object, 8 bytes each
+ *              subject table size, 4 bytes, a power of two
+ *              subject table, 4 bytes a slot: an object index plus one, or 0 if the slot is empty
+ * footer       offset of the index, 8 bytes
+ *              magic, 4 bytes, "HQDX"
+ * </pre>
+ *
+ * <p>
+ * An object is found in the subject table by probing linearly from the slot given by the
+ * {@link #hash(String)} of its subject. {@link SnapshotReader} stops after the last object, so it
+ * reads indexed and unindexed snapshots alike.
+ * </p>
+ */
+final class SnapshotFormat {
+
+    /** The first four bytes of a snapshot. */
+    static final int MAGIC = 0x48514453;
+
+    /** The version of the format. */
+    static final int VERSION = 1;
+
+    /** The last four bytes of an indexed snapshot. */
+    static final int INDEX_MAGIC = 0x48514458;
+
+    /** The size of the footer of an indexed snapshot. */
+    static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+
+    /** The number of low bits of a value header holding its tag. */
+    static final int TAG_BITS = 3;
+
+    /** Mask of the tag bits of a value header. */
+    static final int TAG_MASK = (1 << TAG_BITS) - 1;
+
+    /** A string held in the term dictionary. */
+    static final int TAG_TERM = 0;
+
+    /** An {@link uk.gov.gchq.hqdm.rdf.iri.IRI} held in the term dictionary. */
+    static final int TAG_IRI = 1;
+
+    /** A {@link Double}. */
+    static final int TAG_REAL = 2;
+
+    /** An {@link Integer}. */
+    static final int TAG_INTEGER = 3;
+
+    /** A {@link Long}. */
+    static final int TAG_LONG = 4;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * The hash of a subject IRI in the subject table.
+     *
+     * @param subject IRI of the subject.
+     * @return The hash, to be masked by the table size.
+     */
+    static int hash(final String subject) {
+        final int hash = subject.hashCode();
+        return hash ^ hash >>> 16;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.Datatype;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.exception.IriException;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * Reads Things from binary snapshots written by {@link SnapshotWriter}.
+ *
+ * <p>
+ * The dictionaries are read first: each HQDM type is resolved once, each predicate is registered
+ * once with the {@link PredicateRegistry}, and each term is decoded once, so objects that refer to
+ * the same IRI share one string. Objects are then built straight from their encoded values, with
+ * the {@link Datatype} each predicate was recorded with.
+ * </p>
+ */
+public final class SnapshotReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Datatype[] DATATYPES = Datatype.values();
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+
+    private long position;
+
+    private HqdmTypes.HqdmType[] types;
+
+    private int[] predicateIds;
+
+    private String[] terms;
+
+    private SnapshotReader(final ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Read the things in a snapshot.
+     *
+     * @param channel The {@link ReadableByteChannel} to read from. It is not closed.
+     * @return The {@link Thing}s, in the order they were written.
+     * @throws IOException   If the snapshot cannot be read.
+     * @throws HqdmException If the data is not a valid snapshot.
+     */
+    public static List<Thing> read(final ReadableByteChannel channel) throws IOException, HqdmException {
+        final List<Thing> result = new ArrayList<>();
+        read(channel, result::add);
+        return result;
+    }
+
+    /**
+     * Read the things in a snapshot, passing each to a consumer as it is built.
+     *
+     * @param channel The {@link ReadableByteChannel} to read from. It is not closed.
+     * @param sink    Consumer of the {@link Thing}s, in the order they were written.
+     * @throws IOException   If the snapshot cannot be read.
+     * @throws HqdmException If the data is not a valid snapshot.
+     */
+    public static void read(final ReadableByteChannel channel, final Consumer<? super Thing> sink)
+            throws IOException, HqdmException {
+        final SnapshotReader reader = new SnapshotReader(channel);
+        final int objectCount = reader.readHeader();
+        for (int i = 0; i < objectCount; i++) {
+            sink.accept(reader.readObject());
+        }
+    }
+
+    private int readHeader() throws IOException {
+        require(Integer.BYTES + 1);
+        if (buffer.getInt() != SnapshotFormat.MAGIC) {
+            throw invalid("not a snapshot");
+        }
+        final int version = buffer.get();
+        position += Integer.BYTES + 1;
+        if (version != SnapshotFormat.VERSION) {
+            throw invalid("unsupported version " + version);
+        }
+        types = new HqdmTypes.HqdmType[readCount()];
+        for (int i = 0; i < types.length; i++) {
+            final String name = readString();
+            types[i] = HqdmTypes.of(name);
+            if (types[i] == null) {
+                throw invalid("unknown type name " + name);
+            }
+        }
+        predicateIds = new int[readCount()];
+        for (int i = 0; i < predicateIds.length; i++) {
+            predicateIds[i] = PredicateRegistry.idOf(readString());
+        }
+        terms = new String[readCount()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = readString();
+        }
+        return readCount();
+    }
+
+    private Thing readObject() throws IOException {
+        final String id = term(readVarint());
+        final int typeCount = readCount();
+        final Thing thing;
+        if (typeCount == 1) {
+            final HqdmTypes.HqdmType type = type(readVarint());
+            thing = type.isCreatable() ? type.create(id)
+                    : DynamicObjects.create(id, Thing.class, typeClasses(type.getModelInterface()));
+        } else {
+            final java.lang.Class<?>[] classes = new java.lang.Class<?>[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                classes[i] = type(readVarint()).getModelInterface();
+            }
+            thing = DynamicObjects.create(id, Thing.class, typeClasses(classes));
+        }
+        if (thing == null) {
+            throw invalid("cannot create " + id);
+        }
+
+        final HqdmObject target = (HqdmObject) thing;
+        final int predicateCount = readCount();
+        for (int i = 0; i < predicateCount; i++) {
+            final long predicateIndex = readVarint();
+            if (predicateIndex >= predicateIds.length) {
+                throw invalid("predicate index " + predicateIndex + " out of range");
+            }
+            final int predicateId = predicateIds[(int) predicateIndex];
+            final long ordinal = readVarint();
+            if (ordinal >= DATATYPES.length) {
+                throw invalid("unknown datatype " + ordinal);
+            }
+            final Datatype datatype = DATATYPES[(int) ordinal];
+            final int valueCount = readCount();
+            for (int j = 0; j < valueCount; j++) {
+                readValue(target, predicateId, datatype);
+            }
+        }
+        return thing;
+    }
+
+    private void readValue(final HqdmObject target, final int predicateId, final Datatype datatype)
+            throws IOException {
+        final long header = readVarint();
+        final long payload = header >>> SnapshotFormat.TAG_BITS;
+        switch ((int) (header & SnapshotFormat.TAG_MASK)) {
+        case SnapshotFormat.TAG_TERM:
+            target.addValue(predicateId, term(payload), datatype);
+            break;
+        case SnapshotFormat.TAG_IRI:
+            target.addValue(predicateId, iri(term(payload)), datatype);
+            break;
+        case SnapshotFormat.TAG_REAL:
+            require(Long.BYTES);
+            position += Long.BYTES;
+            target.addRealValue(predicateId, Double.longBitsToDouble(buffer.getLong()));
+            break;
+        case SnapshotFormat.TAG_INTEGER:
+            target.addValue(predicateId, (int) unZigZag(payload), datatype);
+            break;
+        case SnapshotFormat.TAG_LONG:
+            target.addValue(predicateId, unZigZag(readVarint()), datatype);
+            break;
+        default:
+            throw invalid("unknown value tag " + (header & SnapshotFormat.TAG_MASK));
+        }
+    }
+
+    /**
+     * Type an array of model interfaces for {@link DynamicObjects#create(String, java.lang.Class,
+     * java.lang.Class[])}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Thing> java.lang.Class<T>[] typeClasses(final java.lang.Class<?>... classes) {
+        return (java.lang.Class<T>[]) classes;
+    }
+
+    private IRI iri(final String term) {
+        try {
+            return new IRI(term);
+        } catch (final IriException e) {
+            throw new HqdmException("Invalid snapshot at byte " + position + ": invalid IRI " + term, e);
+        }
+    }
+
+    private static long unZigZag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private String term(final long index) {
+        if (index >= terms.length) {
+            throw invalid("term index " + index + " out of range");
+        }
+        return terms[(int) index];
+    }
+
+    private HqdmTypes.HqdmType type(final long index) {
+        if (index >= types.length) {
+            throw invalid("type index " + index + " out of range");
+        }
+        return types[(int) index];
+    }
+
+    private int readCount() throws IOException {
+        final long count = readVarint();
+        if (count > Integer.MAX_VALUE) {
+            throw invalid("count " + count + " too large");
+        }
+        return (int) count;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                require(1);
+            }
+            final byte b = buffer.get();
+            position++;
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw invalid("malformed number");
+    }
+
+    private String readString() throws IOException {
+        final int length = readCount();
+        if (length <= buffer.capacity()) {
+            require(length);
+            final String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            position += length;
+            return value;
+        }
+        final ByteBuffer bytes = ByteBuffer.allocate(length);
+        bytes.put(buffer);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes) < 0) {
+                throw invalid("unexpected end of data");
+            }
+        }
+        position += length;
+        return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Make sure the buffer holds at least a number of bytes, reading more if need be.
+     */
+    private void require(final int length) throws IOException {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < length) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                throw invalid("unexpected end of data");
+            }
+        }
+        buffer.flip();
+    }
+
+    private HqdmException invalid(final String reason) {
+        return new HqdmException("Invalid snapshot at byte " + position + ": " + reason);
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.exception.IriException;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+
+/**
+ * A read-only store of Things served straight from a memory-mapped snapshot.
+ *
+ * <p>
+ * Opening a store reads only the header dictionaries of HQDM types and predicates and the footer of
+ * the snapshot, so it takes the same time and heap however many objects the snapshot holds. The
+ * snapshot must have been written with an index by
+ * {@link SnapshotWriter#write(java.util.Collection, java.nio.channels.WritableByteChannel, boolean)}.
+ * </p>
+ *
+ * <p>
+ * {@link #get(String)} finds an object through the subject table of the index and returns a small
+ * view of it that holds only its position in the file. Nothing of the object is decoded until a
+ * method of the view is called, and then only what that method needs: {@link Thing#hasValue(String)}
+ * and {@link Thing#hasThisValue(String, String)} compare encoded bytes without building any strings.
+ * Views are read-only, report themselves frozen, and are equal when they are of the same object of
+ * the same store. The file is mapped in segments of up to 1 GiB, so snapshots larger than 2 GiB can
+ * be opened. Any number of threads may read a store and its views.
+ * </p>
+ */
+public final class SnapshotStore implements Closeable {
+
+    private static final int SEGMENT_BITS = 30;
+
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private static final double[] NO_REALS = {};
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer[] segments;
+
+    // Index of each predicate by IRI.
+    private final Map<String, Integer> predicateIndexes = new HashMap<>();
+
+    private final String[] predicates;
+
+    private final int termCount;
+
+    private final int objectCount;
+
+    // File offsets of the tables of the index.
+    private final long termOffsets;
+
+    private final long objectOffsets;
+
+    private final long slots;
+
+    private final int slotMask;
+
+    private SnapshotStore(final FileChannel channel) throws IOException {
+        this.channel = channel;
+        final long size = channel.size();
+        if (size < Integer.BYTES + 1 + SnapshotFormat.FOOTER_SIZE) {
+            throw invalid(0, "too short");
+        }
+        segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            final long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+        }
+        if (intAt(0) != SnapshotFormat.MAGIC) {
+            throw invalid(0, "not a snapshot");
+        }
+        if (byteAt(Integer.BYTES) != SnapshotFormat.VERSION) {
+            throw invalid(Integer.BYTES, "unsupported version " + byteAt(Integer.BYTES));
+        }
+        if (intAt(size - Integer.BYTES) != SnapshotFormat.INDEX_MAGIC) {
+            throw invalid(size - Integer.BYTES, "no index");
+        }
+
+        final Cursor cursor = new Cursor(Integer.BYTES + 1);
+        for (int types = cursor.count(); types > 0; types--) {
+            cursor.skipString();
+        }
+        predicates = new String[cursor.count()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = cursor.string();
+            predicateIndexes.putIfAbsent(predicates[i], i);
+        }
+        termCount = cursor.count();
+
+        final long index = longAt(size - SnapshotFormat.FOOTER_SIZE);
+        objectCount = intAt(index);
+        termOffsets = index + Integer.BYTES;
+        objectOffsets = termOffsets + (long) termCount * Long.BYTES;
+        final long slotCountOffset = objectOffsets + (long) objectCount * Long.BYTES;
+        final int slotCount = intAt(slotCountOffset);
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1
+                || slotCountOffset + Integer.BYTES + (long) slotCount * Integer.BYTES
+                        != size - SnapshotFormat.FOOTER_SIZE) {
+            throw invalid(slotCountOffset, "corrupt index");
+        }
+        slots = slotCountOffset + Integer.BYTES;
+        slotMask = slotCount - 1;
+    }
+
+    /**
+     * Open a snapshot file.
+     *
+     * @param file Path of an indexed snapshot.
+     * @return The {@link SnapshotStore}.
+     * @throws IOException   If the file cannot be opened or mapped.
+     * @throws HqdmException If the file is not an indexed snapshot.
+     */
+    public static SnapshotStore open(final Path file) throws IOException, HqdmException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new SnapshotStore(channel);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The number of objects in the store.
+     *
+     * @return Number of objects.
+     */
+    public int size() {
+        return objectCount;
+    }
+
+    /**
+     * Get an object by its position in the snapshot.
+     *
+     * @param index Index of the object, from 0 to {@link #size()} - 1.
+     * @return A read-only view of the object.
+     * @throws IndexOutOfBoundsException If there is no object at the index.
+     */
+    public Thing get(final int index) {
+        return new SnapshotThing(this, objectOffset(Objects.checkIndex(index, objectCount)));
+    }
+
+    /**
+     * Get an object by its IRI.
+     *
+     * @param id IRI of the object.
+     * @return A read-only view of the object, or {@code null} if the store does not hold it.
+     * @throws HqdmException If the index has no empty slot, which a valid snapshot always has.
+     */
+    public Thing get(final String id) throws HqdmException {
+        final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        int slot = SnapshotFormat.hash(id) & slotMask;
+        for (int probes = 0; probes <= slotMask; probes++) {
+            final int entry = intAt(slots + (long) slot * Integer.BYTES);
+            if (entry == 0) {
+                return null;
+            }
+            final long offset = objectOffset(entry - 1);
+            if (termEquals(new Cursor(offset).varint(), bytes)) {
+                return new SnapshotThing(this, offset, id);
+            }
+            slot = slot + 1 & slotMask;
+        }
+        throw invalid(slots, "corrupt index");
+    }
+
+    /**
+     * Close the file. The mapped segments are released once no view refers to them.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The subject IRI of the object at an offset.
+     *
+     * @param offset Offset of the object.
+     * @return IRI of the object.
+     */
+    String subject(final long offset) {
+        return term(new Cursor(offset).varint());
+    }
+
+    /**
+     * The index of a predicate in the dictionary.
+     *
+     * @param predicate IRI of the predicate.
+     * @return Index of the predicate, or -1 if no object has it.
+     */
+    int predicateIndex(final String predicate) {
+        final Integer index = predicateIndexes.get(predicate);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Decode the values of a predicate of the object at an offset.
+     *
+     * @param offset         Offset of the object.
+     * @param predicateIndex Index of the predicate.
+     * @return Unmodifiable set of values, or {@code null} if the object does not have the predicate.
+     */
+    Set<Object> values(final long offset, final int predicateIndex) {
+        final Cursor cursor = new Cursor(offset);
+        final int count = cursor.seekPredicate(predicateIndex);
+        return count < 0 ? null : cursor.values(count);
+    }
+
+    /**
+     * Decode all the predicates of the object at an offset.
+     *
+     * @param offset Offset of the object.
+     * @return Map of predicate IRI to values.
+     */
+    Map<String, Set<Object>> predicates(final long offset) {
+        final Cursor cursor = new Cursor(offset);
+        final Map<String, Set<Object>> result = new LinkedHashMap<>();
+        for (int predicateCount = cursor.skipToPredicates(); predicateCount > 0; predicateCount--) {
+            final String predicate = predicates[cursor.count()];
+            cursor.varint();
+            result.put(predicate, cursor.values(cursor.count()));
+        }
+        return result;
+    }
+
+    /**
+     * Decode the real number values of a predicate of the object at an offset.
+     *
+     * @param offset         Offset of the object.
+     * @param predicateIndex Index of the predicate.
+     * @return Array of real numbers, empty if there are none.
+     */
+    double[] realValues(final long offset, final int predicateIndex) {
+        final Cursor cursor = new Cursor(offset);
+        final int count = cursor.seekPredicate(predicateIndex);
+        double[] result = NO_REALS;
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final long header = cursor.varint();
+            if ((header & SnapshotFormat.TAG_MASK) == SnapshotFormat.TAG_REAL) {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, count);
+                }
+                result[size++] = Double.longBitsToDouble(longAt(cursor.position));
+            }
+            cursor.skipValue(header);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Does the object at an offset have a predicate.
+     *
+     * @param offset         Offset of the object.
+     * @param predicateIndex Index of the predicate.
+     * @return {@code true} if the object has the predicate.
+     */
+    boolean hasPredicate(final long offset, final int predicateIndex) {
+        return new Cursor(offset).seekPredicate(predicateIndex) >= 0;
+    }
+
+    /**
+     * Does a predicate of the object at an offset have a string value, comparing the encoded bytes.
+     *
+     * @param offset         Offset of the object.
+     * @param predicateIndex Index of the predicate.
+     * @param value          The string value.
+     * @return {@code true} if the predicate has the value.
+     */
+    boolean hasString(final long offset, final int predicateIndex, final String value) {
+        final Cursor cursor = new Cursor(offset);
+        final int count = cursor.seekPredicate(predicateIndex);
+        if (count <= 0) {
+            return false;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < count; i++) {
+            final long header = cursor.varint();
+            if ((header & SnapshotFormat.TAG_MASK) == SnapshotFormat.TAG_TERM
+                    && termEquals(header >>> SnapshotFormat.TAG_BITS, bytes)) {
+                return true;
+            }
+            cursor.skipValue(header);
+        }
+        return false;
+    }
+
+    /**
+     * Does a predicate of the object at an offset have a string value that, folded to lower case,
+     * matches a query.
+     *
+     * @param offset         Offset of the object.
+     * @param predicateIndex Index of the predicate.
+     * @param folded         The query, folded to lower case.
+     * @param partial        {@code true} to match values containing the query, {@code false} to match
+     *                       only the whole value.
+     * @return {@code true} if a value matches.
+     */
+    boolean matchesFolded(final long offset, final int predicateIndex, final String folded,
+            final boolean partial) {
+        final Cursor cursor = new Cursor(offset);
+        final int count = cursor.seekPredicate(predicateIndex);
+        for (int i = 0; i < count; i++) {
+            final long header = cursor.varint();
+            if ((header & SnapshotFormat.TAG_MASK) == SnapshotFormat.TAG_TERM) {
+                final String value = term(header >>> SnapshotFormat.TAG_BITS).toLowerCase(Locale.ROOT);
+                if (partial ? value.contains(folded) : value.equals(folded)) {
+                    return true;
+                }
+            }
+            cursor.skipValue(header);
+        }
+        return false;
+    }
+
+    private long objectOffset(final int index) {
+        return longAt(objectOffsets + (long) index * Long.BYTES);
+    }
+
+    private long termOffset(final long index) {
+        if (index >= termCount) {
+            throw invalid(termOffsets, "term index " + index + " out of range");
+        }
+        return longAt(termOffsets + index * Long.BYTES);
+    }
+
+    private String term(final long index) {
+        return new Cursor(termOffset(index)).string();
+    }
+
+    private boolean termEquals(final long index, final byte[] bytes) {
+        final Cursor cursor = new Cursor(termOffset(index));
+        if (cursor.count() != bytes.length) {
+            return false;
+        }
+        final long start = cursor.position;
+        for (int i = 0; i < bytes.length; i++) {
+            if (byteAt(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte byteAt(final long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) position & SEGMENT_MASK);
+    }
+
+    private int intAt(final long position) {
+        final int index = (int) position & SEGMENT_MASK;
+        if (index <= SEGMENT_MASK - Integer.BYTES + 1) {
+            return segments[(int) (position >>> SEGMENT_BITS)].getInt(index);
+        }
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value = value << Byte.SIZE | byteAt(position + i) & 0xFF;
+        }
+        return value;
+    }
+
+    private long longAt(final long position) {
+        final int index = (int) position & SEGMENT_MASK;
+        if (index <= SEGMENT_MASK - Long.BYTES + 1) {
+            return segments[(int) (position >>> SEGMENT_BITS)].getLong(index);
+        }
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = value << Byte.SIZE | byteAt(position + i) & 0xFF;
+        }
+        return value;
+    }
+
+    private IRI iri(final long position, final String term) {
+        try {
+            return new IRI(term);
+        } catch (final IriException e) {
+            throw new HqdmException("Invalid snapshot at byte " + position + ": invalid IRI " + term, e);
+        }
+    }
+
+    private HqdmException invalid(final long position, final String reason) {
+        return new HqdmException("Invalid snapshot at byte " + position + ": " + reason);
+    }
+
+    /**
+     * A position in the file, advanced as values are decoded from it.
+     */
+    private final class Cursor {
+
+        private long position;
+
+        Cursor(final long position) {
+            this.position = position;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                final byte b = byteAt(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw invalid(position, "malformed number");
+        }
+
+        int count() {
+            final long count = varint();
+            if (count > Integer.MAX_VALUE) {
+                throw invalid(position, "count " + count + " too large");
+            }
+            return (int) count;
+        }
+
+        String string() {
+            final int length = count();
+            final byte[] bytes = new byte[length];
+            final int index = (int) position & SEGMENT_MASK;
+            if (index <= SEGMENT_MASK - length + 1) {
+                segments[(int) (position >>> SEGMENT_BITS)].get(index, bytes);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = byteAt(position + i);
+                }
+            }
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            final int length = count();
+            position += length;
+        }
+
+        /**
+         * Move from the start of an object to its predicate count and read it.
+         */
+        int skipToPredicates() {
+            varint();
+            for (int types = count(); types > 0; types--) {
+                varint();
+            }
+            return count();
+        }
+
+        /**
+         * Move from the start of an object to the values of a predicate.
+         *
+         * @return The number of values, or -1 if the object does not have the predicate.
+         */
+        int seekPredicate(final int predicateIndex) {
+            if (predicateIndex < 0) {
+                return -1;
+            }
+            for (int predicateCount = skipToPredicates(); predicateCount > 0; predicateCount--) {
+                final long index = varint();
+                varint();
+                final int count = count();
+                if (index == predicateIndex) {
+                    return count;
+                }
+                for (int i = 0; i < count; i++) {
+                    skipValue(varint());
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Skip what follows the header of a value.
+         */
+        void skipValue(final long header) {
+            final int tag = (int) (header & SnapshotFormat.TAG_MASK);
+            if (tag == SnapshotFormat.TAG_REAL) {
+                position += Long.BYTES;
+            } else if (tag == SnapshotFormat.TAG_LONG) {
+                varint();
+            }
+        }
+
+        Set<Object> values(final int count) {
+            final Set<Object> result = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                final long header = varint();
+                final long payload = header >>> SnapshotFormat.TAG_BITS;
+                switch ((int) (header & SnapshotFormat.TAG_MASK)) {
+                case SnapshotFormat.TAG_TERM:
+                    result.add(term(payload));
+                    break;
+                case SnapshotFormat.TAG_IRI:
+                    result.add(iri(position, term(payload)));
+                    break;
+                case SnapshotFormat.TAG_REAL:
+                    result.add(Double.longBitsToDouble(longAt(position)));
+                    position += Long.BYTES;
+                    break;
+                case SnapshotFormat.TAG_INTEGER:
+                    result.add((int) (payload >>> 1 ^ -(payload & 1)));
+                    break;
+                case SnapshotFormat.TAG_LONG:
+                    final long value = varint();
+                    result.add(value >>> 1 ^ -(value & 1));
+                    break;
+                default:
+                    throw invalid(position, "unknown value tag " + (header & SnapshotFormat.TAG_MASK));
+                }
+            }
+            return Collections.unmodifiableSet(result);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+
+/**
+ * A read-only view of an object in a {@link SnapshotStore}, decoding what each method needs from the
+ * mapped snapshot when it is called.
+ */
+final class SnapshotThing implements Thing {
+
+    private final SnapshotStore store;
+
+    private final long offset;
+
+    // The IRI of the object, decoded when first needed.
+    private String id;
+
+    /**
+     * Constructs a new {@code SnapshotThing}.
+     *
+     * @param store  The {@link SnapshotStore} holding the object.
+     * @param offset Offset of the object in the snapshot.
+     */
+    SnapshotThing(final SnapshotStore store, final long offset) {
+        this(store, offset, null);
+    }
+
+    /**
+     * Constructs a new {@code SnapshotThing} whose IRI is already known.
+     *
+     * @param store  The {@link SnapshotStore} holding the object.
+     * @param offset Offset of the object in the snapshot.
+     * @param id     IRI of the object, or {@code null} to decode it when needed.
+     */
+    SnapshotThing(final SnapshotStore store, final long offset, final String id) {
+        this.store = store;
+        this.offset = offset;
+        this.id = id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getId() {
+        String result = id;
+        if (result == null) {
+            result = store.subject(offset);
+            id = result;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setId(final String id) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, Set<Object>> getPredicates() {
+        return store.predicates(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setPredicates(final Map<String, Set<Object>> predicates) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Set<Object> value(final String predicateId) {
+        return store.values(offset, store.predicateIndex(predicateId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double[] realValues(final String predicateId) {
+        return store.realValues(offset, store.predicateIndex(predicateId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addValue(final String predicateId, final String objectId) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addStringValue(final String predicateId, final String value) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addRealValue(final String predicateId, final double value) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void removeValue(final String predicateId, final String value) {
+        throw readOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasValue(final String predicateId) {
+        return store.hasPredicate(offset, store.predicateIndex(predicateId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisValue(final String predicateId, final String objectId) {
+        return store.hasString(offset, store.predicateIndex(predicateId), objectId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValue(final String predicateId, final String value) {
+        return store.hasString(offset, store.predicateIndex(predicateId), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValueIgnoreCase(final String predicateId, final String value) {
+        return store.matchesFolded(offset, store.predicateIndex(predicateId), value.toLowerCase(Locale.ROOT),
+                false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasThisStringValueFuzzy(final String predicateId, final String value) {
+        return store.matchesFolded(offset, store.predicateIndex(predicateId), value.toLowerCase(Locale.ROOT),
+                true);
+    }
+
+    /**
+     * A view is always read-only, so this has no effect.
+     */
+    public void freeze() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFrozen() {
+        return true;
+    }
+
+    /**
+     * Indicates whether some other object is a view of the same object in the same store.
+     *
+     * @param object The reference object with which to compare.
+     * @return {@code true} if the object is a view of the same object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof SnapshotThing)) {
+            return false;
+        }
+        final SnapshotThing that = (SnapshotThing) object;
+        return store == that.store && offset == that.offset;
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     *
+     * @return A hash code value for this object.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(offset);
+    }
+
+    /**
+     * Output the IRI of the object.
+     *
+     * @return Formatted string output of the view.
+     */
+    @Override
+    public String toString() {
+        return "SnapshotThing{" + "getId=" + getId() + '}';
+    }
+
+    private HqdmException readOnly() {
+        return new HqdmException("Cannot modify a HQDM object in a snapshot store: " + getId());
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.Datatype;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * Writes collections of Things as binary snapshots, to be read back by {@link SnapshotReader}.
+ *
+ * <p>
+ * The things are visited twice: once to build dictionaries of the HQDM types, predicates and terms
+ * they use, and once to write them, so the collection must not change while it is being written.
+ * Terms are ordered by how often they are used, so that the most common IRIs take a single byte to
+ * refer to. The layout is described by {@link SnapshotFormat}. An indexed snapshot can also be
+ * opened in place by a {@link SnapshotStore}.
+ * </p>
+ *
+ * <p>
+ * The HQDM types of an object are those of its model interfaces, and the {@link Datatype} of each
+ * predicate is the one a {@link HqdmObject} recorded. Values may be strings, {@link IRI}s,
+ * {@link Double}s, {@link Integer}s and {@link Long}s.
+ * </p>
+ */
+public final class SnapshotWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Room for a value header and the longest value that follows it.
+    private static final int MAX_VALUE_BYTES = 20;
+
+    private static final String THING_TYPE = "thing";
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private long bytesWritten;
+
+    // Index of each HQDM type by name, in order of first use.
+    private final Map<String, Integer> types = new LinkedHashMap<>();
+
+    // Indexes of the HQDM types of the instances of each class.
+    private final Map<java.lang.Class<?>, int[]> classTypes = new HashMap<>();
+
+    // Index of each predicate by registry ID, or -1 if it is not used.
+    private int[] predicateIndexes = new int[0];
+
+    private final List<String> predicates = new ArrayList<>();
+
+    // The use count and then the index of each term.
+    private final Map<String, int[]> terms = new HashMap<>();
+
+    private final ObjIntConsumer<Set<Object>> predicateCollector = this::collectPredicate;
+
+    // The object whose predicates are being visited.
+    private HqdmObject current;
+
+    // The non-empty predicates of the object being written.
+    private int predicateCount;
+
+    private int[] predicateIds = new int[16];
+
+    private Datatype[] datatypes = new Datatype[16];
+
+    private Object[] values = new Object[16];
+
+    // Where each term and object starts, and the hash of each subject, for the index.
+    private long[] termOffsets;
+
+    private long[] objectOffsets;
+
+    private int[] subjectHashes;
+
+    private SnapshotWriter(final WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Write a snapshot of a collection of things.
+     *
+     * @param things  The {@link Thing}s to write.
+     * @param channel The {@link WritableByteChannel} to write to. It is not closed.
+     * @return The number of bytes written.
+     * @throws IOException   If the snapshot cannot be written.
+     * @throws HqdmException If a value is of a kind that cannot be written, or the things change
+     *                       while being written.
+     */
+    public static long write(final Collection<? extends Thing> things, final WritableByteChannel channel)
+            throws IOException, HqdmException {
+        return write(things, channel, false);
+    }
+
+    /**
+     * Write a snapshot of a collection of things, with or without an index.
+     *
+     * @param things  The {@link Thing}s to write.
+     * @param channel The {@link WritableByteChannel} to write to. It is not closed.
+     * @param indexed {@code true} to end the snapshot with the index that {@link SnapshotStore} needs.
+     * @return The number of bytes written.
+     * @throws IOException   If the snapshot cannot be written.
+     * @throws HqdmException If a value is of a kind that cannot be written, or the things change
+     *                       while being written.
+     */
+    public static long write(final Collection<? extends Thing> things, final WritableByteChannel channel,
+            final boolean indexed) throws IOException, HqdmException {
+        final SnapshotWriter writer = new SnapshotWriter(channel);
+        for (final Thing thing : things) {
+            writer.collect(thing);
+        }
+        final int objectCount = things.size();
+        if (indexed) {
+            writer.termOffsets = new long[writer.terms.size()];
+            writer.objectOffsets = new long[objectCount];
+            writer.subjectHashes = new int[objectCount];
+        }
+        writer.writeHeader(objectCount);
+        int index = 0;
+        for (final Thing thing : things) {
+            if (index == objectCount) {
+                throw changed(thing);
+            }
+            if (indexed) {
+                writer.objectOffsets[index] = writer.position();
+                writer.subjectHashes[index] = SnapshotFormat.hash(thing.getId());
+            }
+            writer.writeObject(thing);
+            index++;
+        }
+        if (indexed) {
+            writer.writeIndex();
+        }
+        writer.drain();
+        return writer.bytesWritten;
+    }
+
+    /**
+     * Add the types, predicates and terms of a thing to the dictionaries.
+     */
+    private void collect(final Thing thing) {
+        classTypes.computeIfAbsent(thing.getClass(), type -> typeIndexes(thing));
+        countTerm(thing.getId());
+        visitPredicates(thing);
+        for (int i = 0; i < predicateCount; i++) {
+            final int id = predicateIds[i];
+            if (id >= predicateIndexes.length) {
+                final int length = predicateIndexes.length;
+                predicateIndexes = Arrays.copyOf(predicateIndexes, Math.max(id + 1, length * 2));
+                Arrays.fill(predicateIndexes, length, predicateIndexes.length, -1);
+            }
+            if (predicateIndexes[id] < 0) {
+                predicateIndexes[id] = predicates.size();
+                predicates.add(PredicateRegistry.nameOf(id));
+            }
+            for (final Object value : (Set<?>) values[i]) {
+                if (value instanceof String) {
+                    countTerm((String) value);
+                } else if (value instanceof IRI) {
+                    countTerm(((IRI) value).getIri());
+                } else if (!(value instanceof Double || value instanceof Integer || value instanceof Long)) {
+                    throw new HqdmException("Cannot write a value of type " + value.getClass().getName() + " of "
+                            + thing.getId());
+                }
+            }
+        }
+    }
+
+    private int[] typeIndexes(final Thing thing) {
+        final List<String> names = new ArrayList<>();
+        for (final java.lang.Class<? extends Thing> modelInterface : DynamicObjects.typesOf(thing)) {
+            final HqdmTypes.HqdmType type = HqdmTypes.of(modelInterface);
+            if (type != null) {
+                names.add(type.getName());
+            }
+        }
+        if (names.isEmpty()) {
+            names.add(THING_TYPE);
+        }
+        return names.stream().mapToInt(name -> types.computeIfAbsent(name, key -> types.size())).toArray();
+    }
+
+    private void countTerm(final String term) {
+        final int[] entry = terms.get(term);
+        if (entry == null) {
+            terms.put(term, new int[] { 1, 0 });
+        } else {
+            entry[0]++;
+        }
+    }
+
+    /**
+     * Number the terms, most used first, and write the dictionaries.
+     */
+    private void writeHeader(final int objectCount) throws IOException {
+        buffer.putInt(SnapshotFormat.MAGIC);
+        buffer.put((byte) SnapshotFormat.VERSION);
+        writeVarint(types.size());
+        for (final String type : types.keySet()) {
+            writeString(type);
+        }
+        writeVarint(predicates.size());
+        for (final String predicate : predicates) {
+            writeString(predicate);
+        }
+        final List<Map.Entry<String, int[]>> sorted = new ArrayList<>(terms.entrySet());
+        sorted.sort((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]));
+        writeVarint(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            final Map.Entry<String, int[]> entry = sorted.get(i);
+            entry.getValue()[1] = i;
+            if (termOffsets != null) {
+                termOffsets[i] = position();
+            }
+            writeString(entry.getKey());
+        }
+        writeVarint(objectCount);
+    }
+
+    /**
+     * Write the offsets of the terms and objects and the table of subjects, then the footer.
+     */
+    private void writeIndex() throws IOException {
+        final long indexOffset = position();
+        ensure(Integer.BYTES);
+        buffer.putInt(objectOffsets.length);
+        for (final long offset : termOffsets) {
+            ensure(Long.BYTES);
+            buffer.putLong(offset);
+        }
+        for (final long offset : objectOffsets) {
+            ensure(Long.BYTES);
+            buffer.putLong(offset);
+        }
+        final int[] slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, objectOffsets.length)) * 4)];
+        final int mask = slots.length - 1;
+        for (int i = 0; i < subjectHashes.length; i++) {
+            int slot = subjectHashes[i] & mask;
+            while (slots[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        ensure(Integer.BYTES);
+        buffer.putInt(slots.length);
+        for (final int slot : slots) {
+            ensure(Integer.BYTES);
+            buffer.putInt(slot);
+        }
+        ensure(SnapshotFormat.FOOTER_SIZE);
+        buffer.putLong(indexOffset);
+        buffer.putInt(SnapshotFormat.INDEX_MAGIC);
+    }
+
+    private void writeObject(final Thing thing) throws IOException {
+        writeVarint(termIndex(thing.getId()));
+        final int[] typeIndexes = classTypes.get(thing.getClass());
+        writeVarint(typeIndexes.length);
+        for (final int typeIndex : typeIndexes) {
+            writeVarint(typeIndex);
+        }
+        visitPredicates(thing);
+        writeVarint(predicateCount);
+        for (int i = 0; i < predicateCount; i++) {
+            final int id = predicateIds[i];
+            if (id >= predicateIndexes.length || predicateIndexes[id] < 0) {
+                throw changed(thing);
+            }
+            final Set<?> predicateValues = (Set<?>) values[i];
+            writeVarint(predicateIndexes[id]);
+            writeVarint(datatypes[i].ordinal());
+            writeVarint(predicateValues.size());
+            for (final Object value : predicateValues) {
+                writeValue(thing, value);
+            }
+        }
+        Arrays.fill(values, 0, predicateCount, null);
+    }
+
+    private void writeValue(final Thing thing, final Object value) throws IOException {
+        ensure(MAX_VALUE_BYTES);
+        if (value instanceof String) {
+            writeVarint((long) termIndex((String) value) << SnapshotFormat.TAG_BITS | SnapshotFormat.TAG_TERM);
+        } else if (value instanceof IRI) {
+            writeVarint((long) termIndex(((IRI) value).getIri()) << SnapshotFormat.TAG_BITS | SnapshotFormat.TAG_IRI);
+        } else if (value instanceof Double) {
+            writeVarint(SnapshotFormat.TAG_REAL);
+            buffer.putLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Integer) {
+            writeVarint(zigZag((Integer) value) << SnapshotFormat.TAG_BITS | SnapshotFormat.TAG_INTEGER);
+        } else if (value instanceof Long) {
+            writeVarint(SnapshotFormat.TAG_LONG);
+            writeVarint(zigZag((Long) value));
+        } else {
+            throw changed(thing);
+        }
+    }
+
+    private int termIndex(final String term) {
+        final int[] entry = terms.get(term);
+        if (entry == null) {
+            throw new HqdmException("Things changed while a snapshot was being written: " + term);
+        }
+        return entry[1];
+    }
+
+    private static HqdmException changed(final Thing thing) {
+        return new HqdmException("Things changed while a snapshot was being written: " + thing.getId());
+    }
+
+    private static long zigZag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    /**
+     * Gather the non-empty predicates of a thing, with their datatypes.
+     */
+    private void visitPredicates(final Thing thing) {
+        predicateCount = 0;
+        if (thing instanceof HqdmObject) {
+            current = (HqdmObject) thing;
+            current.forEachPredicate(predicateCollector);
+            current = null;
+        } else {
+            thing.getPredicates().forEach((predicate, predicateValues) -> addPredicate(
+                    PredicateRegistry.idOf(predicate), Datatype.UNKNOWN, predicateValues));
+        }
+    }
+
+    private void collectPredicate(final Set<Object> predicateValues, final int predicateId) {
+        addPredicate(predicateId, current.datatypeOf(predicateId), predicateValues);
+    }
+
+    private void addPredicate(final int predicateId, final Datatype datatype, final Set<Object> predicateValues) {
+        if (predicateValues.isEmpty()) {
+            return;
+        }
+        if (predicateCount == predicateIds.length) {
+            predicateIds = Arrays.copyOf(predicateIds, predicateCount * 2);
+            datatypes = Arrays.copyOf(datatypes, predicateCount * 2);
+            values = Arrays.copyOf(values, predicateCount * 2);
+        }
+        predicateIds[predicateCount] = predicateId;
+        datatypes[predicateCount] = datatype;
+        values[predicateCount] = predicateValues;
+        predicateCount++;
+    }
+
+    private void writeVarint(final long value) throws IOException {
+        ensure(MAX_VALUE_BYTES);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) (remaining & 0x7F | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private void writeString(final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        if (bytes.length > buffer.remaining()) {
+            drain();
+        }
+        if (bytes.length > buffer.capacity()) {
+            final ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+            while (wrapped.hasRemaining()) {
+                bytesWritten += channel.write(wrapped);
+            }
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private long position() {
+        return bytesWritten + buffer.position();
+    }
+
+    private void ensure(final int length) throws IOException {
+        if (buffer.remaining() < length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static uk.gov.gchq.hqdm.rdf.iri.RDFS.RDF_TYPE;
+
+import java.util.Arrays;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.exception.IriException;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.rdf.iri.IriPool;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * The predicates and objects of one subject, collected before the subject is built into a
+ * {@link Thing}.
+ *
+ * <p>
+ * Values are held in parallel arrays that grow as needed and are kept between subjects, with the
+ * predicates as their {@link PredicateRegistry} IDs so that they are added to the object without
+ * looking them up again. The HQDM types named by {@code rdf:type} statements are resolved as they
+ * are added, from the type names within the IRIs, so filling the buffer allocates nothing per
+ * statement once it has grown to the size of the largest subject. The result of {@link #validate()}
+ * is kept until the subject changes, so checking a subject and then building it scans it once.
+ * </p>
+ */
+final class SubjectBuffer {
+
+    private static final int RDF_TYPE_ID = PredicateRegistry.idOf(RDF_TYPE.getIri());
+
+    private static final String HQDM_NAMESPACE = HqdmTypes.NAMESPACE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String subject;
+
+    private int[] predicates = new int[INITIAL_CAPACITY];
+
+    private String[] objects = new String[INITIAL_CAPACITY];
+
+    private boolean[] literals = new boolean[INITIAL_CAPACITY];
+
+    private int size;
+
+    private HqdmTypes.HqdmType[] types = new HqdmTypes.HqdmType[2];
+
+    // The IRIs of the types, kept to name an unknown type.
+    private String[] typeIris = new String[2];
+
+    private int typeCount;
+
+    private boolean validated;
+
+    private IngestError.Reason invalidReason;
+
+    /**
+     * Discard the current subject and start collecting values for another.
+     *
+     * @param subject IRI of the new subject, or {@code null} for none.
+     */
+    void reset(final String subject) {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(types, 0, typeCount, null);
+        Arrays.fill(typeIris, 0, typeCount, null);
+        this.subject = subject;
+        size = 0;
+        typeCount = 0;
+        validated = false;
+    }
+
+    /**
+     * The subject values are being collected for.
+     *
+     * @return IRI of the subject, or {@code null} if there is none.
+     */
+    String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Add a predicate and object of the current subject. Objects starting with {@code http} are taken
+     * to be references to other objects, and anything else a literal value.
+     *
+     * @param predicate Predicate IRI.
+     * @param object    Object IRI or literal value.
+     */
+    void add(final String predicate, final String object) {
+        add(PredicateRegistry.idOf(predicate), object, !object.startsWith("http"));
+    }
+
+    /**
+     * Add a predicate ID and object of the current subject.
+     *
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param object      Object IRI or literal value.
+     * @param literal     {@code true} if the object is a literal value, {@code false} if it is an IRI.
+     */
+    void add(final int predicateId, final String object, final boolean literal) {
+        if (size == predicates.length) {
+            predicates = Arrays.copyOf(predicates, size * 2);
+            objects = Arrays.copyOf(objects, size * 2);
+            literals = Arrays.copyOf(literals, size * 2);
+        }
+        predicates[size] = predicateId;
+        objects[size] = object;
+        literals[size] = literal;
+        size++;
+        validated = false;
+
+        if (predicateId == RDF_TYPE_ID && !literal && object.startsWith(HQDM_NAMESPACE)) {
+            if (typeCount == types.length) {
+                types = Arrays.copyOf(types, typeCount * 2);
+                typeIris = Arrays.copyOf(typeIris, typeCount * 2);
+            }
+            types[typeCount] = HqdmTypes.of(object, HQDM_NAMESPACE.length());
+            typeIris[typeCount] = object;
+            typeCount++;
+        }
+    }
+
+    /**
+     * Check whether the current subject can be built, without throwing an exception.
+     *
+     * @return Why the subject cannot be built, or {@code null} if it can.
+     */
+    IngestError.Reason validate() {
+        if (!validated) {
+            invalidReason = check();
+            validated = true;
+        }
+        return invalidReason;
+    }
+
+    private IngestError.Reason check() {
+        if (typeCount == 0) {
+            return IngestError.Reason.NO_TYPE;
+        }
+        if (typeCount == 1) {
+            if (!IRI.isValid(subject)) {
+                return IngestError.Reason.INVALID_IRI;
+            }
+            if (types[0] == null || !types[0].isCreatable()) {
+                return IngestError.Reason.UNKNOWN_TYPE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Describe why the current subject cannot be built.
+     *
+     * @param reason The reason returned by {@link #validate()}.
+     * @return The {@link IngestError}.
+     */
+    IngestError error(final IngestError.Reason reason) {
+        switch (reason) {
+        case INVALID_IRI:
+            return new IngestError(subject, reason, subject);
+        case UNKNOWN_TYPE:
+            return new IngestError(subject, reason, typeName(0));
+        default:
+            return new IngestError(subject, reason, null);
+        }
+    }
+
+    /**
+     * Build the current subject into a {@link Thing}.
+     *
+     * @param pool Pool to intern the subject and object IRIs, or {@code null}.
+     * @return The new {@link Thing}.
+     * @throws HqdmException If the subject has no HQDM type, or a single type that cannot be created.
+     * @throws IriException  If the subject of a single-typed object is not a valid IRI.
+     */
+    Thing build(final IriPool pool) throws HqdmException, IriException {
+        final IngestError.Reason reason = validate();
+        if (reason == IngestError.Reason.NO_TYPE) {
+            throw new HqdmException("No type information for: " + subject);
+        } else if (reason == IngestError.Reason.INVALID_IRI) {
+            throw new IriException("Cannot parse IRI: " + subject);
+        } else if (reason == IngestError.Reason.UNKNOWN_TYPE) {
+            throw new HqdmException("Unknown type name: " + typeName(0));
+        }
+        final String id = pool == null ? subject : pool.intern(subject);
+
+        final Thing result;
+        if (typeCount == 1) {
+            result = types[0].create(id);
+        } else {
+            result = DynamicObjects.create(id, Thing.class, typeClasses());
+        }
+
+        final HqdmObject target = (HqdmObject) result;
+        for (int i = 0; i < size; i++) {
+            final String object = objects[i];
+            if (literals[i]) {
+                target.addStringValue(predicates[i], object);
+            } else {
+                target.addValue(predicates[i], pool == null ? object : pool.intern(object));
+            }
+        }
+        return result;
+    }
+
+    private String typeName(final int index) {
+        return typeIris[index].substring(HQDM_NAMESPACE.length());
+    }
+
+    /**
+     * The model interfaces of the collected types, using {@link Thing} for any that is not known.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Thing> java.lang.Class<T>[] typeClasses() {
+        final java.lang.Class<?>[] classes = new java.lang.Class<?>[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            classes[i] = types[i] == null ? Thing.class : types[i].getModelInterface();
+        }
+        return (java.lang.Class<T>[]) classes;
+    }
+}
@@ -14,29 +14,57 @@
 
 package uk.gov.gchq.hqdm.rdf.iri;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.Objects;
-
 import uk.gov.gchq.hqdm.rdf.exception.IriException;
 
 /**
  * An implementation of Internationalized Resource Identifiers.
+ *
+ * <p>
+ * An IRI is held as the ID of its namespace, the part up to and including the resource separator,
+ * and the resource name. The namespaces are registered process-wide, so the many IRIs that share a
+ * namespace hold only their resource names. The full IRI string is built when first asked for and
+ * then kept, so an IRI whose string is never used does not hold a second copy of its text, and one
+ * whose string is used often does not build it each time. IRIs compare by namespace ID and resource
+ * name, and hash as their full IRI strings would; the hash is computed once.
+ * </p>
  */
 public class IRI {
 
-    private String resource;
+    private final int namespace;
+
+    private final String resource;
+
+    // Hash code of the full IRI string, or 0 if it has not been computed yet.
+    private int hash;
 
+    // The full IRI string, or null if it has not been built yet. Threads that race to build it build
+    // equal strings, so the field needs no synchronization.
     private String iri;
 
     /**
-     * Constructs a new IRI from a base namespace and resource name.
+     * Constructs a new IRI from a base namespace and resource name. Only the resource name is
+     * checked if the namespace is a valid one.
      *
      * @param base     IRI base namespace.
      * @param resource Resource name.
+     * @throws IriException If the IRI is malformed.
      */
-    public IRI(final IriBase base, final String resource) {
-        fromString(base.getNamespace() + resource);
+    public IRI(final IriBase base, final String resource) throws IriException {
+        final int id = base.getNamespaceId();
+        final byte kind = Namespaces.kindOf(id);
+        if (kind != Namespaces.NOT_PREFIX && IriScanner.isResource(resource, kind == Namespaces.FRAGMENT_PREFIX)) {
+            this.namespace = id;
+            this.resource = resource;
+        } else {
+            // The IRI is malformed, or splits somewhere other than at the end of the namespace.
+            final String iri = base.getNamespace() + resource;
+            final int resourceStart = IriScanner.scan(iri);
+            if (resourceStart == IriScanner.INVALID) {
+                throw new IriException("Cannot parse IRI: " + iri);
+            }
+            this.namespace = Namespaces.idOf(iri, resourceStart);
+            this.resource = iri.substring(resourceStart);
+        }
     }
 
     /**
@@ -46,7 +74,22 @@ public class IRI {
      * @throws IriException If the IRI string is malformed.
      */
     public IRI(final String iri) throws IriException {
-        fromString(iri);
+        final int resourceStart = IriScanner.scan(iri);
+        if (resourceStart == IriScanner.INVALID) {
+            throw new IriException("Cannot parse IRI: " + iri);
+        }
+        this.namespace = Namespaces.idOf(iri, resourceStart);
+        this.resource = iri.substring(resourceStart);
+    }
+
+    /**
+     * Check whether a string is a valid IRI without creating one, or an exception if it is not.
+     *
+     * @param iri IRI string.
+     * @return {@code true} if {@link #IRI(String)} would accept the string.
+     */
+    public static boolean isValid(final String iri) {
+        return iri != null && IriScanner.scan(iri) != IriScanner.INVALID;
     }
 
     /**
@@ -59,38 +102,36 @@ public class IRI {
     }
 
     /**
-     * The full IRI string of the resource.
+     * The namespace of the resource, including the trailing separator.
      *
-     * @return IRI string.
+     * @return Namespace string.
      */
-    public String getIri() {
-        return iri;
+    public String getNamespace() {
+        return Namespaces.nameOf(namespace);
     }
 
     /**
-     * Convert a {@link String} to an IRI.
+     * Whether the IRI is in a namespace.
      *
-     * @param iri {@link String}
-     * @throws IriException if the {@link String} is not a valid URL.
+     * @param base IRI base namespace.
+     * @return {@code true} if the namespace of the IRI is that of {@code base}.
      */
-    private void fromString(final String iri) throws IriException {
-        try {
-            new URL(iri);
-            this.iri = iri;
-        } catch (final MalformedURLException m) {
-            throw new IriException("Cannot parse IRI: " + iri);
-        }
+    public boolean isIn(final IriBase base) {
+        return namespace == base.getNamespaceId();
+    }
 
-        int index = iri.lastIndexOf('#');
-        if (index < 0) {
-            index = iri.lastIndexOf('/');
-        }
-        if (index < 0) {
-            throw new IriException("Cannot parse IRI: " + iri);
-        } else {
-            this.resource = iri.substring(index + 1);
+    /**
+     * The full IRI string of the resource, built on the first call.
+     *
+     * @return IRI string.
+     */
+    public String getIri() {
+        String result = iri;
+        if (result == null) {
+            result = Namespaces.nameOf(namespace).concat(resource);
+            iri = result;
         }
-
+        return result;
     }
 
     /**
@@ -107,7 +148,7 @@ public class IRI {
      * Compare to another {@code Object}.
      *
      * @param object Object to compare.
-     * @return True if
+     * @return True if the object is an IRI with the same namespace and resource name.
      */
     @Override
     public boolean equals(final Object object) {
@@ -118,11 +159,25 @@ public class IRI {
             return false;
         }
         final IRI other = (IRI) object;
-        return Objects.equals(this.iri, other.iri);
+        return namespace == other.namespace && resource.equals(other.resource);
     }
 
+    /**
+     * Returns the hash code of the full IRI string, computed without building it.
+     *
+     * @return Hash code.
+     */
     @Override
     public int hashCode() {
-        return iri.hashCode();
+        int result = hash;
+        if (result == 0) {
+            result = Namespaces.nameOf(namespace).hashCode();
+            for (int i = 0; i < resource.length(); i++) {
+                result = 31 * result;
+            }
+            result += resource.hashCode();
+            hash = result;
+        }
+        return result;
     }
 }
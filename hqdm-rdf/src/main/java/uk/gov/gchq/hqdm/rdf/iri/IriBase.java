@@ -69,6 +69,15 @@ public class IriBase {
         return namespace;
     }
 
+    /**
+     * The ID under which the namespace is registered, shared by every {@link IRI} in the namespace.
+     *
+     * @return Namespace ID.
+     */
+    int getNamespaceId() {
+        return Namespaces.idOf(namespace);
+    }
+
     /**
      * Set the URL of the namespace.
      *
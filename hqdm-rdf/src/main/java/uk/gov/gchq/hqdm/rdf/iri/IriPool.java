@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.iri;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pool of canonical IRI strings and {@link IRI} instances.
+ *
+ * <p>
+ * Popular IRIs, such as a common kind or possible world, are referred to by many objects. Passing
+ * each reference through {@link #intern(String)} means all of them share one string rather than
+ * holding a copy each. Entries are held weakly, so an IRI no longer referred to anywhere else can
+ * still be garbage collected. The pool is split into independently locked stripes so that parser
+ * threads rarely contend, and counts hits and misses to show whether pooling is paying off.
+ * </p>
+ *
+ * <p>
+ * The pool is a {@link UnaryOperator}, so it can be passed to
+ * {@link uk.gov.gchq.hqdm.pojo.HqdmObject#setValueInterner(UnaryOperator)} to intern every object
+ * reference added to any HQDM object, and to
+ * {@link uk.gov.gchq.hqdm.rdf.HqdmObjectFactory#setIriPool(IriPool)} to intern the IRIs of objects
+ * built from triples.
+ * </p>
+ */
+public final class IriPool implements UnaryOperator<String> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<String>[] strings = newStripes();
+
+    private final Stripe<IRI>[] iris = newStripes();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Get the canonical instance of an IRI string, adding it to the pool if it is not present.
+     *
+     * @param iri IRI string.
+     * @return The pooled string equal to {@code iri}.
+     */
+    public String intern(final String iri) {
+        return lookup(strings, iri);
+    }
+
+    /**
+     * Get the canonical instance of an {@link IRI}, adding it to the pool if it is not present. The
+     * IRI string of a newly pooled instance is not itself interned.
+     *
+     * @param iri The {@link IRI}.
+     * @return The pooled {@link IRI} equal to {@code iri}.
+     */
+    public IRI intern(final IRI iri) {
+        return lookup(iris, iri);
+    }
+
+    /**
+     * Same as {@link #intern(String)}.
+     *
+     * @param iri IRI string.
+     * @return The pooled string equal to {@code iri}.
+     */
+    @Override
+    public String apply(final String iri) {
+        return lookup(strings, iri);
+    }
+
+    /**
+     * The number of lookups that found an existing entry.
+     *
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * The number of lookups that added a new entry.
+     *
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * The proportion of lookups that found an existing entry.
+     *
+     * @return Hit rate between 0 and 1, or 0 if there have been no lookups.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * The number of strings and {@link IRI}s currently pooled. Entries that have been garbage collected
+     * but not yet cleared may still be counted.
+     *
+     * @return Number of pooled entries.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            size += strings[i].size() + iris[i].size();
+        }
+        return size;
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private <T> T lookup(final Stripe<T>[] stripes, final T value) {
+        if (value == null) {
+            return null;
+        }
+        final int hash = value.hashCode();
+        final T pooled = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)].get(value);
+        if (pooled != null) {
+            hits.increment();
+            return pooled;
+        }
+        misses.increment();
+        return value;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Stripe<T>[] newStripes() {
+        final Stripe<T>[] stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        return stripes;
+    }
+
+    /**
+     * One independently locked part of the pool. The weak map key and the referent of its value are
+     * the same pooled object, so the entry lives exactly as long as the object is used elsewhere.
+     */
+    private static final class Stripe<T> {
+
+        private final Map<T, WeakReference<T>> map = new WeakHashMap<>();
+
+        /**
+         * Get the pooled instance equal to a value, or pool the value and return {@code null}.
+         */
+        synchronized T get(final T value) {
+            final WeakReference<T> reference = map.get(value);
+            if (reference != null) {
+                final T pooled = reference.get();
+                if (pooled != null) {
+                    return pooled;
+                }
+            }
+            map.put(value, new WeakReference<>(value));
+            return null;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
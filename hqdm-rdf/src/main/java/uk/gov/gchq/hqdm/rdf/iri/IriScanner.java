@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.iri;
+
+/**
+ * Single-pass validator for IRI strings.
+ *
+ * <p>
+ * Checks the syntax of RFC 3987 at the level of characters: a scheme of a letter followed by
+ * letters, digits, {@code +}, {@code -} or {@code .}, then a colon, then characters permitted in an
+ * IRI, with every {@code %} followed by two hex digits and at most one {@code #}. Unlike
+ * {@link java.net.URL} any scheme is accepted, including {@code urn:}, and no objects are created.
+ * The structure of the authority and path is not checked further.
+ * </p>
+ */
+final class IriScanner {
+
+    /** Returned by {@link #scan(String)} for strings that are not valid IRIs. */
+    static final int INVALID = -1;
+
+    private IriScanner() {
+    }
+
+    /**
+     * Validate an IRI and find where its resource name starts: after the fragment separator
+     * {@code #} if there is one, otherwise after the last {@code /}, otherwise after the last
+     * {@code :}, as in {@code urn:isbn:0451450523}.
+     *
+     * @param iri IRI string.
+     * @return Index of the first character of the resource name, or {@link #INVALID}.
+     */
+    static int scan(final String iri) {
+        final int length = iri.length();
+        if (length == 0 || !isAlpha(iri.charAt(0))) {
+            return INVALID;
+        }
+
+        int index = 1;
+        while (index < length && isSchemeChar(iri.charAt(index))) {
+            index++;
+        }
+        if (index == length || iri.charAt(index) != ':') {
+            return INVALID;
+        }
+
+        int lastColon = index;
+        int lastSlash = -1;
+        int hash = -1;
+        for (index++; index < length; index++) {
+            final char c = iri.charAt(index);
+            if (c == '%') {
+                if (index + 2 >= length || !isHex(iri.charAt(index + 1)) || !isHex(iri.charAt(index + 2))) {
+                    return INVALID;
+                }
+                index += 2;
+            } else if (c == '#') {
+                if (hash >= 0) {
+                    return INVALID;
+                }
+                hash = index;
+            } else if (c == '/') {
+                lastSlash = index;
+            } else if (c == ':') {
+                lastColon = index;
+            } else if (!isIriChar(c)) {
+                return INVALID;
+            }
+        }
+
+        if (hash >= 0) {
+            return hash + 1;
+        }
+        return (lastSlash >= 0 ? lastSlash : lastColon) + 1;
+    }
+
+    /**
+     * Check whether a string can follow a valid namespace as its resource name: whether appending it
+     * gives a valid IRI that {@link #scan(String)} would split at the end of the namespace.
+     *
+     * @param resource Resource name.
+     * @param fragment Whether the namespace ends with the fragment separator {@code #}, after which
+     *                 {@code /} and {@code :} are part of the resource name.
+     * @return {@code true} if the resource name is valid after such a namespace.
+     */
+    static boolean isResource(final String resource, final boolean fragment) {
+        final int length = resource.length();
+        for (int index = 0; index < length; index++) {
+            final char c = resource.charAt(index);
+            if (c == '%') {
+                if (index + 2 >= length || !isHex(resource.charAt(index + 1)) || !isHex(resource.charAt(index + 2))) {
+                    return false;
+                }
+                index += 2;
+            } else if (c == '/' || c == ':') {
+                if (!fragment) {
+                    return false;
+                }
+            } else if (!isIriChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAlpha(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isSchemeChar(final char c) {
+        return isAlpha(c) || (c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.';
+    }
+
+    private static boolean isHex(final char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Is a character, other than {@code %}, {@code #}, {@code /} and {@code :}, allowed in an IRI.
+     * That is the ASCII unreserved, sub-delims and remaining gen-delims characters, and non-ASCII
+     * characters other than the C1 controls and non-characters. Surrogates are accepted as the halves
+     * of supplementary characters.
+     */
+    private static boolean isIriChar(final char c) {
+        if (c < 0x80) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "-._~!$&'()*+,;=?@[]".indexOf(c) >= 0;
+        }
+        return c >= 0xA0 && c != 0xFFFE && c != 0xFFFF;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.iri;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary of IRI namespaces.
+ *
+ * <p>
+ * Each namespace, the part of an IRI up to and including its last {@code #}, {@code /} or
+ * {@code :}, is assigned a small {@code int} ID the first time it is seen. IDs are never reused or
+ * removed, so an {@link IRI} can hold the ID in place of the namespace string.
+ * </p>
+ */
+final class Namespaces {
+
+    /** A namespace that does not end where {@link IriScanner#scan(String)} would end it. */
+    static final byte NOT_PREFIX = 0;
+
+    /** A valid namespace without a {@code #}, so a resource name cannot contain {@code /} or {@code :}. */
+    static final byte PATH_PREFIX = 1;
+
+    /** A valid namespace ending with the fragment separator {@code #}. */
+    static final byte FRAGMENT_PREFIX = 2;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static final Object LOCK = new Object();
+
+    // Written under LOCK before the ID is published through IDS, so readers never need the lock.
+    private static volatile String[] names = new String[16];
+
+    // Whether each namespace can start an IRI, and whether it has a fragment separator, written with
+    // its name.
+    private static volatile byte[] kinds = new byte[16];
+
+    private static volatile int count;
+
+    // The namespace most recently found by idOf(String, int), checked first to avoid a substring.
+    private static volatile int recent = -1;
+
+    private Namespaces() {
+    }
+
+    /**
+     * Get the ID of a namespace, registering it if it has not been seen before.
+     *
+     * @param namespace Namespace string.
+     * @return ID of the namespace.
+     */
+    static int idOf(final String namespace) {
+        final Integer id = IDS.get(namespace);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LOCK) {
+            final Integer existing = IDS.get(namespace);
+            if (existing != null) {
+                return existing;
+            }
+            final int newId = count;
+            if (newId == names.length) {
+                names = Arrays.copyOf(names, newId * 2);
+                kinds = Arrays.copyOf(kinds, newId * 2);
+            }
+            names[newId] = namespace;
+            kinds[newId] = IriScanner.scan(namespace) != namespace.length() ? NOT_PREFIX
+                    : namespace.indexOf('#') >= 0 ? FRAGMENT_PREFIX : PATH_PREFIX;
+            count = newId + 1;
+            IDS.put(namespace, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Get the ID of the namespace at the start of an IRI, registering it if it has not been seen
+     * before. Consecutive IRIs usually share a namespace, so the most recent one is checked before
+     * copying the namespace out of the IRI.
+     *
+     * @param iri IRI string.
+     * @param end End of the namespace within the IRI.
+     * @return ID of the namespace.
+     */
+    static int idOf(final String iri, final int end) {
+        final int last = recent;
+        if (last >= 0) {
+            final String name = names[last];
+            if (name.length() == end && iri.startsWith(name)) {
+                return last;
+            }
+        }
+        final int id = idOf(iri.substring(0, end));
+        recent = id;
+        return id;
+    }
+
+    /**
+     * Get the namespace registered with an ID.
+     *
+     * @param id ID of the namespace.
+     * @return Namespace string.
+     */
+    static String nameOf(final int id) {
+        return names[id];
+    }
+
+    /**
+     * Get how a namespace can be combined with a resource name.
+     *
+     * @param id ID of the namespace.
+     * @return {@link #NOT_PREFIX}, {@link #PATH_PREFIX} or {@link #FRAGMENT_PREFIX}.
+     */
+    static byte kindOf(final int id) {
+        return kinds[id];
+    }
+}
@@ -0,0 +1,681 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+
+/**
+ * Reads RDF triples in N-Triples or N-Quads format from a memory-mapped file into
+ * {@link TripleBatch}es.
+ *
+ * <p>
+ * The file is mapped a window at a time, each window ending at a line boundary. Blocks of whole
+ * lines are copied out of the window in bulk and tokenised as bytes, which the JIT compiles to much
+ * tighter loops than reads of the mapped buffer itself. Each predicate IRI is decoded once and then
+ * found by its bytes in a small cache of {@link PredicateRegistry} IDs, and consecutive triples of one
+ * subject share the subject string, so in the steady state only the object of each triple is
+ * allocated. The graph label of an N-Quad is ignored. Literals are unescaped; their datatype or
+ * language tag is dropped. Blank nodes are not supported as subjects or objects, since every HQDM
+ * object has an IRI.
+ * </p>
+ *
+ * <p>
+ * A reader covers a byte range of a file. {@link #split(FileChannel, int)} divides a file into
+ * ranges that each start at a line where the subject changes, so that several readers can parse one
+ * file in parallel without splitting the triples of any subject. A reader is not thread-safe.
+ * </p>
+ */
+public final class MappedNtriplesReader {
+
+    /** The default size of the windows mapped into memory. */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private static final int SPLIT_BUFFER_SIZE = 8192;
+
+    private static final int INITIAL_CACHE_SIZE = 64;
+
+    private final FileChannel channel;
+
+    private final long start;
+
+    private final long end;
+
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+
+    // File offset of the start of the window.
+    private long windowStart;
+
+    // Index in the window just past its last complete line.
+    private int windowLimit;
+
+    // Index in the window of the first byte not yet copied to the block.
+    private int windowCursor;
+
+    private byte[] block;
+
+    // File offset of the start of the block.
+    private long blockStart;
+
+    private int blockLimit;
+
+    // Index in the block of the next line to read.
+    private int cursor;
+
+    // Whether the last token scanned contained a backslash.
+    private boolean escaped;
+
+    private byte[] lastSubjectBytes = new byte[256];
+
+    private int lastSubjectLength = -1;
+
+    private String lastSubject;
+
+    // Open-addressed cache of predicate IRI bytes to predicate IDs.
+    private int[] predicateHashes = new int[INITIAL_CACHE_SIZE];
+
+    private byte[][] predicateKeys = new byte[INITIAL_CACHE_SIZE][];
+
+    private int[] predicateIds = new int[INITIAL_CACHE_SIZE];
+
+    private int predicateCount;
+
+    // Thrown by the parser for an invalid line, with the offset and error in the fields below.
+    private final InvalidLine invalidLine = new InvalidLine();
+
+    private long invalidOffset;
+
+    private LineError invalidError;
+
+    /**
+     * Why a line is not a valid triple or quad.
+     */
+    public enum LineError {
+        /** The line does not end with a full stop. */
+        EXPECTED_DOT("expected '.'"),
+
+        /** There is text after the full stop that is not a comment. */
+        TEXT_AFTER_DOT("unexpected text after '.'"),
+
+        /** A subject, predicate or object IRI does not start with {@code <}. */
+        EXPECTED_IRI("expected '<'"),
+
+        /** A blank node is used as a subject or object. */
+        BLANK_NODE("blank nodes are not supported"),
+
+        /** An IRI has no closing {@code >}. */
+        UNTERMINATED_IRI("unterminated IRI"),
+
+        /** A literal has no closing quote. */
+        UNTERMINATED_LITERAL("unterminated literal"),
+
+        /** An IRI or literal holds an escape sequence that is not allowed. */
+        INVALID_ESCAPE("invalid escape sequence");
+
+        private final String description;
+
+        LineError(final String description) {
+            this.description = description;
+        }
+
+        /**
+         * A short description of the error.
+         *
+         * @return Description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * A message for the error at an offset in a file.
+         *
+         * @param offset File offset of the byte the error was found at.
+         * @return Message.
+         */
+        public String message(final long offset) {
+            return "Invalid N-Triples at byte " + offset + ": " + description;
+        }
+    }
+
+    /**
+     * Constructs a new {@code MappedNtriplesReader} for a whole file.
+     *
+     * @param channel Channel of the file to read.
+     * @throws IOException If the size of the file cannot be read.
+     */
+    public MappedNtriplesReader(final FileChannel channel) throws IOException {
+        this(channel, 0, channel.size());
+    }
+
+    /**
+     * Constructs a new {@code MappedNtriplesReader} for a byte range of a file, such as one returned
+     * by {@link #split(FileChannel, int)}.
+     *
+     * @param channel Channel of the file to read.
+     * @param start   Offset of the first byte to read, which must be the start of a line.
+     * @param end     Offset just past the last byte to read, which must be the end of a line or of the
+     *                file.
+     */
+    public MappedNtriplesReader(final FileChannel channel, final long start, final long end) {
+        this(channel, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code MappedNtriplesReader} with a given window size.
+     *
+     * @param channel    Channel of the file to read.
+     * @param start      Offset of the first byte to read.
+     * @param end        Offset just past the last byte to read.
+     * @param windowSize Largest number of bytes to map at once, which must exceed the longest line.
+     */
+    MappedNtriplesReader(final FileChannel channel, final long start, final long end, final int windowSize) {
+        this.channel = channel;
+        this.start = start;
+        this.end = end;
+        this.windowSize = windowSize;
+        this.block = new byte[Math.min(BLOCK_SIZE, windowSize)];
+        this.blockStart = start;
+    }
+
+    /**
+     * Read triples into a batch.
+     *
+     * @param batch The {@link TripleBatch} to add the triples to.
+     * @param max   The largest number of triples to read.
+     * @return The number of triples read, which is 0 only at the end of the range.
+     * @throws IOException   If the file cannot be mapped.
+     * @throws HqdmException If a line is not a valid triple or quad.
+     */
+    public int read(final TripleBatch batch, final int max) throws IOException, HqdmException {
+        return read(batch, max, null);
+    }
+
+    /**
+     * Read triples into a batch, skipping lines that are not valid triples or quads. A skipped line is
+     * reported by its error and the file offset it was found at, and no exception is created for it.
+     *
+     * @param batch        The {@link TripleBatch} to add the triples to.
+     * @param max          The largest number of triples to read.
+     * @param invalidLines Consumer of the error and offset of each line skipped, or {@code null} to
+     *                     throw a {@link HqdmException} instead.
+     * @return The number of triples read, which is 0 only at the end of the range.
+     * @throws IOException   If the file cannot be mapped.
+     * @throws HqdmException If a line is longer than the window, or is not a valid triple or quad and
+     *                       there is no consumer.
+     */
+    public int read(final TripleBatch batch, final int max, final ObjLongConsumer<? super LineError> invalidLines)
+            throws IOException, HqdmException {
+        int count = 0;
+        while (count < max) {
+            if (cursor >= blockLimit && !nextBlock()) {
+                break;
+            }
+            try {
+                if (parseLine(batch)) {
+                    count++;
+                }
+            } catch (final InvalidLine e) {
+                // The cursor is already past the line.
+                if (invalidLines == null) {
+                    throw new HqdmException(invalidError.message(invalidOffset));
+                }
+                invalidLines.accept(invalidError, invalidOffset);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The offset in the file of the next byte to read.
+     *
+     * @return File offset.
+     */
+    public long getPosition() {
+        return blockStart + cursor;
+    }
+
+    /**
+     * Split a file into about equal ranges, each starting at a line whose subject differs from that
+     * of the line before it.
+     *
+     * @param channel Channel of the file to split.
+     * @param parts   The number of ranges wanted; fewer are returned for a small file.
+     * @return Start offset of each range, followed by the size of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long[] split(final FileChannel channel, final int parts) throws IOException {
+        final long size = channel.size();
+        final long[] bounds = new long[Math.max(parts, 1) + 1];
+        int count = 1;
+        for (int i = 1; i < parts; i++) {
+            final long target = Math.max(size * i / parts, bounds[count - 1]);
+            final long bound = nextSubjectStart(channel, target, size);
+            if (bound > bounds[count - 1] && bound < size) {
+                bounds[count++] = bound;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Copy the next block of whole lines out of the window, mapping the next window if need be.
+     */
+    private boolean nextBlock() throws IOException {
+        if ((window == null || windowCursor >= windowLimit) && !nextWindow()) {
+            return false;
+        }
+        while (true) {
+            final int length = Math.min(block.length, windowLimit - windowCursor);
+            window.get(windowCursor, block, 0, length);
+            int limit = length;
+            if (windowCursor + length < windowLimit) {
+                while (limit > 0 && block[limit - 1] != '\n') {
+                    limit--;
+                }
+                if (limit == 0) {
+                    // A line longer than the block: grow it, up to the window size.
+                    block = new byte[block.length * 2];
+                    continue;
+                }
+            }
+            blockStart = windowStart + windowCursor;
+            blockLimit = limit;
+            cursor = 0;
+            windowCursor += limit;
+            return true;
+        }
+    }
+
+    /**
+     * Map the next window, ending it at the last line boundary it contains.
+     */
+    private boolean nextWindow() throws IOException {
+        final long windowOffset = window == null ? start : windowStart + windowLimit;
+        if (windowOffset >= end) {
+            return false;
+        }
+        final int length = (int) Math.min(windowSize, end - windowOffset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowOffset, length);
+        windowStart = windowOffset;
+        windowCursor = 0;
+        windowLimit = length;
+        if (windowOffset + length < end) {
+            while (windowLimit > 0 && window.get(windowLimit - 1) != '\n') {
+                windowLimit--;
+            }
+            if (windowLimit == 0) {
+                throw new HqdmException("Invalid N-Triples at byte " + windowOffset + ": line longer than "
+                        + windowSize + " bytes");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the line at the cursor and move the cursor past it.
+     *
+     * @return {@code true} if the line held a triple.
+     */
+    private boolean parseLine(final TripleBatch batch) {
+        final byte[] bytes = block;
+        final int lineStart = cursor;
+        int lineEnd = lineStart;
+        while (lineEnd < blockLimit && bytes[lineEnd] != '\n') {
+            lineEnd++;
+        }
+        cursor = lineEnd < blockLimit ? lineEnd + 1 : lineEnd;
+
+        int pos = skipSpace(bytes, lineStart, lineEnd);
+        if (pos == lineEnd || bytes[pos] == '#') {
+            return false;
+        }
+        final int subjectEnd = iriEnd(bytes, pos, lineEnd);
+        final String subject = subject(bytes, pos + 1, subjectEnd);
+        pos = skipSpace(bytes, subjectEnd + 1, lineEnd);
+        final int predicateEnd = iriEnd(bytes, pos, lineEnd);
+        final int predicate = predicateId(bytes, pos + 1, predicateEnd);
+        pos = skipSpace(bytes, predicateEnd + 1, lineEnd);
+
+        final String object;
+        final boolean literal;
+        if (pos < lineEnd && bytes[pos] == '"') {
+            final int closingQuote = literalEnd(bytes, pos + 1, lineEnd);
+            object = decode(bytes, pos + 1, closingQuote);
+            literal = true;
+            pos = skipSuffix(bytes, closingQuote + 1, lineEnd);
+        } else {
+            final int objectEnd = iriEnd(bytes, pos, lineEnd);
+            object = decode(bytes, pos + 1, objectEnd);
+            literal = false;
+            pos = objectEnd + 1;
+        }
+
+        pos = skipSpace(bytes, pos, lineEnd);
+        if (pos < lineEnd && bytes[pos] == '<') {
+            // The graph label of an N-Quad.
+            pos = skipSpace(bytes, iriEnd(bytes, pos, lineEnd) + 1, lineEnd);
+        } else if (pos < lineEnd && bytes[pos] == '_') {
+            while (pos < lineEnd && bytes[pos] != ' ' && bytes[pos] != '\t') {
+                pos++;
+            }
+            pos = skipSpace(bytes, pos, lineEnd);
+        }
+        if (pos == lineEnd || bytes[pos] != '.') {
+            throw invalid(pos, LineError.EXPECTED_DOT);
+        }
+        pos = skipSpace(bytes, pos + 1, lineEnd);
+        if (pos < lineEnd && bytes[pos] != '#') {
+            throw invalid(pos, LineError.TEXT_AFTER_DOT);
+        }
+        batch.add(subject, predicate, object, literal);
+        return true;
+    }
+
+    /**
+     * Find the end of an IRI, noting whether it contains an escape.
+     */
+    private int iriEnd(final byte[] bytes, final int iriStart, final int lineEnd) {
+        if (iriStart >= lineEnd || bytes[iriStart] != '<') {
+            throw invalid(iriStart, iriStart < lineEnd && bytes[iriStart] == '_' ? LineError.BLANK_NODE
+                    : LineError.EXPECTED_IRI);
+        }
+        boolean backslash = false;
+        for (int pos = iriStart + 1; pos < lineEnd; pos++) {
+            final byte b = bytes[pos];
+            if (b == '>') {
+                escaped = backslash;
+                return pos;
+            }
+            backslash |= b == '\\';
+        }
+        throw invalid(iriStart, LineError.UNTERMINATED_IRI);
+    }
+
+    /**
+     * Find the closing quote of a literal, stepping over escaped characters.
+     */
+    private int literalEnd(final byte[] bytes, final int literalStart, final int lineEnd) {
+        boolean backslash = false;
+        int pos = literalStart;
+        while (pos < lineEnd) {
+            final byte b = bytes[pos];
+            if (b == '"') {
+                escaped = backslash;
+                return pos;
+            }
+            if (b == '\\') {
+                backslash = true;
+                pos += 2;
+            } else {
+                pos++;
+            }
+        }
+        throw invalid(literalStart, LineError.UNTERMINATED_LITERAL);
+    }
+
+    /**
+     * Skip the datatype or language tag of a literal.
+     */
+    private int skipSuffix(final byte[] bytes, final int suffixStart, final int lineEnd) {
+        if (suffixStart + 1 < lineEnd && bytes[suffixStart] == '^' && bytes[suffixStart + 1] == '^') {
+            return iriEnd(bytes, suffixStart + 2, lineEnd) + 1;
+        }
+        int pos = suffixStart;
+        if (pos < lineEnd && bytes[pos] == '@') {
+            pos++;
+            while (pos < lineEnd && isLanguageTagByte(bytes[pos])) {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean isLanguageTagByte(final byte b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '-';
+    }
+
+    /**
+     * Get the subject string, reusing that of the previous triple if the bytes are the same.
+     */
+    private String subject(final byte[] bytes, final int from, final int to) {
+        final int length = to - from;
+        if (length == lastSubjectLength
+                && Arrays.equals(bytes, from, to, lastSubjectBytes, 0, length)) {
+            return lastSubject;
+        }
+        if (length > lastSubjectBytes.length) {
+            lastSubjectBytes = new byte[Math.max(length, lastSubjectBytes.length * 2)];
+        }
+        System.arraycopy(bytes, from, lastSubjectBytes, 0, length);
+        lastSubjectLength = length;
+        lastSubject = decode(bytes, from, to);
+        return lastSubject;
+    }
+
+    /**
+     * Get the registry ID of a predicate IRI through the cache.
+     */
+    private int predicateId(final byte[] bytes, final int from, final int to) {
+        final boolean predicateEscaped = escaped;
+        int hash = 0;
+        for (int pos = from; pos < to; pos++) {
+            hash = 31 * hash + bytes[pos];
+        }
+        final int mask = predicateKeys.length - 1;
+        int slot = hash & mask;
+        while (predicateKeys[slot] != null) {
+            final byte[] key = predicateKeys[slot];
+            if (predicateHashes[slot] == hash && Arrays.equals(bytes, from, to, key, 0, key.length)) {
+                return predicateIds[slot];
+            }
+            slot = slot + 1 & mask;
+        }
+        escaped = predicateEscaped;
+        final int id = PredicateRegistry.idOf(decode(bytes, from, to));
+        predicateHashes[slot] = hash;
+        predicateKeys[slot] = Arrays.copyOfRange(bytes, from, to);
+        predicateIds[slot] = id;
+        if (++predicateCount * 2 > predicateKeys.length) {
+            growPredicateCache();
+        }
+        return id;
+    }
+
+    private void growPredicateCache() {
+        final int[] hashes = predicateHashes;
+        final byte[][] keys = predicateKeys;
+        final int[] ids = predicateIds;
+        predicateHashes = new int[keys.length * 2];
+        predicateKeys = new byte[keys.length * 2][];
+        predicateIds = new int[keys.length * 2];
+        final int mask = predicateKeys.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                int slot = hashes[i] & mask;
+                while (predicateKeys[slot] != null) {
+                    slot = slot + 1 & mask;
+                }
+                predicateHashes[slot] = hashes[i];
+                predicateKeys[slot] = keys[i];
+                predicateIds[slot] = ids[i];
+            }
+        }
+    }
+
+    /**
+     * Decode the UTF-8 bytes of the last token scanned into a string, unescaping it if need be.
+     */
+    private String decode(final byte[] bytes, final int from, final int to) {
+        final String value = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        if (!escaped) {
+            return value;
+        }
+        try {
+            return NtriplesReader.unescape(value);
+        } catch (final IllegalArgumentException e) {
+            throw invalid(from, LineError.INVALID_ESCAPE);
+        }
+    }
+
+    private static int skipSpace(final byte[] bytes, final int from, final int to) {
+        int pos = from;
+        while (pos < to && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\r')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Note an error in the line being parsed, returning the reusable exception to throw for it.
+     */
+    private InvalidLine invalid(final int index, final LineError error) {
+        invalidOffset = blockStart + index;
+        invalidError = error;
+        return invalidLine;
+    }
+
+    /**
+     * Find the first line at or after an offset whose subject differs from the line before it.
+     */
+    private static long nextSubjectStart(final FileChannel channel, final long offset, final long size)
+            throws IOException {
+        final ForwardScanner scanner = new ForwardScanner(channel, offset == 0 ? 0 : offset - 1);
+        if (offset > 0) {
+            scanner.skipLine();
+        }
+        // Comments and blank lines have no subject, so compare with the first line that has one.
+        byte[] first = scanner.subject();
+        long lineStart = scanner.getPosition();
+        while (first == null && lineStart < size) {
+            scanner.skipLine();
+            lineStart = scanner.getPosition();
+            first = scanner.subject();
+        }
+        while (lineStart < size) {
+            scanner.skipLine();
+            lineStart = scanner.getPosition();
+            final byte[] subject = scanner.subject();
+            if (subject != null && !Arrays.equals(subject, first)) {
+                return lineStart;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reads a file forward through a small buffer, for finding split points.
+     */
+    private static final class ForwardScanner {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(SPLIT_BUFFER_SIZE);
+
+        // File offset of the start of the buffer.
+        private long bufferStart;
+
+        ForwardScanner(final FileChannel channel, final long position) {
+            this.channel = channel;
+            this.bufferStart = position;
+            buffer.limit(0);
+        }
+
+        long getPosition() {
+            return bufferStart + buffer.position();
+        }
+
+        /**
+         * Get the next byte, or -1 at the end of the file.
+         */
+        int next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                bufferStart += buffer.position();
+                buffer.clear();
+                if (channel.read(buffer, bufferStart) <= 0) {
+                    buffer.limit(0);
+                    return -1;
+                }
+                buffer.flip();
+            }
+            return buffer.get();
+        }
+
+        /**
+         * Move past the next line feed.
+         */
+        void skipLine() throws IOException {
+            int b = next();
+            while (b != -1 && b != '\n') {
+                b = next();
+            }
+        }
+
+        /**
+         * Read the subject IRI of the line at the current position without moving past the line, or
+         * {@code null} if the line has none.
+         */
+        byte[] subject() throws IOException {
+            final long start = getPosition();
+            final ByteBuffer copy = ByteBuffer.allocate(SPLIT_BUFFER_SIZE);
+            int b = next();
+            while (b == ' ' || b == '\t') {
+                b = next();
+            }
+            byte[] subject = null;
+            if (b == '<') {
+                b = next();
+                while (b != -1 && b != '>' && b != '\n' && copy.hasRemaining()) {
+                    copy.put((byte) b);
+                    b = next();
+                }
+                subject = Arrays.copyOf(copy.array(), copy.position());
+            }
+            seek(start);
+            return subject;
+        }
+
+        private void seek(final long position) {
+            bufferStart = position;
+            buffer.limit(0);
+        }
+    }
+
+    /**
+     * Thrown within the parser to abandon an invalid line. One instance is reused and it has no stack
+     * trace, so an invalid line costs no more than a valid one.
+     */
+    private static final class InvalidLine extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        InvalidLine() {
+            super(null, null, false, false);
+        }
+    }
+}
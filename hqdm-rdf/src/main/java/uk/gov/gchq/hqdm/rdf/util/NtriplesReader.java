@@ -0,0 +1,256 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+
+/**
+ * Reads RDF triples in N-Triples format into {@link TripleBatch}es.
+ *
+ * <p>
+ * Each line holds one triple of a subject IRI, predicate IRI and object, which is an IRI or a quoted
+ * literal, followed by a full stop. Literals are unescaped; their datatype or language tag is
+ * dropped. Blank lines and comments are skipped. Blank nodes are not supported, since every HQDM
+ * object has an IRI.
+ * </p>
+ */
+public final class NtriplesReader {
+
+    private final BufferedReader reader;
+
+    private long lineNumber;
+
+    /**
+     * Constructs a new {@code NtriplesReader}.
+     *
+     * @param reader Source of N-Triples text.
+     */
+    public NtriplesReader(final Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Read triples into a batch.
+     *
+     * @param batch The {@link TripleBatch} to add the triples to.
+     * @param max   The largest number of triples to read.
+     * @return The number of triples read, which is 0 only at the end of the input.
+     * @throws IOException   If the input cannot be read.
+     * @throws HqdmException If a line is not a valid triple.
+     */
+    public int read(final TripleBatch batch, final int max) throws IOException, HqdmException {
+        int count = 0;
+        while (count < max) {
+            final String line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            lineNumber++;
+            if (parseLine(line, batch)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The number of lines read so far.
+     *
+     * @return Line number of the last line read.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private boolean parseLine(final String line, final TripleBatch batch) {
+        int pos = skipSpace(line, 0);
+        if (pos == line.length() || line.charAt(pos) == '#') {
+            return false;
+        }
+        final int subjectEnd = iriEnd(line, pos);
+        final String subject = unescapeOrFail(line.substring(pos + 1, subjectEnd));
+        pos = skipSpace(line, subjectEnd + 1);
+        final int predicateEnd = iriEnd(line, pos);
+        final String predicate = unescapeOrFail(line.substring(pos + 1, predicateEnd));
+        pos = skipSpace(line, predicateEnd + 1);
+
+        final String object;
+        final boolean literal;
+        if (pos < line.length() && line.charAt(pos) == '"') {
+            final int closingQuote = literalEnd(line, pos + 1);
+            object = unescapeOrFail(line.substring(pos + 1, closingQuote));
+            pos = closingQuote;
+            literal = true;
+            pos = skipSuffix(line, pos + 1);
+        } else {
+            final int objectEnd = iriEnd(line, pos);
+            object = unescapeOrFail(line.substring(pos + 1, objectEnd));
+            literal = false;
+            pos = objectEnd + 1;
+        }
+
+        pos = skipSpace(line, pos);
+        if (pos == line.length() || line.charAt(pos) != '.') {
+            throw invalid("expected '.'");
+        }
+        pos = skipSpace(line, pos + 1);
+        if (pos < line.length() && line.charAt(pos) != '#') {
+            throw invalid("unexpected text after '.'");
+        }
+        batch.add(subject, predicate, object, literal);
+        return true;
+    }
+
+    private int iriEnd(final String line, final int start) {
+        if (start >= line.length() || line.charAt(start) != '<') {
+            throw invalid(start < line.length() && line.charAt(start) == '_' ? "blank nodes are not supported"
+                    : "expected '<'");
+        }
+        final int end = line.indexOf('>', start + 1);
+        if (end < 0) {
+            throw invalid("unterminated IRI");
+        }
+        return end;
+    }
+
+    /**
+     * Find the closing quote of a literal, stepping over escaped characters.
+     */
+    private int literalEnd(final String line, final int start) {
+        int pos = start;
+        while (pos < line.length()) {
+            final char c = line.charAt(pos);
+            if (c == '"') {
+                return pos;
+            }
+            pos += c == '\\' ? 2 : 1;
+        }
+        throw invalid("unterminated literal");
+    }
+
+    private String unescapeOrFail(final String value) {
+        try {
+            return unescape(value);
+        } catch (final IllegalArgumentException e) {
+            throw invalid(e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the escape sequences allowed in N-Triples IRIs and literals by the characters they
+     * stand for.
+     *
+     * @param value Text that may contain escape sequences.
+     * @return The unescaped text, which is {@code value} itself if it has none.
+     * @throws IllegalArgumentException If an escape sequence is invalid.
+     */
+    static String unescape(final String value) {
+        int pos = value.indexOf('\\');
+        if (pos < 0) {
+            return value;
+        }
+        final StringBuilder result = new StringBuilder(value.length()).append(value, 0, pos);
+        while (pos < value.length()) {
+            final char c = value.charAt(pos);
+            if (c != '\\') {
+                result.append(c);
+                pos++;
+                continue;
+            }
+            if (pos + 1 >= value.length()) {
+                throw new IllegalArgumentException("truncated escape");
+            }
+            final char escaped = value.charAt(pos + 1);
+            pos += 2;
+            switch (escaped) {
+            case 't':
+                result.append('\t');
+                break;
+            case 'b':
+                result.append('\b');
+                break;
+            case 'n':
+                result.append('\n');
+                break;
+            case 'r':
+                result.append('\r');
+                break;
+            case 'f':
+                result.append('\f');
+                break;
+            case '"':
+            case '\'':
+            case '\\':
+                result.append(escaped);
+                break;
+            case 'u':
+                result.append((char) hex(value, pos, 4));
+                pos += 4;
+                break;
+            case 'U':
+                result.appendCodePoint(hex(value, pos, 8));
+                pos += 8;
+                break;
+            default:
+                throw new IllegalArgumentException("invalid escape \\" + escaped);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Skip the datatype or language tag of a literal.
+     */
+    private int skipSuffix(final String line, final int start) {
+        if (line.startsWith("^^", start)) {
+            return iriEnd(line, start + 2) + 1;
+        }
+        int pos = start;
+        if (pos < line.length() && line.charAt(pos) == '@') {
+            pos++;
+            while (pos < line.length() && (Character.isLetterOrDigit(line.charAt(pos)) || line.charAt(pos) == '-')) {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private static int hex(final String value, final int start, final int digits) {
+        if (start + digits > value.length()) {
+            throw new IllegalArgumentException("truncated escape");
+        }
+        try {
+            return Integer.parseInt(value, start, start + digits, 16);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("invalid escape");
+        }
+    }
+
+    private static int skipSpace(final String line, final int start) {
+        int pos = start;
+        while (pos < line.length() && (line.charAt(pos) == ' ' || line.charAt(pos) == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private HqdmException invalid(final String reason) {
+        return new HqdmException("Invalid N-Triples at line " + lineNumber + ": " + reason);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+
+/**
+ * A batch of RDF triples held in columns.
+ *
+ * <p>
+ * Subjects and objects are held in parallel arrays, predicates as their {@link PredicateRegistry}
+ * IDs, and a flag for each triple records whether its object is a literal value or a reference to
+ * another object. Consecutive triples of the same subject share one subject string.
+ * </p>
+ *
+ * <p>
+ * The arrays grow as triples are added and keep their size when the batch is {@link #clear()
+ * cleared}, so a pipeline can cycle a fixed set of batches without allocating once they have grown
+ * to the size of its largest batch. A batch is not thread-safe.
+ * </p>
+ */
+public final class TripleBatch {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private String[] subjects;
+
+    private int[] predicates;
+
+    private String[] objects;
+
+    private boolean[] literals;
+
+    private int size;
+
+    /**
+     * Constructs a new, empty {@code TripleBatch}.
+     */
+    public TripleBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty {@code TripleBatch} with room for a number of triples.
+     *
+     * @param capacity Initial number of triples.
+     */
+    public TripleBatch(final int capacity) {
+        final int initial = Math.max(1, capacity);
+        subjects = new String[initial];
+        predicates = new int[initial];
+        objects = new String[initial];
+        literals = new boolean[initial];
+    }
+
+    /**
+     * Add a triple.
+     *
+     * @param subject   Subject IRI.
+     * @param predicate Predicate IRI.
+     * @param object    Object IRI or literal value.
+     * @param literal   {@code true} if the object is a literal value, {@code false} if it is an IRI.
+     */
+    public void add(final String subject, final String predicate, final String object, final boolean literal) {
+        add(subject, PredicateRegistry.idOf(predicate), object, literal);
+    }
+
+    /**
+     * Add a triple with a predicate ID.
+     *
+     * @param subject     Subject IRI.
+     * @param predicateId Predicate ID from the {@link PredicateRegistry}.
+     * @param object      Object IRI or literal value.
+     * @param literal     {@code true} if the object is a literal value, {@code false} if it is an IRI.
+     */
+    public void add(final String subject, final int predicateId, final String object, final boolean literal) {
+        if (size == subjects.length) {
+            final int capacity = size * 2;
+            subjects = Arrays.copyOf(subjects, capacity);
+            predicates = Arrays.copyOf(predicates, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            literals = Arrays.copyOf(literals, capacity);
+        }
+        // Share the previous subject string if this is the same subject.
+        subjects[size] = size > 0 && subject.equals(subjects[size - 1]) ? subjects[size - 1] : subject;
+        predicates[size] = predicateId;
+        objects[size] = object;
+        literals[size] = literal;
+        size++;
+    }
+
+    /**
+     * The number of triples in the batch.
+     *
+     * @return Number of triples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the batch holds no triples.
+     *
+     * @return {@code true} if the batch is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all the triples, keeping the space they used.
+     */
+    public void clear() {
+        Arrays.fill(subjects, 0, size, null);
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Get the subject of a triple.
+     *
+     * @param index Index of the triple.
+     * @return Subject IRI.
+     */
+    public String getSubject(final int index) {
+        return subjects[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Get the predicate ID of a triple.
+     *
+     * @param index Index of the triple.
+     * @return Predicate ID from the {@link PredicateRegistry}.
+     */
+    public int getPredicateId(final int index) {
+        return predicates[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Get the predicate of a triple.
+     *
+     * @param index Index of the triple.
+     * @return Predicate IRI.
+     */
+    public String getPredicate(final int index) {
+        return PredicateRegistry.nameOf(getPredicateId(index));
+    }
+
+    /**
+     * Get the object of a triple.
+     *
+     * @param index Index of the triple.
+     * @return Object IRI or literal value.
+     */
+    public String getObject(final int index) {
+        return objects[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Whether the object of a triple is a literal value.
+     *
+     * @param index Index of the triple.
+     * @return {@code true} if the object is a literal value, {@code false} if it is an IRI.
+     */
+    public boolean isLiteral(final int index) {
+        return literals[Objects.checkIndex(index, size)];
+    }
+}
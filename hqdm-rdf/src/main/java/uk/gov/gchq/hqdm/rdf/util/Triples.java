@@ -14,20 +14,25 @@
 
 package uk.gov.gchq.hqdm.rdf.util;
 
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.Datatype;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
 import uk.gov.gchq.hqdm.rdf.iri.IRI;
 
 /**
  * Convert Things to Triple strings.
+ *
+ * <p>
+ * The literal datatype of each value is the {@link Datatype} a {@link HqdmObject} recorded when the
+ * value was added. Values of an unknown kind are classified by their form with
+ * {@link Datatype#ofLiteral(String)}.
+ * </p>
  */
 public abstract class Triples {
 
-    private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
-    private static final Pattern DATE_TIME_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}.*");
-
     /**
      * Convert a thing to triples.
      *
@@ -37,27 +42,67 @@ public abstract class Triples {
     public static String toTriples(final Thing thing) {
         final String predicatesString = thing.getPredicates().entrySet().stream().map(predicate -> {
             final String predicateString = "<" + predicate.getKey().toString() + "> ";
+            final Datatype datatype = datatypeOf(thing, predicate.getKey());
 
-            return predicate.getValue().stream().map(value -> predicateString + toTripleString(value))
+            return predicate.getValue().stream().map(value -> predicateString + toTripleString(value, datatype))
                     .collect(Collectors.joining(";\n"));
         }).collect(Collectors.joining(";\n"));
 
         return '<' + thing.getId() + "> " + predicatesString + ".\n";
     }
 
+    /**
+     * Append the triples of a thing to a batch. Values recorded as {@link Datatype#REFERENCE}s are
+     * added as references to other objects. Where the kind is not known, values that are {@link IRI}s,
+     * or strings starting with {@code http}, are added as references and everything else as literal
+     * values, matching how {@link uk.gov.gchq.hqdm.rdf.HqdmObjectFactory} reads them back.
+     *
+     * @param thing The {@link Thing} to convert.
+     * @param batch The {@link TripleBatch} to add the triples to.
+     * @return The batch.
+     */
+    public static TripleBatch toTripleBatch(final Thing thing, final TripleBatch batch) {
+        final String subject = thing.getId();
+        thing.getPredicates().forEach((predicate, values) -> {
+            final int predicateId = PredicateRegistry.idOf(predicate);
+            final Datatype datatype = datatypeOf(thing, predicate);
+            for (final Object value : values) {
+                final String object = value.toString();
+                final boolean reference = datatype == Datatype.REFERENCE || value instanceof IRI
+                        || datatype == Datatype.UNKNOWN && value instanceof String && object.startsWith("http");
+                batch.add(subject, predicateId, object, !reference);
+            }
+        });
+        return batch;
+    }
+
+    /**
+     * Get the recorded kind of the values of a predicate of a thing.
+     *
+     * @param thing     The {@link Thing}.
+     * @param predicate IRI of the predicate.
+     * @return The {@link Datatype}, {@link Datatype#UNKNOWN} if the thing does not record it.
+     */
+    private static Datatype datatypeOf(final Thing thing, final String predicate) {
+        return thing instanceof HqdmObject ? ((HqdmObject) thing).datatypeOf(PredicateRegistry.lookup(predicate))
+                : Datatype.UNKNOWN;
+    }
+
     /**
      * Convert an object to a triple string.
      *
-     * @param object The object to convert.
+     * @param object   The object to convert.
+     * @param datatype The recorded kind of the object.
      * @return {@link String}.
      */
-    private static String toTripleString(final Object object) {
+    private static String toTripleString(final Object object, final Datatype datatype) {
         final String stringValue = object.toString();
+        final Datatype kind = datatype == Datatype.UNKNOWN ? Datatype.ofLiteral(stringValue) : datatype;
         if (object instanceof IRI) {
             return '<' + stringValue + '>';
-        } else if (DATE_TIME_PATTERN.matcher(stringValue).matches()) {
+        } else if (kind == Datatype.DATE_TIME) {
             return "\"" + object + "\"^^<http://www.w3.org/2001/XMLSchema#dateTime>";
-        } else if (DATE_PATTERN.matcher(stringValue).matches()) {
+        } else if (kind == Datatype.DATE) {
             return "\"" + object + "\"^^<http://www.w3.org/2001/XMLSchema#date>";
         } else if (object instanceof String) {
             return "\"\"\"" + object + "\"\"\"^^<http://www.w3.org/2001/XMLSchema#string>";
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.Datatype;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+
+/**
+ * Writes Things as N-Triples, encoding them straight into a reusable buffer that is drained to an
+ * {@link OutputStream} or {@link WritableByteChannel}.
+ *
+ * <p>
+ * Values are written as {@link Triples#toTriples(Thing)} formats them, but one triple to a line with
+ * escaped literals so that the output is valid N-Triples. The {@link Datatype} recorded by a
+ * {@link HqdmObject} decides whether a value is a reference and which literal datatype it has. Where
+ * it is not known, {@link IRI}s and strings starting with {@code http} are written as references, as
+ * {@link Triples#toTripleBatch(Thing, TripleBatch)} does, and the literal datatype is taken from the
+ * form of the value.
+ * </p>
+ *
+ * <p>
+ * The UTF-8 form of each predicate IRI is encoded once and cached by {@link PredicateRegistry} ID.
+ * Subjects, strings and integers are encoded character by character, and the predicates of a
+ * {@link HqdmObject} are visited in place, so writing string and integer values allocates nothing
+ * once the caches are warm. A writer is not thread-safe.
+ * </p>
+ */
+public final class TriplesWriter implements Closeable, Flushable {
+
+    /** The default size of the buffer in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] NO_BYTES = {};
+
+    private static final byte[] END = encode(" .\n");
+
+    private static final byte[] STRING_TYPE = encode("^^<http://www.w3.org/2001/XMLSchema#string>");
+
+    private static final byte[] INTEGER_TYPE = encode("^^<http://www.w3.org/2001/XMLSchema#integer>");
+
+    private static final byte[] DATE_TYPE = encode("^^<http://www.w3.org/2001/XMLSchema#date>");
+
+    private static final byte[] DATE_TIME_TYPE = encode("^^<http://www.w3.org/2001/XMLSchema#dateTime>");
+
+    // Room for the largest UTF-8 encoding of one character, or an escape.
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private final OutputStream out;
+
+    private final WritableByteChannel channel;
+
+    private final byte[] buffer;
+
+    private final ByteBuffer channelBuffer;
+
+    private final ObjIntConsumer<Set<Object>> predicateWriter = this::writePredicate;
+
+    // The object whose predicates are being visited.
+    private HqdmObject current;
+
+    // "<predicate> " for each predicate ID, encoded on first use.
+    private byte[][] predicates = new byte[0][];
+
+    // "<subject> " for the object being written.
+    private byte[] subject = new byte[256];
+
+    private int subjectLength;
+
+    private int position;
+
+    private long bytesWritten;
+
+    /**
+     * Constructs a new {@code TriplesWriter} writing to an {@link OutputStream}.
+     *
+     * @param out The {@link OutputStream}.
+     */
+    public TriplesWriter(final OutputStream out) {
+        this(out, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code TriplesWriter} writing to a {@link WritableByteChannel}.
+     *
+     * @param channel The {@link WritableByteChannel}.
+     */
+    public TriplesWriter(final WritableByteChannel channel) {
+        this(null, channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code TriplesWriter} with a buffer of the given size.
+     *
+     * @param out        The {@link OutputStream}, or {@code null} to write to a channel.
+     * @param channel    The {@link WritableByteChannel}, or {@code null} to write to a stream.
+     * @param bufferSize Size of the buffer in bytes.
+     */
+    public TriplesWriter(final OutputStream out, final WritableByteChannel channel, final int bufferSize) {
+        if ((out == null) == (channel == null)) {
+            throw new IllegalArgumentException("Exactly one of out and channel must be given");
+        }
+        if (bufferSize < MAX_CHAR_BYTES) {
+            throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+        }
+        this.out = out;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.channelBuffer = channel == null ? null : ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Write the triples of a thing.
+     *
+     * @param thing The {@link Thing} to write.
+     * @throws IOException If the output cannot be written.
+     */
+    public void write(final Thing thing) throws IOException {
+        startSubject(thing.getId());
+        try {
+            if (thing instanceof HqdmObject) {
+                current = (HqdmObject) thing;
+                current.forEachPredicate(predicateWriter);
+            } else {
+                for (final Map.Entry<String, Set<Object>> entry : thing.getPredicates().entrySet()) {
+                    writeValues(entry.getValue(), PredicateRegistry.idOf(entry.getKey()), Datatype.UNKNOWN);
+                }
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            current = null;
+        }
+    }
+
+    /**
+     * Write a single triple.
+     *
+     * @param subjectId ID of the subject.
+     * @param predicate IRI of the predicate.
+     * @param value     The value, formatted as for a value of a {@link Thing}.
+     * @throws IOException If the output cannot be written.
+     */
+    public void writeTriple(final String subjectId, final String predicate, final Object value) throws IOException {
+        startSubject(subjectId);
+        writeValue(predicateBytes(PredicateRegistry.idOf(predicate)), value, Datatype.UNKNOWN);
+    }
+
+    /**
+     * The number of bytes written so far, including those still in the buffer.
+     *
+     * @return Number of bytes.
+     */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    /**
+     * Write out the buffer and flush the stream.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Write out the buffer and close the stream or channel.
+     *
+     * @throws IOException If the output cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            if (out != null) {
+                out.close();
+            } else {
+                channel.close();
+            }
+        }
+    }
+
+    private void startSubject(final String id) {
+        subjectLength = 0;
+        appendToSubject((byte) '<');
+        for (int i = 0; i < id.length(); i++) {
+            final int c = id.codePointAt(i);
+            if (c >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            if (subjectLength + MAX_CHAR_BYTES + 2 > subject.length) {
+                subject = Arrays.copyOf(subject, subject.length * 2);
+            }
+            subjectLength = encodeCodePoint(c, subject, subjectLength);
+        }
+        appendToSubject((byte) '>');
+        appendToSubject((byte) ' ');
+    }
+
+    private void appendToSubject(final byte b) {
+        if (subjectLength == subject.length) {
+            subject = Arrays.copyOf(subject, subject.length * 2);
+        }
+        subject[subjectLength++] = b;
+    }
+
+    private void writePredicate(final Set<Object> values, final int predicateId) {
+        writeValues(values, predicateId, current.datatypeOf(predicateId));
+    }
+
+    private void writeValues(final Set<Object> values, final int predicateId, final Datatype datatype) {
+        final byte[] predicate = predicateBytes(predicateId);
+        try {
+            for (final Object value : values) {
+                writeValue(predicate, value, datatype);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] predicateBytes(final int predicateId) {
+        if (predicateId >= predicates.length) {
+            predicates = Arrays.copyOf(predicates, Math.max(predicateId + 1, PredicateRegistry.size()));
+        }
+        byte[] bytes = predicates[predicateId];
+        if (bytes == null) {
+            bytes = encode('<' + PredicateRegistry.nameOf(predicateId) + "> ");
+            predicates[predicateId] = bytes;
+        }
+        return bytes;
+    }
+
+    private void writeValue(final byte[] predicate, final Object value, final Datatype datatype)
+            throws IOException {
+        writeBytes(subject, subjectLength);
+        writeBytes(predicate, predicate.length);
+        if (value instanceof IRI) {
+            final IRI iri = (IRI) value;
+            writeByte('<');
+            writeString(iri.getNamespace(), false);
+            writeString(iri.getResource(), false);
+            writeByte('>');
+        } else if (datatype == Datatype.REFERENCE
+                || datatype == Datatype.UNKNOWN && value instanceof String && ((String) value).startsWith("http")) {
+            writeReference(value.toString());
+        } else if (value instanceof String) {
+            final String string = (String) value;
+            writeLiteral(string);
+            writeBytes(typeOf(string, datatype, STRING_TYPE), -1);
+        } else if (value instanceof Integer || value instanceof Long) {
+            writeByte('"');
+            writeLong(((Number) value).longValue());
+            writeByte('"');
+            writeBytes(INTEGER_TYPE, INTEGER_TYPE.length);
+        } else {
+            final String string = String.valueOf(value);
+            writeLiteral(string);
+            writeBytes(typeOf(string, datatype, NO_BYTES), -1);
+        }
+        writeBytes(END, END.length);
+    }
+
+    private void writeReference(final String iri) throws IOException {
+        writeByte('<');
+        writeString(iri, false);
+        writeByte('>');
+    }
+
+    private void writeLiteral(final String value) throws IOException {
+        writeByte('"');
+        writeString(value, true);
+        writeByte('"');
+    }
+
+    private void writeString(final String value, final boolean escape) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            final int c = value.codePointAt(i);
+            if (c >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                i++;
+            }
+            if (position + MAX_CHAR_BYTES > buffer.length) {
+                drain();
+            }
+            if (escape && (c == '"' || c == '\\' || c == '\n' || c == '\r')) {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) (c == '\n' ? 'n' : c == '\r' ? 'r' : c);
+            } else {
+                position = encodeCodePoint(c, buffer, position);
+            }
+        }
+    }
+
+    private void writeLong(final long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeString(Long.toString(value), false);
+            return;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            writeByte('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (remaining / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            writeByte((char) ('0' + remaining / divisor % 10));
+        }
+    }
+
+    private void writeByte(final char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    /**
+     * Write the first {@code length} bytes of an array, or all of it if {@code length} is negative.
+     */
+    private void writeBytes(final byte[] bytes, final int length) throws IOException {
+        final int count = length < 0 ? bytes.length : length;
+        int offset = 0;
+        while (offset < count) {
+            if (position == buffer.length) {
+                drain();
+            }
+            final int chunk = Math.min(count - offset, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buffer, 0, position);
+        } else {
+            channelBuffer.clear().limit(position);
+            while (channelBuffer.hasRemaining()) {
+                channel.write(channelBuffer);
+            }
+        }
+        bytesWritten += position;
+        position = 0;
+    }
+
+    /**
+     * Choose the datatype of a literal: dates and date-times as recorded, or by their form if that is
+     * not known, otherwise the default.
+     */
+    private static byte[] typeOf(final String value, final Datatype datatype, final byte[] otherwise) {
+        switch (datatype == Datatype.UNKNOWN ? Datatype.ofLiteral(value) : datatype) {
+        case DATE:
+            return DATE_TYPE;
+        case DATE_TIME:
+            return DATE_TIME_TYPE;
+        default:
+            return otherwise;
+        }
+    }
+
+    private static int encodeCodePoint(final int c, final byte[] target, final int offset) {
+        int index = offset;
+        if (c < 0x80) {
+            target[index++] = (byte) c;
+        } else if (c < 0x800) {
+            target[index++] = (byte) (0xC0 | c >> 6);
+            target[index++] = (byte) (0x80 | c & 0x3F);
+        } else if (c < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            target[index++] = (byte) (0xE0 | c >> 12);
+            target[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+            target[index++] = (byte) (0x80 | c & 0x3F);
+        } else {
+            target[index++] = (byte) (0xF0 | c >> 18);
+            target[index++] = (byte) (0x80 | c >> 12 & 0x3F);
+            target[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+            target[index++] = (byte) (0x80 | c & 0x3F);
+        }
+        return index;
+    }
+
+    private static byte[] encode(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
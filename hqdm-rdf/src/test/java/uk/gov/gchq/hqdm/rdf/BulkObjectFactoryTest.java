@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+
+/**
+ * Tests for the {@link BulkObjectFactory}.
+ */
+public class BulkObjectFactoryTest {
+
+    private static final String PERSON1 = HQDM.HQDM.getNamespace() + "person1";
+
+    private static final String PERSON2 = HQDM.HQDM.getNamespace() + "person2";
+
+    /**
+     * Test building objects from a stream of triples grouped by subject.
+     */
+    @Test
+    public void testCreateFromStream() {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        final Stream<String[]> triples = Stream.of(
+                new String[] { PERSON1, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() },
+                new String[] { PERSON1, HQDM.ENTITY_NAME.getIri(), "person1" },
+                new String[] { PERSON2, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() },
+                new String[] { PERSON2, RDFS.RDF_TYPE.getIri(), HQDM.PARTICIPANT.getIri() },
+                new String[] { PERSON2, HQDM.MEMBER_OF.getIri(), PERSON1 });
+
+        final List<Thing> things = factory.create(triples, t -> t[0], t -> t[1], t -> t[2])
+                .collect(Collectors.toList());
+
+        assertEquals(2, things.size());
+        assertEquals(PERSON1, things.get(0).getId());
+        assertTrue(things.get(0) instanceof Person);
+        assertEquals(Set.of("person1"), things.get(0).value(HQDM.ENTITY_NAME.getIri()));
+        assertTrue(things.get(1) instanceof Participant);
+        assertTrue(things.get(1).hasThisValue(HQDM.MEMBER_OF.getIri(), PERSON1));
+        assertEquals(2, factory.getObjectCount());
+        assertEquals(5, factory.getTripleCount());
+    }
+
+    /**
+     * Test that a subject that cannot be built does not affect the next subject.
+     */
+    @Test
+    public void testSubjectWithoutType() {
+        final BulkObjectFactory factory = new BulkObjectFactory();
+        assertNull(factory.add(PERSON1, HQDM.ENTITY_NAME.getIri(), "person1"));
+        try {
+            factory.add(PERSON2, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri());
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+
+        final Thing person = factory.flush();
+        assertEquals(PERSON2, person.getId());
+        assertNull(factory.flush());
+        assertEquals(1, factory.getObjectCount());
+    }
+
+    /**
+     * Test that bad subjects are reported to an error sink and skipped.
+     */
+    @Test
+    public void testCollectErrors() {
+        final List<IngestError> errors = new ArrayList<>();
+        final BulkObjectFactory factory = new BulkObjectFactory(errors::add);
+        final Stream<String[]> triples = Stream.of(
+                new String[] { PERSON1, HQDM.ENTITY_NAME.getIri(), "untyped" },
+                new String[] { "not an iri", RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() },
+                new String[] { PERSON2, RDFS.RDF_TYPE.getIri(), HQDM.HQDM.getNamespace() + "no_such_type" },
+                new String[] { PERSON2 + "x", RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() });
+
+        final List<Thing> things = factory.create(triples, t -> t[0], t -> t[1], t -> t[2])
+                .collect(Collectors.toList());
+
+        assertEquals(1, things.size());
+        assertEquals(PERSON2 + "x", things.get(0).getId());
+        assertEquals(3, factory.getErrorCount());
+        assertEquals(1, factory.getErrorCount(IngestError.Reason.INVALID_IRI));
+        assertEquals(IngestError.Reason.NO_TYPE, errors.get(0).getReason());
+        assertEquals(PERSON1, errors.get(0).getSubject());
+        assertEquals("not an iri", errors.get(1).getValue());
+        assertEquals(IngestError.Reason.UNKNOWN_TYPE, errors.get(2).getReason());
+        assertEquals("no_such_type", errors.get(2).getValue());
+    }
+}
@@ -15,7 +15,10 @@
 package uk.gov.gchq.hqdm.rdf;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -24,8 +27,11 @@ import java.util.Set;
 import org.junit.Test;
 
 import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.ClassOfPerson;
+import uk.gov.gchq.hqdm.model.Function_;
 import uk.gov.gchq.hqdm.model.Participant;
 import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
 import uk.gov.gchq.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.hqdm.rdf.iri.HqdmIri;
 import uk.gov.gchq.hqdm.rdf.iri.IRI;
@@ -108,4 +114,46 @@ public class HqdmObjectFactoryTest {
         assertEquals(Set.of(personId), person.value(HQDM.ENTITY_NAME.getIri()));
         assertEquals(personIri.getIri(), person.getId());
     }
+
+    /**
+     * Test that types are found by constant, by an equal IRI, by name and by the name within an IRI
+     * alike, and that only HQDM type names are types.
+     */
+    @Test
+    public void testTypeLookup() {
+        final HqdmTypes.HqdmType type = HqdmTypes.of(HQDM.CLASS_OF_PERSON);
+
+        assertEquals(ClassOfPerson.class, type.getModelInterface());
+        assertSame(type, HqdmTypes.of(HQDM.CLASS_OF_PERSON));
+        assertSame(type, HqdmTypes.of(new HqdmIri(HQDM.HQDM, "class_of_person")));
+        assertSame(type, HqdmTypes.of("class_of_person"));
+        assertSame(type, HqdmTypes.of(HQDM.CLASS_OF_PERSON.getIri(), HqdmTypes.NAMESPACE.length()));
+        assertNull(HqdmTypes.of(HQDM.CLASS_OF_PERSON.getIri() + "s", HqdmTypes.NAMESPACE.length()));
+        assertSame(type.getIri(), type.getIri());
+        assertEquals(HQDM.CLASS_OF_PERSON, type.getIri());
+        assertEquals(Function_.class, HqdmTypes.of(HQDM.FUNCTION_).getModelInterface());
+        assertFalse(HqdmTypes.of(HQDM.ENUMERATED_CLASS).isCreatable());
+        assertNull(HqdmTypes.of("ClassOfPerson"));
+        assertNull(HqdmTypes.of("not_a_type"));
+    }
+
+    /**
+     * Test that every HQDM type that can be created directly creates an instance of its model
+     * interface.
+     */
+    @Test
+    public void testCreateEveryType() {
+        assertEquals(HQDM.HQDM.getNamespace(), HqdmTypes.NAMESPACE);
+        for (final HqdmTypes.HqdmType type : HqdmTypes.values()) {
+            if (type.getName().equals(HQDM.ENUMERATED_CLASS.getResource())) {
+                continue;
+            }
+            final var iri = new IRI(HQDM.HQDM, "object_" + type.getName());
+
+            final Thing thing = HqdmObjectFactory.create(type.getIri(), iri);
+
+            assertTrue(type.getName(), type.getModelInterface().isInstance(thing));
+            assertEquals(iri.getIri(), thing.getId());
+        }
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+
+/**
+ * Tests for the {@link ParallelObjectLoader}.
+ */
+public class ParallelObjectLoaderTest {
+
+    private static final int SUBJECTS = 1000;
+
+    private static ForkJoinPool pool;
+
+    /** Temporary folder for N-Triples files. */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Create a pool with several workers.
+     */
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Shut the pool down.
+     */
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Test that objects are delivered in input order, and that the statistics cover every object.
+     */
+    @Test
+    public void testLoadInInputOrder() {
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, ParallelObjectLoader.Order.INPUT);
+
+        final Map<String, Thing> things = loader.load(triples(), t -> t[0], t -> t[1], t -> t[2]);
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            expected.add(subject(i));
+        }
+        assertEquals(expected, new ArrayList<>(things.keySet()));
+        assertTrue(things.get(subject(7)) instanceof Person);
+        assertEquals(SUBJECTS, loader.getWorkerStatistics().stream()
+                .mapToLong(ParallelObjectLoader.WorkerStatistics::getObjectCount).sum());
+        assertEquals(SUBJECTS * 3, loader.getWorkerStatistics().stream()
+                .mapToLong(ParallelObjectLoader.WorkerStatistics::getTripleCount).sum());
+    }
+
+    /**
+     * Test that unordered loading builds every object.
+     */
+    @Test
+    public void testLoadUnordered() {
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, ParallelObjectLoader.Order.UNORDERED);
+
+        final Map<String, Thing> things = loader.load(triples(), t -> t[0], t -> t[1], t -> t[2]);
+
+        assertEquals(SUBJECTS, things.size());
+        assertTrue(things.get(subject(SUBJECTS - 1)).hasThisStringValue(HQDM.ENTITY_NAME.getIri(),
+                "name" + (SUBJECTS - 1)));
+    }
+
+    /**
+     * Test that a subject that cannot be built fails the load.
+     */
+    @Test
+    public void testLoadFailure() {
+        final List<String[]> triples = triples();
+        triples.add(new String[] { subject(SUBJECTS), HQDM.ENTITY_NAME.getIri(), "untyped" });
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, ParallelObjectLoader.Order.INPUT);
+        try {
+            loader.load(triples, t -> t[0], t -> t[1], t -> t[2]);
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test that when one chunk fails an unordered load, the other chunks have stopped calling the sink
+     * by the time the load throws.
+     */
+    @Test
+    public void testLoadUnorderedFailureStopsSink() {
+        final List<String[]> triples = triples();
+        // Fail the first chunk once the other workers have started theirs.
+        triples.add(30, new String[] { subject(SUBJECTS), HQDM.ENTITY_NAME.getIri(), "untyped" });
+        final AtomicInteger delivered = new AtomicInteger();
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, ParallelObjectLoader.Order.UNORDERED);
+        try {
+            loader.load(triples, t -> t[0], t -> t[1], t -> t[2], thing -> {
+                LockSupport.parkNanos(1_000_000);
+                delivered.incrementAndGet();
+            });
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+        final int atThrow = delivered.get();
+
+        assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+        assertEquals(atThrow, delivered.get());
+        assertTrue(atThrow < SUBJECTS);
+    }
+
+    /**
+     * Test loading a memory-mapped N-Triples file in input order.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testLoadFile() throws IOException {
+        final Path file = write(triples(), -1);
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, ParallelObjectLoader.Order.INPUT);
+
+        final Map<String, Thing> things = loader.load(file);
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            expected.add(subject(i));
+        }
+        assertEquals(expected, new ArrayList<>(things.keySet()));
+        assertTrue(things.get(subject(42)) instanceof Person);
+        assertTrue(things.get(subject(42)).hasThisStringValue(HQDM.ENTITY_NAME.getIri(), "name42"));
+        assertTrue(loader.getWorkerStatistics().stream()
+                .mapToLong(ParallelObjectLoader.WorkerStatistics::getObjectCount).sum() == SUBJECTS);
+    }
+
+    /**
+     * Test that a malformed line fails a file load, unless errors are sent to a sink, when it is
+     * reported and skipped.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testLoadFileInvalidLine() throws IOException {
+        final Path file = write(triples(), SUBJECTS * 3 / 2);
+        try {
+            new ParallelObjectLoader(pool, ParallelObjectLoader.Order.INPUT).load(file);
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            // Expected.
+        }
+
+        final List<IngestError> errors = Collections.synchronizedList(new ArrayList<>());
+        final ParallelObjectLoader loader = new ParallelObjectLoader(pool, pool.getParallelism(),
+                ParallelObjectLoader.Order.INPUT, errors::add);
+        final Map<String, Thing> things = loader.load(file);
+
+        assertEquals(SUBJECTS, things.size());
+        assertEquals(1, errors.size());
+        assertEquals(IngestError.Reason.INVALID_LINE, errors.get(0).getReason());
+        assertNull(errors.get(0).getSubject());
+        assertEquals(1, loader.getWorkerStatistics().stream()
+                .mapToLong(ParallelObjectLoader.WorkerStatistics::getErrorCount).sum());
+    }
+
+    /**
+     * Write triples to an N-Triples file, with a malformed line before one of them if wanted.
+     */
+    private Path write(final List<String[]> triples, final int invalidBefore) throws IOException {
+        final Path file = folder.newFile().toPath();
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < triples.size(); i++) {
+            final String[] triple = triples.get(i);
+            if (i == invalidBefore) {
+                text.append('<').append(triple[0]).append("> <").append(triple[1]).append("> \"unterminated\n");
+            }
+            final String object = triple[2].startsWith("http") ? "<" + triple[2] + ">" : "\"" + triple[2] + "\"";
+            text.append('<').append(triple[0]).append("> <").append(triple[1]).append("> ").append(object)
+                    .append(" .\n");
+        }
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String subject(final int i) {
+        return HQDM.HQDM.getNamespace() + "person" + i;
+    }
+
+    private static List<String[]> triples() {
+        final List<String[]> triples = new ArrayList<>();
+        for (int i = 0; i < SUBJECTS; i++) {
+            triples.add(new String[] { subject(i), RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri() });
+            triples.add(new String[] { subject(i), HQDM.ENTITY_NAME.getIri(), "name" + i });
+            triples.add(new String[] { subject(i), HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/kind" });
+        }
+        return triples;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.KindOfPerson;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.services.ClassServices;
+import uk.gov.gchq.hqdm.services.ReferenceDataRegistry;
+
+/**
+ * Tests for the {@link ReferenceDataLoader}.
+ */
+public class ReferenceDataLoaderTest {
+
+    private static final String KIND1 = HQDM.HQDM.getNamespace() + "kind1";
+
+    private static final String KIND2 = HQDM.HQDM.getNamespace() + "kind2";
+
+    /** Temporary folder for reference data files. */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test preloading a registry from an N-Triples file.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testLoadFile() throws IOException {
+        final Path file = folder.newFile("reference.nt").toPath();
+        Files.writeString(file, String.join("\n",
+                "# Reference data",
+                triple(KIND1, RDFS.RDF_TYPE.getIri(), "<" + HQDM.KIND_OF_PERSON.getIri() + ">"),
+                triple(KIND1, HQDM.ENTITY_NAME.getIri(), "\"Kind \\\"one\\\"\\t\\u00e9\"@en"),
+                "",
+                triple(KIND2, RDFS.RDF_TYPE.getIri(), "<" + HQDM.KIND_OF_PERSON.getIri() + ">"),
+                triple(KIND2, HQDM.ENTITY_NAME.getIri(),
+                        "\"two\"^^<http://www.w3.org/2001/XMLSchema#string>") + " # trailing comment"),
+                StandardCharsets.UTF_8);
+
+        final ReferenceDataRegistry registry = new ReferenceDataRegistry();
+        assertEquals(2, ReferenceDataLoader.load(file, registry));
+
+        final Thing kind1 = registry.lookup(KIND1);
+        assertTrue(kind1 instanceof KindOfPerson);
+        assertTrue(kind1.isFrozen());
+        assertEquals(Set.of("Kind \"one\"\té"), kind1.value(HQDM.ENTITY_NAME.getIri()));
+        assertEquals(Set.of("two"), registry.lookup(KIND2).value(HQDM.ENTITY_NAME.getIri()));
+        assertSame(kind1, registry.get(KIND1, ClassServices::createKindOfPerson));
+    }
+
+    /**
+     * Test that invalid lines are reported with their line numbers.
+     *
+     * @throws IOException If the text cannot be read.
+     */
+    @Test
+    public void testInvalidLine() throws IOException {
+        final String text = triple(KIND1, RDFS.RDF_TYPE.getIri(), "<" + HQDM.KIND_OF_PERSON.getIri() + ">")
+                + "\n_:b0 <" + RDFS.RDF_TYPE.getIri() + "> <" + HQDM.KIND_OF_PERSON.getIri() + "> .\n";
+        try {
+            ReferenceDataLoader.load(new StringReader(text), new ReferenceDataRegistry());
+            fail("Expected a HqdmException");
+        } catch (final HqdmException e) {
+            assertEquals("Invalid N-Triples at line 2: blank nodes are not supported", e.getMessage());
+        }
+    }
+
+    private static String triple(final String subject, final String predicate, final String object) {
+        return "<" + subject + "> <" + predicate + "> " + object + " .";
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+
+/**
+ * Tests for the {@link SnapshotStore}.
+ */
+public class SnapshotStoreTest {
+
+    private static final String PERSON = "http://example.com/data#person";
+
+    private static final String KIND = "http://example.com/data#kind";
+
+    /** Temporary folder for snapshot files. */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that views of a mapped snapshot answer queries as the objects written do.
+     *
+     * @throws IOException If the snapshot cannot be written or read.
+     */
+    @Test
+    public void testViews() throws IOException {
+        final List<Thing> things = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final Thing person = HqdmObjectFactory.create(PERSON + i,
+                    List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                            new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person Ünïcode " + i),
+                            new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), KIND + i % 3)));
+            person.addRealValue(HQDM.VALUE_.getIri(), i / 2.0);
+            things.add(person);
+        }
+        final Path file = write(things, true);
+
+        try (SnapshotStore store = SnapshotStore.open(file)) {
+            assertEquals(50, store.size());
+            assertNull(store.get("http://example.com/data#missing"));
+            for (int i = 0; i < 50; i++) {
+                final Thing view = store.get(PERSON + i);
+                final Thing original = things.get(i);
+                assertEquals(PERSON + i, view.getId());
+                assertEquals(view, store.get(i));
+                assertEquals(PERSON + i, store.get(i).getId());
+                assertEquals(original.getPredicates(), view.getPredicates());
+                assertEquals(Set.of(KIND + i % 3), view.value(HQDM.MEMBER_OF_KIND.getIri()));
+                assertTrue(view.hasValue(HQDM.ENTITY_NAME.getIri()));
+                assertFalse(view.hasValue(HQDM.PART_OF_POSSIBLE_WORLD.getIri()));
+                assertNull(view.value(HQDM.PART_OF_POSSIBLE_WORLD.getIri()));
+                assertTrue(view.hasThisValue(HQDM.MEMBER_OF_KIND.getIri(), KIND + i % 3));
+                assertFalse(view.hasThisValue(HQDM.MEMBER_OF_KIND.getIri(), KIND + (i + 1) % 3));
+                assertTrue(view.hasThisStringValueIgnoreCase(HQDM.ENTITY_NAME.getIri(), "PERSON ÜNÏCODE " + i));
+                assertTrue(view.hasThisStringValueFuzzy(HQDM.ENTITY_NAME.getIri(), "ünïcode"));
+                assertArrayEquals(new double[] { i / 2.0 }, view.realValues(HQDM.VALUE_.getIri()), 0);
+                assertTrue(view.isFrozen());
+            }
+            try {
+                store.get(PERSON + 0).addValue(HQDM.MEMBER_OF_KIND.getIri(), KIND);
+                fail("Expected HqdmException");
+            } catch (final HqdmException e) {
+                assertEquals("Cannot modify a HQDM object in a snapshot store: " + PERSON + 0, e.getMessage());
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final List<Thing> read = SnapshotReader.read(channel);
+            assertEquals(things.size(), read.size());
+            for (int i = 0; i < things.size(); i++) {
+                assertEquals(things.get(i).getPredicates(), read.get(i).getPredicates());
+            }
+        }
+    }
+
+    /**
+     * Test that a snapshot written without an index is rejected.
+     *
+     * @throws IOException If the snapshot cannot be written.
+     */
+    @Test
+    public void testNoIndex() throws IOException {
+        final Path file = write(List.of(HqdmObjectFactory.create(PERSON,
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri())))), false);
+        try (SnapshotStore store = SnapshotStore.open(file)) {
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            assertTrue(e.getMessage(), e.getMessage().endsWith(": no index"));
+        }
+    }
+
+    /**
+     * Test that a lookup in an index with no empty slot fails rather than probing forever.
+     *
+     * @throws IOException If the snapshot cannot be written or read.
+     */
+    @Test
+    public void testFullIndex() throws IOException {
+        final Path file = write(List.of(HqdmObjectFactory.create(PERSON,
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri())))), true);
+        // The slot table of one object has four slots, ends at the footer and is preceded by its
+        // size. Point every slot at the object.
+        final int slotCount = 4;
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        final int slotsEnd = bytes.capacity() - SnapshotFormat.FOOTER_SIZE;
+        assertEquals(slotCount, bytes.getInt(slotsEnd - (slotCount + 1) * Integer.BYTES));
+        for (int slot = 1; slot <= slotCount; slot++) {
+            bytes.putInt(slotsEnd - slot * Integer.BYTES, 1);
+        }
+        Files.write(file, bytes.array());
+
+        try (SnapshotStore store = SnapshotStore.open(file)) {
+            assertEquals(PERSON, store.get(PERSON).getId());
+            store.get(PERSON + "missing");
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            assertTrue(e.getMessage(), e.getMessage().endsWith(": corrupt index"));
+        }
+    }
+
+    private Path write(final List<Thing> things, final boolean indexed) throws IOException {
+        final Path file = folder.newFile().toPath();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            SnapshotWriter.write(things, channel, indexed);
+        }
+        return file;
+    }
+}
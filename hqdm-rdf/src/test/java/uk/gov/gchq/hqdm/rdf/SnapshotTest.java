@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.Datatype;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.pojo.PredicateRegistry;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.IRI;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.rdf.util.Triples;
+import uk.gov.gchq.hqdm.services.DynamicObjects;
+
+/**
+ * Tests for {@link SnapshotWriter} and {@link SnapshotReader}.
+ */
+public class SnapshotTest {
+
+    private static final String KIND = "http://example.com/data#kind";
+
+    /**
+     * Test that things read back from a snapshot equal those written, with the same types, values and
+     * datatypes.
+     *
+     * @throws IOException If the snapshot cannot be written or read.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        final HqdmObject person = (HqdmObject) HqdmObjectFactory.create("http://example.com/data#person1",
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                        new Pair<>(HQDM.ENTITY_NAME.getIri(), "Person \"one\" é"),
+                        new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), KIND),
+                        new Pair<>(HQDM.PART_OF_POSSIBLE_WORLD.getIri(), "http://example.com/data#world")));
+        person.addStringValue(HQDM.ENTITY_NAME.getIri(), "2021-01-01");
+        person.addRealValue(HQDM.VALUE_.getIri(), 1.5);
+        person.addRealValue(HQDM.VALUE_.getIri(), -0.0);
+        person.addValue(PredicateRegistry.idOf(HQDM.ENTITY_ID.getIri()), Integer.MIN_VALUE, Datatype.UNKNOWN);
+        person.addValue(PredicateRegistry.idOf(HQDM.ENTITY_ID.getIri()), Long.MAX_VALUE, Datatype.UNKNOWN);
+        person.addValue(PredicateRegistry.idOf(HQDM.ENTITY_ID.getIri()), new IRI(KIND), Datatype.UNKNOWN);
+        person.freeze();
+
+        final Person multiTyped = DynamicObjects.create("http://example.com/data#person2", Person.class,
+                new java.lang.Class[] { Person.class, Participant.class });
+        ((HqdmObject) multiTyped).addValue(HQDM.MEMBER_OF_KIND.getIri(), KIND);
+        final Thing plain = new HqdmObject("http://example.com/data#thing1") {};
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final long written = SnapshotWriter.write(List.of(person, multiTyped, plain), Channels.newChannel(out));
+        assertEquals(out.size(), written);
+
+        final List<Thing> read = SnapshotReader.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(3, read.size());
+
+        final HqdmObject person1 = (HqdmObject) read.get(0);
+        assertEquals(Set.of(Person.class), DynamicObjects.typesOf(person1));
+        assertEquals(person.getPredicates(), person1.getPredicates());
+        assertArrayEquals(person.realValues(HQDM.VALUE_.getIri()), person1.realValues(HQDM.VALUE_.getIri()), 0);
+        for (final String predicate : person.getPredicates().keySet()) {
+            final int id = PredicateRegistry.idOf(predicate);
+            assertEquals(predicate, person.datatypeOf(id), person1.datatypeOf(id));
+        }
+        assertEquals(Triples.toTriples(person), Triples.toTriples(person1));
+
+        final Thing person2 = read.get(1);
+        assertEquals(Set.of(Person.class, Participant.class), DynamicObjects.typesOf(person2));
+        assertEquals(multiTyped.getPredicates(), person2.getPredicates());
+        assertTrue(person2.hasThisValue(HQDM.MEMBER_OF_KIND.getIri(), KIND));
+
+        assertEquals(plain.getId(), read.get(2).getId());
+        assertEquals(Set.of(Thing.class), DynamicObjects.typesOf(read.get(2)));
+    }
+
+    /**
+     * Test that data that is not a snapshot is rejected.
+     *
+     * @throws IOException If the data cannot be read.
+     */
+    @Test
+    public void testInvalidSnapshot() throws IOException {
+        try {
+            SnapshotReader.read(Channels.newChannel(new ByteArrayInputStream(new byte[] { 'H', 'Q', 'D' })));
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            assertEquals("Invalid snapshot at byte 0: unexpected end of data", e.getMessage());
+        }
+        try {
+            SnapshotReader.read(Channels.newChannel(new ByteArrayInputStream("<a> <b> <c> .\n".getBytes())));
+            fail("Expected HqdmException");
+        } catch (final HqdmException e) {
+            assertEquals("Invalid snapshot at byte 0: not a snapshot", e.getMessage());
+        }
+    }
+}
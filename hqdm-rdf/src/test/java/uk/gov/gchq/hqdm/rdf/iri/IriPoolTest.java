@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.iri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.util.Pair;
+import uk.gov.gchq.hqdm.services.SpatioTemporalExtentServices;
+
+/**
+ * Tests for the {@link IriPool}.
+ */
+public class IriPoolTest {
+
+    private static final String KIND = "http://example.com/data#person_kind";
+
+    @After
+    public void tearDown() {
+        HqdmObject.setValueInterner(null);
+        HqdmObjectFactory.setIriPool(null);
+    }
+
+    /**
+     * Test that equal strings and IRIs are interned to one instance, and that the statistics count
+     * the lookups.
+     */
+    @Test
+    public void testIntern() {
+        final var pool = new IriPool();
+        final var first = new String(KIND);
+        final var second = new String(KIND);
+        assertNotSame(first, second);
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.intern(first));
+        assertEquals(2, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(2.0 / 3.0, pool.getHitRate(), 0.0);
+
+        final var iri = new IRI(KIND);
+        assertSame(iri, pool.intern(iri));
+        assertSame(iri, pool.intern(new IRI(KIND)));
+        assertEquals(2, pool.size());
+
+        pool.resetStatistics();
+        assertEquals(0.0, pool.getHitRate(), 0.0);
+    }
+
+    /**
+     * Test that references added to objects and objects built from triples share pooled IRIs.
+     */
+    @Test
+    public void testInterningObjectReferences() {
+        final var pool = new IriPool();
+        HqdmObject.setValueInterner(pool);
+        HqdmObjectFactory.setIriPool(pool);
+
+        final var person = SpatioTemporalExtentServices.createPerson("http://example.com/data#person1");
+        person.addValue(HQDM.MEMBER_OF_KIND.getIri(), new String(KIND));
+        final Thing built = HqdmObjectFactory.create(new String("http://example.com/data#person2"),
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                        new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), new String(KIND))));
+
+        assertSame(person.value(HQDM.MEMBER_OF_KIND.getIri()).iterator().next(),
+                built.value(HQDM.MEMBER_OF_KIND.getIri()).iterator().next());
+        assertSame(built.getId(), pool.intern(new String("http://example.com/data#person2")));
+    }
+}
@@ -15,6 +15,11 @@
 package uk.gov.gchq.hqdm.rdf.iri;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -36,6 +41,7 @@ public class IriTest {
         assertEquals(RDFS.RDF_TYPE.getIri(), iri.getIri());
         assertEquals("type", iri.getResource());
         assertEquals(iri.getIri(), iri.toString());
+        assertSame(iri.getIri(), iri.getIri());
     }
 
     /**
@@ -57,4 +63,75 @@ public class IriTest {
     public void testCreateIriFail() {
         new IRI("bad iri");
     }
+
+    /**
+     * Test creating IRIs with schemes other than URL protocols, and finding their resource names.
+     */
+    @Test
+    public void testCreateIriWithOtherSchemes() {
+        assertEquals("0451450523", new IRI("urn:isbn:0451450523").getResource());
+        assertEquals("f81d4fae", new IRI("urn:uuid:f81d4fae").getResource());
+        assertEquals("r%C3%A9sum\u00e9", new IRI("http://example.com/path/r%C3%A9sum\u00e9").getResource());
+        assertEquals("", new IRI("http://example.com/data#").getResource());
+        assertTrue(IRI.isValid("urn:isbn:0451450523"));
+    }
+
+    /**
+     * Test that characters not allowed in IRIs are rejected.
+     */
+    @Test
+    public void testCreateIriWithBadCharactersFails() {
+        for (final String bad : new String[] { "", ":no-scheme", "1http://example.com/", "http://example.com/a b",
+                "http://example.com/<a>", "http://example.com/%2", "http://example.com/%zz",
+                "http://example.com/a#b#c" }) {
+            assertFalse(IRI.isValid(bad));
+            try {
+                new IRI(bad);
+                fail("Expected IriException for: " + bad);
+            } catch (final IriException e) {
+                // Expected.
+            }
+        }
+    }
+
+    /**
+     * Test that IRIs compare by namespace and resource name, and hash as their IRI strings.
+     */
+    @Test
+    public void testNamespaceAndResource() {
+        final var fromString = new IRI("http://www.semanticweb.org/hqdm#person");
+        final var fromBase = new IRI(HQDM.HQDM, "person");
+
+        assertEquals(HQDM.PERSON, fromString);
+        assertEquals(fromBase, fromString);
+        assertEquals(fromString.getIri().hashCode(), fromString.hashCode());
+        assertEquals("http://www.semanticweb.org/hqdm#", fromString.getNamespace());
+        assertTrue(fromString.isIn(HQDM.HQDM));
+        assertFalse(fromString.isIn(RDFS.RDF));
+        assertNotEquals(new IRI("http://www.semanticweb.org/other#person"), fromString);
+    }
+
+    /**
+     * Test that an IRI built from a base namespace matches the IRI parsed from its full string, when
+     * the resource name contains separators or is not valid.
+     */
+    @Test
+    public void testCreateIriWithIriBaseSplitsLikeString() {
+        final IriBase path = new IriBase("ex", "http://example.com/data/");
+        final IriBase fragment = new IriBase("frag", "http://example.com/data#");
+
+        assertEquals(new IRI("http://example.com/data/a/b"), new IRI(path, "a/b"));
+        assertEquals("b", new IRI(path, "a/b").getResource());
+        assertEquals("a/b:c", new IRI(fragment, "a/b:c").getResource());
+        assertEquals("c", new IRI(path, "a#c").getResource());
+        assertEquals(new IRI("http://example.com/data/a%20b").hashCode(), new IRI(path, "a%20b").hashCode());
+        for (final String bad : new String[] { "a b", "%2", "#b", "<a>" }) {
+            try {
+                new IRI(fragment, bad);
+                fail("Expected IriException for: " + bad);
+            } catch (final IriException e) {
+                // Expected.
+            }
+        }
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import uk.gov.gchq.hqdm.exception.HqdmException;
+
+/**
+ * Tests for the {@link MappedNtriplesReader}.
+ */
+public class MappedNtriplesReaderTest {
+
+    private static final String TEXT = String.join("\n",
+            "# Comment",
+            "<http://example.com/s1> <http://example.com/p1> <http://example.com/o1> .",
+            "<http://example.com/s1> <http://example.com/p2> \"caf\\u00e9 \\\"quoted\\\"\"@en .\r",
+            "",
+            "<http://example.com/s2> <http://example.com/p1> \"2021-03-04\"^^<http://www.w3.org/2001/XMLSchema#date>"
+                    + " <http://example.com/graph> .",
+            "<http://example.com/s2> <http://example.com/p2> \"été\" . # trailing comment",
+            "<http://example.com/s3> <http://example.com/p1> <http://example.com/o3> _:graph .");
+
+    /** Temporary folder for N-Triples files. */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Test that the mapped reader reads the same triples as the line reader, across window
+     * boundaries.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testReadMatchesLineReader() throws IOException {
+        final Path file = write(TEXT);
+        final TripleBatch expected = new TripleBatch(8);
+        new NtriplesReader(new StringReader(TEXT.replace(" <http://example.com/graph>", "")
+                .replace(" _:graph", ""))).read(expected, 100);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // A window only a little longer than the longest line.
+            final MappedNtriplesReader reader = new MappedNtriplesReader(channel, 0, channel.size(), 160);
+            final TripleBatch batch = new TripleBatch(2);
+            int read = 0;
+            int count;
+            while ((count = reader.read(batch, 2)) > 0) {
+                read += count;
+            }
+            assertEquals(5, read);
+            assertEquals(channel.size(), reader.getPosition());
+
+            assertEquals(expected.size(), batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(expected.getSubject(i), batch.getSubject(i));
+                assertEquals(expected.getPredicate(i), batch.getPredicate(i));
+                assertEquals(expected.getObject(i), batch.getObject(i));
+                assertEquals(expected.isLiteral(i), batch.isLiteral(i));
+            }
+            assertEquals("café \"quoted\"", batch.getObject(1));
+            assertSame(batch.getSubject(0), batch.getSubject(1));
+            assertFalse(batch.isLiteral(4));
+        }
+    }
+
+    /**
+     * Test that a file is split at lines where the subject changes.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testSplit() throws IOException {
+        final Path file = write(TEXT);
+        final String[] lines = TEXT.split("\n");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = MappedNtriplesReader.split(channel, 8);
+
+            assertEquals(0L, bounds[0]);
+            assertEquals(channel.size(), bounds[bounds.length - 1]);
+            assertTrue(bounds.length > 2);
+            long offset = 0;
+            for (final String line : lines) {
+                final long lineStart = offset;
+                offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                for (int i = 1; i < bounds.length - 1; i++) {
+                    if (bounds[i] == lineStart) {
+                        assertTrue(line, line.startsWith("<http://example.com/s2>")
+                                || line.startsWith("<http://example.com/s3>"));
+                    }
+                }
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                assertTrue(bounds[i] > bounds[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Test that a split landing on comment lines within a subject does not split the subject.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testSplitAtComment() throws IOException {
+        final String line = "<http://example.com/s1> <http://example.com/p1> <http://example.com/o1> .\n";
+        final StringBuilder text = new StringBuilder();
+        text.append(line.repeat(10)).append('#').append(" ".repeat(200)).append("\n#\n").append(line.repeat(10));
+        final long secondSubject = text.length();
+        text.append(line.replace("s1", "s2"));
+        final Path file = write(text.toString());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long[] bounds = MappedNtriplesReader.split(channel, 2);
+
+            assertArrayEquals(new long[] { 0, secondSubject, channel.size() }, bounds);
+        }
+    }
+
+    /**
+     * Test that invalid lines are reported with their offsets.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testInvalidLine() throws IOException {
+        final Path file = write("<http://example.com/s1> <http://example.com/p1> \"unterminated .\n");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new MappedNtriplesReader(channel).read(new TripleBatch(), 10);
+            fail("Expected a HqdmException");
+        } catch (final HqdmException e) {
+            assertEquals("Invalid N-Triples at byte 49: unterminated literal", e.getMessage());
+        }
+    }
+
+    /**
+     * Test that with a consumer invalid lines are reported by error and offset and skipped.
+     *
+     * @throws IOException If the file cannot be written or read.
+     */
+    @Test
+    public void testInvalidLineSkipped() throws IOException {
+        final Path file = write("<http://example.com/s1> <http://example.com/p1> \"unterminated .\n"
+                + "<http://example.com/s1> <http://example.com/p2> _:blank .\n"
+                + "<http://example.com/s1> <http://example.com/p3> <http://example.com/o1> .\n");
+        final List<String> errors = new ArrayList<>();
+        final TripleBatch batch = new TripleBatch();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(1, new MappedNtriplesReader(channel).read(batch, 10,
+                    (error, offset) -> errors.add(error + "@" + offset)));
+        }
+
+        assertEquals(List.of("UNTERMINATED_LITERAL@49", "BLANK_NODE@112"), errors);
+        assertEquals("http://example.com/o1", batch.getObject(0));
+    }
+
+    private Path write(final String text) throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+}
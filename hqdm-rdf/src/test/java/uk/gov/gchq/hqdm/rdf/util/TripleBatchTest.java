@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.model.Participant;
+import uk.gov.gchq.hqdm.model.Person;
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+
+/**
+ * Tests for the {@link TripleBatch} class.
+ */
+public class TripleBatchTest {
+
+    private static final String PERSON1 = HQDM.HQDM.getNamespace() + "person1";
+
+    private static final String PERSON2 = HQDM.HQDM.getNamespace() + "person2";
+
+    /**
+     * Test that things converted to a batch are rebuilt with the same types and values.
+     */
+    @Test
+    public void testRoundTrip() {
+        final Thing person = HqdmObjectFactory.create(PERSON1,
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                        new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PARTICIPANT.getIri()),
+                        new Pair<>(HQDM.ENTITY_NAME.getIri(), "person1"),
+                        new Pair<>(HQDM.MEMBER_OF_KIND.getIri(), "http://example.com/kind")));
+
+        final TripleBatch batch = Triples.toTripleBatch(person, new TripleBatch());
+        assertEquals(4, batch.size());
+
+        final List<Thing> things = HqdmObjectFactory.create(batch);
+        assertEquals(1, things.size());
+        final Thing copy = things.get(0);
+        assertTrue(copy instanceof Person);
+        assertTrue(copy instanceof Participant);
+        assertEquals(person.getPredicates(), copy.getPredicates());
+    }
+
+    /**
+     * Test that a cleared batch can be refilled.
+     */
+    @Test
+    public void testClear() {
+        final TripleBatch batch = new TripleBatch(1);
+        batch.add(PERSON1, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri(), false);
+        batch.add(PERSON1, HQDM.ENTITY_NAME.getIri(), "http://not/a/reference", true);
+        assertEquals(2, batch.size());
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+
+        batch.add(PERSON2, RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri(), false);
+        batch.add(PERSON2, HQDM.ENTITY_NAME.getIri(), "http://not/a/reference", true);
+        assertEquals(PERSON2, batch.getSubject(1));
+        assertEquals(HQDM.ENTITY_NAME.getIri(), batch.getPredicate(1));
+        assertTrue(batch.isLiteral(1));
+        assertFalse(batch.isLiteral(0));
+
+        final Thing person = HqdmObjectFactory.create(batch).get(0);
+        assertEquals(PERSON2, person.getId());
+        assertTrue(person.hasThisStringValue(HQDM.ENTITY_NAME.getIri(), "http://not/a/reference"));
+    }
+}
@@ -16,8 +16,11 @@ package uk.gov.gchq.hqdm.rdf.util;
 import static org.junit.Assert.assertEquals;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
+import uk.gov.gchq.hqdm.pojo.HqdmObject;
 import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
 import uk.gov.gchq.hqdm.rdf.iri.HQDM;
 import uk.gov.gchq.hqdm.rdf.iri.IRI;
@@ -56,4 +59,22 @@ public class TriplesTest {
         // Assert the values are correct.
         assertEquals(EXPECTED1, triples);
     }
+
+    /**
+     * Test that recorded datatypes and the form of untyped values give the same literal datatypes.
+     */
+    @Test
+    public void testLiteralDatatypes() {
+        final var typed = new HqdmObject("http://example.com/data#thing1") {
+        };
+        typed.addStringValue(HQDM.ENTITY_NAME.getIri(), "2021-03-04");
+        final var untyped = new HqdmObject("http://example.com/data#thing1") {
+        };
+        untyped.setPredicates(Map.of(HQDM.ENTITY_NAME.getIri(), Set.of("2021-03-04")));
+
+        final String expected = "<http://example.com/data#thing1> <" + HQDM.ENTITY_NAME.getIri()
+                + "> \"2021-03-04\"^^<http://www.w3.org/2001/XMLSchema#date>.\n";
+        assertEquals(expected, Triples.toTriples(typed));
+        assertEquals(expected, Triples.toTriples(untyped));
+    }
 }
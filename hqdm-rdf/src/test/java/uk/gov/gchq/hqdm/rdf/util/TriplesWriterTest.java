@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package uk.gov.gchq.hqdm.rdf.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import uk.gov.gchq.hqdm.model.Thing;
+import uk.gov.gchq.hqdm.rdf.HqdmObjectFactory;
+import uk.gov.gchq.hqdm.rdf.iri.HQDM;
+import uk.gov.gchq.hqdm.rdf.iri.RDFS;
+
+/**
+ * Tests for the {@link TriplesWriter}.
+ */
+public class TriplesWriterTest {
+
+    private static final String PERSON1 = HQDM.HQDM.getNamespace() + "person1";
+
+    private static final String NAME = "Person \"one\"\nsmith \\ é😀";
+
+    private static Thing createPerson() {
+        return HqdmObjectFactory.create(PERSON1,
+                List.of(new Pair<>(RDFS.RDF_TYPE.getIri(), HQDM.PERSON.getIri()),
+                        new Pair<>(HQDM.ENTITY_NAME.getIri(), NAME),
+                        new Pair<>(HQDM.ENTITY_ID.getIri(), "2021-03-04T05:06:07Z")));
+    }
+
+    /**
+     * Test that the output is N-Triples that reads back to the values of the object.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    @Test
+    public void testWriteReadsBack() throws IOException {
+        final Thing person = createPerson();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // A tiny buffer makes every value cross a buffer boundary.
+        try (TriplesWriter writer = new TriplesWriter(bytes, null, 4)) {
+            writer.write(person);
+        }
+        final String text = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("\"2021-03-04T05:06:07Z\"^^<http://www.w3.org/2001/XMLSchema#dateTime> .\n"));
+        assertTrue(text.contains("> <" + HQDM.PERSON.getIri() + "> .\n"));
+
+        final TripleBatch batch = new TripleBatch(4);
+        assertEquals(3, new NtriplesReader(new StringReader(text)).read(batch, 10));
+        final Set<String> read = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(PERSON1, batch.getSubject(i));
+            read.add(batch.getPredicate(i) + " " + batch.getObject(i) + " " + batch.isLiteral(i));
+        }
+        assertEquals(Set.of(RDFS.RDF_TYPE.getIri() + " " + HQDM.PERSON.getIri() + " false",
+                HQDM.ENTITY_NAME.getIri() + " " + NAME + " true",
+                HQDM.ENTITY_ID.getIri() + " 2021-03-04T05:06:07Z true"), read);
+    }
+
+    /**
+     * Test that writing to a channel gives the same bytes as writing to a stream.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    @Test
+    public void testWriteToChannel() throws IOException {
+        final Thing person = createPerson();
+        final ByteArrayOutputStream streamBytes = new ByteArrayOutputStream();
+        final ByteArrayOutputStream channelBytes = new ByteArrayOutputStream();
+        try (TriplesWriter stream = new TriplesWriter(streamBytes);
+                TriplesWriter channel = new TriplesWriter(Channels.newChannel(channelBytes))) {
+            stream.write(person);
+            stream.writeTriple(PERSON1, HQDM.PART_OF_POSSIBLE_WORLD.getIri(), 42L);
+            channel.write(person);
+            channel.writeTriple(PERSON1, HQDM.PART_OF_POSSIBLE_WORLD.getIri(), 42L);
+            stream.flush();
+            assertEquals(streamBytes.size(), stream.getBytesWritten());
+        }
+        assertArrayEquals(streamBytes.toByteArray(), channelBytes.toByteArray());
+        assertTrue(streamBytes.toString(StandardCharsets.UTF_8)
+                .endsWith("\"42\"^^<http://www.w3.org/2001/XMLSchema#integer> .\n"));
+    }
+}